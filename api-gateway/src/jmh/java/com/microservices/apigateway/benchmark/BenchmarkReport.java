@@ -0,0 +1,70 @@
+package com.microservices.apigateway.benchmark;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// JSON report of one GatewayBenchmark run, also the format of the stored baseline
+@Data
+public class BenchmarkReport {
+
+    private String timestamp;
+
+    private String javaVersion;
+
+    private int availableProcessors;
+
+    // Load and stub settings the run used; comparing against a baseline with other settings is flagged
+    private Map<String, String> settings = new LinkedHashMap<>();
+
+    private List<ScenarioResult> scenarios = new ArrayList<>();
+
+    @Data
+    public static class ScenarioResult {
+
+        private String scenario;
+
+        private double offeredPerSecond;
+
+        private double throughputPerSecond;
+
+        private long succeeded;
+
+        private long failed;
+
+        private long timedOut;
+
+        private double p50Millis;
+
+        private double p90Millis;
+
+        private double p99Millis;
+
+        private double p999Millis;
+
+        private double maxMillis;
+
+        static ScenarioResult of(String scenario, OpenLoadGenerator.Result result) {
+            ScenarioResult scenarioResult = new ScenarioResult();
+            scenarioResult.scenario = scenario;
+            scenarioResult.offeredPerSecond = result.offeredPerSecond();
+            scenarioResult.throughputPerSecond = result.throughputPerSecond();
+            scenarioResult.succeeded = result.succeeded;
+            scenarioResult.failed = result.failed;
+            scenarioResult.timedOut = result.timedOut;
+            scenarioResult.p50Millis = result.percentileMillis(50);
+            scenarioResult.p90Millis = result.percentileMillis(90);
+            scenarioResult.p99Millis = result.percentileMillis(99);
+            scenarioResult.p999Millis = result.percentileMillis(99.9);
+            scenarioResult.maxMillis = result.latencies.getMaxValue() / 1000.0;
+            return scenarioResult;
+        }
+    }
+
+    ScenarioResult scenario(String name) {
+        return scenarios.stream().filter(result -> result.scenario.equals(name)).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.microservices.apigateway.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One gateway configuration to measure: the full filter chain, or the chain with one filter switched
+ * off. Filters are switched off by removing their bean before the context starts, so the gateway
+ * runs exactly as in production minus that filter.
+ */
+final class BenchmarkScenario {
+
+    static final String ALL_FILTERS = "all-filters";
+
+    static final List<BenchmarkScenario> ALL = List.of(
+            new BenchmarkScenario(ALL_FILTERS, Set.of(), true, true),
+            new BenchmarkScenario("no-logging", Set.of("loggingGlobalFilter"), true, true),
+            new BenchmarkScenario("no-jwt", Set.of("jwtAuthenticationFilter"), true, true),
+            // Neither CorsWebFilter nor the route mapping's global CORS config runs without an Origin header
+            new BenchmarkScenario("no-cors", Set.of("corsWebFilter"), false, true),
+            new BenchmarkScenario("no-circuit-breaker", Set.of(), true, false),
+            new BenchmarkScenario("bare", Set.of("loggingGlobalFilter", "jwtAuthenticationFilter", "corsWebFilter"),
+                    false, false));
+
+    final String name;
+
+    // Bean definitions removed from the gateway context
+    final Set<String> removedBeans;
+
+    // Whether requests carry an Origin header, i.e. are CORS requests
+    final boolean cors;
+
+    // Whether the benchmark route has a CircuitBreaker filter
+    final boolean circuitBreaker;
+
+    private BenchmarkScenario(String name, Set<String> removedBeans, boolean cors, boolean circuitBreaker) {
+        this.name = name;
+        this.removedBeans = removedBeans;
+        this.cors = cors;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /** The named scenarios in the order given, or all of them for "all". */
+    static List<BenchmarkScenario> select(String names) {
+        if (names == null || names.isBlank() || "all".equals(names)) {
+            return ALL;
+        }
+        Map<String, BenchmarkScenario> byName = new LinkedHashMap<>();
+        ALL.forEach(scenario -> byName.put(scenario.name, scenario));
+        return Arrays.stream(names.split(","))
+                .map(String::trim)
+                .map(name -> {
+                    BenchmarkScenario scenario = byName.get(name);
+                    if (scenario == null) {
+                        throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of "
+                                + byName.keySet());
+                    }
+                    return scenario;
+                })
+                .toList();
+    }
+
+    // The only route the benchmark drives, to lb://bench-service (the stub upstreams)
+    String routesYaml() {
+        StringBuilder yaml = new StringBuilder()
+                .append("routes:\n")
+                .append("  - id: bench\n")
+                .append("    uri: lb://bench-service\n")
+                .append("    path: /api/bench/**\n");
+        if (circuitBreaker) {
+            yaml.append("    filters:\n")
+                    .append("      - CircuitBreaker=bench,forward:/fallback\n");
+        }
+        return yaml.toString();
+    }
+}
@@ -0,0 +1,236 @@
+package com.microservices.apigateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.microservices.apigateway.ApiGatewayApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Gateway throughput and latency under open-model load, with each filter on or off.
+ * <p>
+ * For every scenario it boots the real gateway (ApiGatewayApplication with application.properties)
+ * on a random port, with every service pointed at in-process stub upstreams, drives GETs through an
+ * authenticated route at a fixed arrival rate, and then shuts the gateway down again. The report
+ * goes to build/benchmark/gateway-benchmark.json and is compared with the stored baseline, if any.
+ * <p>
+ * Options (all --name=value): rate (requests/s, 2000), duration (30s), warmup (10s), latency of the
+ * stubs (5ms), payload bytes (1024), upstreams (1), connections (512), scenarios (comma-separated, all),
+ * baseline (benchmark/gateway-baseline.json), save-baseline (flag), and set=key=value (repeatable) to
+ * override any gateway property. Rate limiting is off unless set, since the benchmark sends as one user.
+ */
+public final class GatewayBenchmark {
+
+    private static final List<String> SERVICES = List.of(
+            "user-service", "product-service", "order-service", "payment-service", "notification-service",
+            "bench-service");
+
+    private static final Path OUTPUT_DIR = Path.of("build", "benchmark");
+
+    private GatewayBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> overrides = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String option = arg.substring(2);
+            int equals = option.indexOf('=');
+            String name = equals < 0 ? option : option.substring(0, equals);
+            String value = equals < 0 ? "true" : option.substring(equals + 1);
+            if ("set".equals(name)) {
+                overrides.add(value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "2000"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration latency = DurationStyle.detectAndParse(options.getOrDefault("latency", "5ms"));
+        int payloadBytes = Integer.parseInt(options.getOrDefault("payload", "1024"));
+        int upstreams = Integer.parseInt(options.getOrDefault("upstreams", "1"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "512"));
+        List<BenchmarkScenario> scenarios = BenchmarkScenario.select(options.get("scenarios"));
+        Path baselinePath = Path.of(options.getOrDefault("baseline", "benchmark/gateway-baseline.json"));
+        if (rate <= 0 || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("rate and duration must be positive");
+        }
+
+        BenchmarkReport report = new BenchmarkReport();
+        report.setTimestamp(Instant.now().toString());
+        report.setJavaVersion(System.getProperty("java.version"));
+        report.setAvailableProcessors(Runtime.getRuntime().availableProcessors());
+        report.getSettings().put("rate", String.valueOf(rate));
+        report.getSettings().put("duration", duration.toString());
+        report.getSettings().put("latency", latency.toString());
+        report.getSettings().put("payload", String.valueOf(payloadBytes));
+        report.getSettings().put("upstreams", String.valueOf(upstreams));
+        report.getSettings().put("overrides", String.join(",", overrides));
+
+        Files.createDirectories(OUTPUT_DIR);
+        List<StubUpstream> stubs = new ArrayList<>();
+        OpenLoadGenerator generator = new OpenLoadGenerator(connections, Duration.ofSeconds(10));
+        try {
+            for (int i = 0; i < upstreams; i++) {
+                stubs.add(new StubUpstream(latency, payloadBytes));
+            }
+            String instances = stubs.stream().map(stub -> stub.uri().toString()).collect(Collectors.joining(","));
+            System.out.printf("Stub upstreams %s (%s latency, %d-byte payload); %.0f req/s for %s after %s warmup%n",
+                    instances, latency, payloadBytes, rate, duration, warmup);
+
+            for (BenchmarkScenario scenario : scenarios) {
+                System.out.printf("%n=== %s ===%n", scenario.name);
+                try (ConfigurableApplicationContext gateway = startGateway(scenario, instances, overrides)) {
+                    int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+                    String token = token(gateway.getEnvironment().getRequiredProperty("jwt.secret"));
+                    URI uri = URI.create("http://127.0.0.1:" + port + "/api/bench/items/1");
+                    OpenLoadGenerator.Result result = generator.run(uri, headers -> {
+                        headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+                        headers.set(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+                        if (scenario.cors) {
+                            headers.set(HttpHeaders.ORIGIN, "http://localhost:3000");
+                        }
+                    }, rate, warmup, duration, Duration.ofSeconds(10));
+                    report.getScenarios().add(BenchmarkReport.ScenarioResult.of(scenario.name, result));
+                }
+            }
+        } finally {
+            generator.close();
+            stubs.forEach(StubUpstream::close);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        Path reportPath = OUTPUT_DIR.resolve("gateway-benchmark.json");
+        objectMapper.writeValue(reportPath.toFile(), report);
+
+        BenchmarkReport baseline = Files.exists(baselinePath)
+                ? objectMapper.readValue(baselinePath.toFile(), BenchmarkReport.class)
+                : null;
+        print(report, baseline);
+        System.out.printf("%nReport written to %s%n", reportPath.toAbsolutePath());
+
+        if (options.containsKey("save-baseline")) {
+            Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+            objectMapper.writeValue(baselinePath.toFile(), report);
+            System.out.printf("Baseline saved to %s%n", baselinePath.toAbsolutePath());
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startGateway(BenchmarkScenario scenario, String instances,
+                                                               List<String> overrides) throws IOException {
+        Path routes = Files.createTempFile("bench-routes", ".yml");
+        Files.writeString(routes, scenario.routesYaml(), StandardCharsets.UTF_8);
+        routes.toFile().deleteOnExit();
+
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        args.add("--spring.main.banner-mode=off");
+        args.add("--gateway.routes.location=file:" + routes.toAbsolutePath());
+        args.add("--gateway.routes.reload-interval=0");
+        SERVICES.forEach(service -> args.add("--gateway.load-balancer.services." + service + ".instances=" + instances));
+        args.add("--gateway.rate-limit.enabled=false");
+        args.add("--gateway.access-log.file=" + OUTPUT_DIR.resolve("gateway-access.log"));
+        overrides.forEach(override -> args.add("--" + override));
+
+        return new SpringApplicationBuilder(ApiGatewayApplication.class)
+                .initializers(context -> context.addBeanFactoryPostProcessor(removeBeans(scenario)))
+                .run(args.toArray(String[]::new));
+    }
+
+    // Runs after component scanning has registered the filters, before any bean is created
+    private static BeanFactoryPostProcessor removeBeans(BenchmarkScenario scenario) {
+        return beanFactory -> {
+            BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+            for (String bean : scenario.removedBeans) {
+                if (!registry.containsBeanDefinition(bean)) {
+                    throw new IllegalStateException("No bean " + bean + " to switch off");
+                }
+                registry.removeBeanDefinition(bean);
+            }
+        };
+    }
+
+    // A regular user token, signed like user-service's
+    private static String token(String secret) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("bench@example.com")
+                .claim("userId", "1")
+                .claim("role", "USER")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + Duration.ofHours(1).toMillis()))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static void print(BenchmarkReport report, BenchmarkReport baseline) {
+        BenchmarkReport.ScenarioResult reference = report.scenario(BenchmarkScenario.ALL_FILTERS);
+        System.out.printf("%n%-20s %10s %10s %9s %9s %9s %9s %9s %8s %10s%n", "scenario", "offered/s",
+                "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "p50 vs all");
+        for (BenchmarkReport.ScenarioResult result : report.getScenarios()) {
+            String versusAll = reference != null && result != reference
+                    ? String.format("%+.3f", result.getP50Millis() - reference.getP50Millis())
+                    : "";
+            System.out.printf("%-20s %10.0f %10.0f %9.3f %9.3f %9.3f %9.3f %9.3f %8d %10s%n",
+                    result.getScenario(), result.getOfferedPerSecond(), result.getThroughputPerSecond(),
+                    result.getP50Millis(), result.getP90Millis(), result.getP99Millis(), result.getP999Millis(),
+                    result.getMaxMillis(), result.getFailed() + result.getTimedOut(), versusAll);
+        }
+
+        if (baseline == null) {
+            System.out.printf("%nNo baseline to compare with; store this run with --save-baseline%n");
+            return;
+        }
+        System.out.printf("%nAgainst baseline from %s (negative latency change is better):%n", baseline.getTimestamp());
+        if (!baseline.getSettings().equals(report.getSettings())) {
+            System.out.printf("  settings differ: baseline %s, this run %s%n", baseline.getSettings(),
+                    report.getSettings());
+        }
+        for (BenchmarkReport.ScenarioResult result : report.getScenarios()) {
+            BenchmarkReport.ScenarioResult before = baseline.scenario(result.getScenario());
+            if (before == null) {
+                continue;
+            }
+            System.out.printf("  %-20s ok/s %+6.1f%%  p50 %+6.1f%%  p99 %+6.1f%%  p99.9 %+6.1f%%%n",
+                    result.getScenario(),
+                    change(before.getThroughputPerSecond(), result.getThroughputPerSecond()),
+                    change(before.getP50Millis(), result.getP50Millis()),
+                    change(before.getP99Millis(), result.getP99Millis()),
+                    change(before.getP999Millis(), result.getP999Millis()));
+        }
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+}
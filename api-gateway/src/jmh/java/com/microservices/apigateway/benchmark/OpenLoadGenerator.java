@@ -0,0 +1,149 @@
+package com.microservices.apigateway.benchmark;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Open-model load: requests are sent on a fixed schedule at the target rate whether or not earlier
+ * ones have answered, as independent clients would. Latency is measured from each request's
+ * scheduled send time, so a stalled gateway shows up in the percentiles instead of silently slowing
+ * the generator down (coordinated omission).
+ */
+final class OpenLoadGenerator {
+
+    // Longest latency the histograms track; slower responses are clamped to it
+    private static final long MAX_TRACKED_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient client;
+
+    private final ConnectionProvider connectionProvider;
+
+    OpenLoadGenerator(int maxConnections, Duration responseTimeout) {
+        this.connectionProvider = ConnectionProvider.builder("benchmark-client")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = HttpClient.create(connectionProvider).responseTimeout(responseTimeout);
+    }
+
+    /** Runs warmup unrecorded, then duration recorded, at ratePerSecond, and waits for stragglers. */
+    Result run(URI uri, Consumer<HttpHeaders> headers, double ratePerSecond, Duration warmup, Duration duration,
+               Duration drainTimeout) {
+        HttpClient configured = client.headers(headers);
+        run(configured, uri, ratePerSecond, warmup, drainTimeout, new Recorder(MAX_TRACKED_MICROS, 3));
+        Recorder recorder = new Recorder(MAX_TRACKED_MICROS, 3);
+        return run(configured, uri, ratePerSecond, duration, drainTimeout, recorder);
+    }
+
+    private Result run(HttpClient configured, URI uri, double ratePerSecond, Duration duration,
+                       Duration drainTimeout, Recorder recorder) {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long total = (long) (ratePerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+
+        long start = System.nanoTime();
+        long sent = 0;
+        while (sent < total) {
+            long now = System.nanoTime();
+            // Everything that is due goes out now; a late generator catches up rather than dropping sends
+            long due = Math.min(total, (long) ((now - start) / intervalNanos) + 1);
+            for (; sent < due; sent++) {
+                long intended = start + (long) (sent * intervalNanos);
+                inFlight.incrementAndGet();
+                configured.get()
+                        .uri(uri)
+                        .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                        .subscribe(
+                                status -> {
+                                    record(recorder, intended);
+                                    (status >= 200 && status < 300 ? succeeded : failed).incrementAndGet();
+                                },
+                                error -> {
+                                    record(recorder, intended);
+                                    failed.incrementAndGet();
+                                    inFlight.decrementAndGet();
+                                },
+                                inFlight::decrementAndGet);
+            }
+            long next = start + (long) (sent * intervalNanos);
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        long sendNanos = System.nanoTime() - start;
+
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(sent, succeeded.get(), failed.get(), inFlight.get(), sendNanos, elapsedNanos,
+                recorder.getIntervalHistogram());
+    }
+
+    void close() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    private static void record(Recorder recorder, long intendedNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+        recorder.recordValue(Math.min(Math.max(micros, 1), MAX_TRACKED_MICROS));
+    }
+
+    static final class Result {
+
+        final long sent;
+
+        final long succeeded;
+
+        final long failed;
+
+        // Still unanswered when the drain timeout ran out
+        final long timedOut;
+
+        final long sendNanos;
+
+        final long elapsedNanos;
+
+        // Microseconds from scheduled send to response
+        final Histogram latencies;
+
+        Result(long sent, long succeeded, long failed, long timedOut, long sendNanos, long elapsedNanos,
+               Histogram latencies) {
+            this.sent = sent;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.timedOut = timedOut;
+            this.sendNanos = sendNanos;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+
+        double offeredPerSecond() {
+            return sent * 1e9 / sendNanos;
+        }
+
+        double throughputPerSecond() {
+            return succeeded * 1e9 / elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.microservices.apigateway.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * In-process upstream for the gateway benchmark: answers every request with a fixed JSON payload after
+ * a fixed delay, without blocking its event loop. It also serves the health endpoint the gateway
+ * probes and warms up on, and an empty revocation feed, so every configured service can point here.
+ */
+final class StubUpstream implements AutoCloseable {
+
+    private static final byte[] HEALTH = "{\"status\":\"UP\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] EMPTY_FEED = "{\"revocations\":[],\"cursor\":0,\"more\":false}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final DisposableServer server;
+
+    StubUpstream(Duration latency, int payloadBytes) {
+        ByteBuf payload = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(payload(payloadBytes)));
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                // h2c for the services the gateway calls over HTTP/2, HTTP/1.1 for the rest
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .route(routes -> routes
+                        .get("/actuator/health", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendByteArray(Mono.just(HEALTH)))
+                        .get("/internal/revocations", (request, response) -> response
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .sendByteArray(Mono.just(EMPTY_FEED)))
+                        .route(request -> true, (request, response) -> request.receive().then(
+                                        latency.isZero() ? Mono.<Void>empty() : Mono.delay(latency).then())
+                                .then(response
+                                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(payloadBytes))
+                                        .send(Mono.just(payload.retainedDuplicate()))
+                                        .then())))
+                .bindNow();
+    }
+
+    URI uri() {
+        return URI.create("http://127.0.0.1:" + server.port());
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    // A JSON string value padded to exactly payloadBytes
+    private static byte[] payload(int payloadBytes) {
+        String prefix = "{\"data\":\"";
+        String suffix = "\"}";
+        int fill = Math.max(0, payloadBytes - prefix.length() - suffix.length());
+        char[] padding = new char[fill];
+        Arrays.fill(padding, 'x');
+        byte[] bytes = (prefix + new String(padding) + suffix).getBytes(StandardCharsets.UTF_8);
+        return payloadBytes < bytes.length ? Arrays.copyOf(bytes, Math.max(payloadBytes, 0)) : bytes;
+    }
+}
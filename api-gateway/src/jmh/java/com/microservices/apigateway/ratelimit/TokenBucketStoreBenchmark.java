@@ -0,0 +1,53 @@
+package com.microservices.apigateway.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Token acquisition across many distinct clients; run with -prof gc to confirm no per-call allocation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBucketStoreBenchmark {
+
+    @Param({"1000", "100000"})
+    public int keys;
+
+    private TokenBucketStore store;
+
+    private long[] hashes;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        // Threads start at different clients instead of contending on the same buckets in lockstep
+        @Setup
+        public void setUp(TokenBucketStoreBenchmark benchmark) {
+            next = ThreadLocalRandom.current().nextInt(benchmark.keys);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        store = new TokenBucketStore(64, 4096);
+        hashes = new long[keys];
+        for (int i = 0; i < keys; i++) {
+            hashes[i] = RateLimiter.hash("product-service-search", 'u', String.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquire(Cursor cursor) {
+        int index = cursor.next++;
+        if (cursor.next == keys) {
+            cursor.next = 0;
+        }
+        return store.tryAcquire(hashes[index], 100, 50);
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservices.apigateway.security;
+
+import com.microservices.apigateway.config.AuthorizationProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request policy lookup cost as the policy table grows; it should stay flat
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutePolicyBenchmark {
+
+    private static final String[] PATHS = {
+            "/api/users/login",
+            "/api/users/42",
+            "/api/orders/user/42",
+            "/api/products/17",
+            "/api/products/admin/reindex",
+            "/actuator/health"
+    };
+
+    @Param({"10", "100", "1000"})
+    public int rules;
+
+    private RoutePolicyEngine.CompiledPolicies policies;
+
+    @Setup
+    public void setUp() {
+        AuthorizationProperties properties = new AuthorizationProperties();
+        add(properties, "/api/users/login", RoutePolicy.Access.PUBLIC);
+        add(properties, "/actuator/**", RoutePolicy.Access.ADMIN);
+        add(properties, "/actuator/health/**", RoutePolicy.Access.PUBLIC);
+        add(properties, "/api/products/admin/**", RoutePolicy.Access.ADMIN);
+        add(properties, "/api/users/{userId}", RoutePolicy.Access.OWNER);
+        add(properties, "/api/orders/user/{userId}", RoutePolicy.Access.OWNER);
+        for (int i = properties.getPolicies().size(); i < rules; i++) {
+            add(properties, "/api/service" + i + "/resource" + (i % 7) + "/{id}", RoutePolicy.Access.AUTHENTICATED);
+        }
+        policies = RoutePolicyEngine.compile(properties);
+    }
+
+    @Benchmark
+    public void match(Blackhole bh) {
+        for (String path : PATHS) {
+            bh.consume(policies.match(path));
+        }
+    }
+
+    private static void add(AuthorizationProperties properties, String path, RoutePolicy.Access access) {
+        AuthorizationProperties.Policy policy = new AuthorizationProperties.Policy();
+        policy.setPath(path);
+        policy.setAccess(access);
+        properties.getPolicies().add(policy);
+    }
+}
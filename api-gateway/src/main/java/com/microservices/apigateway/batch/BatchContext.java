@@ -0,0 +1,29 @@
+package com.microservices.apigateway.batch;
+
+import com.microservices.apigateway.security.VerifiedClaims;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Carries the batch's verified claims in the Reactor context of its sub-requests, so
+ * JwtAuthenticationFilter checks each sub-request's route policy without verifying the same token
+ * again. Unlike a header or attribute, a client cannot set the context.
+ */
+public final class BatchContext {
+
+    private static final String TOKEN_KEY = BatchContext.class.getName() + ".token";
+
+    private static final String CLAIMS_KEY = BatchContext.class.getName() + ".claims";
+
+    private BatchContext() {
+    }
+
+    public static Context withClaims(Context context, String token, VerifiedClaims claims) {
+        return context.put(TOKEN_KEY, token).put(CLAIMS_KEY, claims);
+    }
+
+    /** The batch's claims if the request carries the batch's own token, else null. */
+    public static VerifiedClaims claims(ContextView context, String token) {
+        return context.hasKey(CLAIMS_KEY) && token.equals(context.get(TOKEN_KEY)) ? context.get(CLAIMS_KEY) : null;
+    }
+}
@@ -0,0 +1,298 @@
+package com.microservices.apigateway.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.apigateway.config.BatchProperties;
+import com.microservices.apigateway.security.VerifiedClaims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the sub-requests of POST /api/batch through the gateway's own HttpHandler, so each one goes
+ * through the route table and every global filter (authorization, rate limits, cache, circuit
+ * breakers) exactly as if the client had sent it. The batch's token is verified once and handed to
+ * JwtAuthenticationFilter through BatchContext. At most maxConcurrency sub-requests of a batch are in
+ * flight, and results are emitted in completion order.
+ */
+@Component
+@Slf4j
+public class BatchExecutor {
+
+    // Batch request headers every sub-request inherits
+    private static final List<String> INHERITED_HEADERS = List.of(
+            HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.HOST, "traceparent");
+
+    // Per-response headers that mean nothing inside the batch body
+    private static final List<String> DROPPED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE,
+            "Keep-Alive", "traceparent");
+
+    private final ObjectProvider<HttpHandler> httpHandler;
+
+    private final BatchProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final DistributionSummary batchSize;
+
+    private final Counter subRequestErrors;
+
+    // HttpHandler is looked up lazily: it is built from every WebHandler bean, including the controller using this
+    public BatchExecutor(ObjectProvider<HttpHandler> httpHandler, BatchProperties properties,
+                         ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.httpHandler = httpHandler;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.batchSize = DistributionSummary.builder("gateway.batch.size")
+                .description("Sub-requests per POST /api/batch")
+                .register(meterRegistry);
+        this.subRequestErrors = Counter.builder("gateway.batch.errors")
+                .description("Batch sub-requests that timed out, failed or returned an oversized body")
+                .register(meterRegistry);
+    }
+
+    /** Returns the reason the batch is rejected, or null when it can run. */
+    public String validate(BatchRequest batch) {
+        List<BatchRequest.SubRequest> requests = batch.getRequests();
+        if (requests == null || requests.isEmpty()) {
+            return "Batch has no requests";
+        }
+        if (requests.size() > properties.getMaxRequests()) {
+            return "Batch has " + requests.size() + " requests, the limit is " + properties.getMaxRequests();
+        }
+        for (BatchRequest.SubRequest request : requests) {
+            String path = request.getPath();
+            if (!StringUtils.hasText(path) || !path.startsWith(properties.getPathPrefix())
+                    || path.contains("://") || path.contains("..")) {
+                return "Sub-request path must start with " + properties.getPathPrefix() + ": " + path;
+            }
+            try {
+                if (URI.create(path).getPath().startsWith("/api/batch")) {
+                    return "Batches cannot be nested";
+                }
+            } catch (IllegalArgumentException e) {
+                return "Invalid sub-request path: " + path;
+            }
+            if (!StringUtils.hasText(request.getMethod())
+                    || HttpMethod.valueOf(request.getMethod().toUpperCase()) == HttpMethod.TRACE) {
+                return "Unsupported sub-request method: " + request.getMethod();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs a validated batch. token and claims are null for an anonymous batch, whose sub-requests to
+     * protected routes get their own 401.
+     */
+    public Flux<BatchResult> execute(BatchRequest batch, ServerHttpRequest original, DataBufferFactory bufferFactory,
+                                     String token, VerifiedClaims claims) {
+        List<BatchRequest.SubRequest> requests = batch.getRequests();
+        batchSize.record(requests.size());
+        List<Mono<BatchResult>> calls = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BatchRequest.SubRequest request = requests.get(i);
+            String id = request.getId() != null ? request.getId() : String.valueOf(i);
+            calls.add(Mono.defer(() -> run(id, request, original, bufferFactory))
+                    .contextWrite(context -> claims != null ? BatchContext.withClaims(context, token, claims) : context));
+        }
+        return Flux.fromIterable(calls).flatMap(call -> call, properties.getMaxConcurrency());
+    }
+
+    private Mono<BatchResult> run(String id, BatchRequest.SubRequest subRequest, ServerHttpRequest original,
+                                  DataBufferFactory bufferFactory) {
+        long startNanos = System.nanoTime();
+        ServerHttpRequest request;
+        try {
+            request = buildRequest(subRequest, original, bufferFactory);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return Mono.just(BatchResult.error(id, 400, "Invalid sub-request: " + e.getMessage(), 0));
+        }
+        BufferingResponse response = new BufferingResponse(bufferFactory, properties.getMaxBodyBytes());
+
+        return httpHandler.getObject().handle(request, response)
+                .timeout(properties.getTimeout())
+                .then(Mono.fromSupplier(() -> toResult(id, response, elapsedMillis(startNanos))))
+                .onErrorResume(e -> {
+                    subRequestErrors.increment();
+                    if (e instanceof TimeoutException) {
+                        log.warn("⏱️ Batch sub-request {} {} timed out after {}", subRequest.getMethod(),
+                                subRequest.getPath(), properties.getTimeout());
+                        return Mono.just(BatchResult.error(id, 504, "Sub-request timed out", elapsedMillis(startNanos)));
+                    }
+                    log.warn("❌ Batch sub-request {} {} failed: {}", subRequest.getMethod(), subRequest.getPath(),
+                            e.toString());
+                    return Mono.just(BatchResult.error(id, 502, "Sub-request failed", elapsedMillis(startNanos)));
+                });
+    }
+
+    private ServerHttpRequest buildRequest(BatchRequest.SubRequest subRequest, ServerHttpRequest original,
+                                           DataBufferFactory bufferFactory) throws JsonProcessingException {
+        byte[] body = subRequest.getBody() != null ? objectMapper.writeValueAsBytes(subRequest.getBody()) : null;
+        URI uri = original.getURI().resolve(subRequest.getPath());
+
+        ServerHttpRequest request = original.mutate()
+                .method(HttpMethod.valueOf(subRequest.getMethod().toUpperCase()))
+                .uri(uri)
+                .headers(headers -> {
+                    HttpHeaders inherited = new HttpHeaders();
+                    INHERITED_HEADERS.forEach(name -> {
+                        List<String> values = headers.get(name);
+                        if (values != null) {
+                            inherited.put(name, values);
+                        }
+                    });
+                    headers.clear();
+                    headers.putAll(inherited);
+                    subRequest.getHeaders().forEach(headers::set);
+                    // Bodies are embedded in the batch response, so compressing them first would only cost CPU
+                    headers.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+                    if (body != null) {
+                        if (headers.getContentType() == null) {
+                            headers.setContentType(MediaType.APPLICATION_JSON);
+                        }
+                        headers.setContentLength(body.length);
+                    } else {
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    }
+                })
+                .build();
+
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body != null ? Flux.defer(() -> Flux.just(bufferFactory.wrap(body))) : Flux.empty();
+            }
+        };
+    }
+
+    private BatchResult toResult(String id, BufferingResponse response, long durationMillis) {
+        if (response.overflow) {
+            subRequestErrors.increment();
+            return BatchResult.error(id, 502, "Sub-response exceeds " + properties.getMaxBodyBytes() + " bytes",
+                    durationMillis);
+        }
+        int status = response.getStatusCode() != null ? response.getStatusCode().value() : 200;
+
+        Map<String, String> headers = new LinkedHashMap<>(response.getHeaders().toSingleValueMap());
+        DROPPED_RESPONSE_HEADERS.forEach(headers::remove);
+
+        return new BatchResult(id, status, headers, body(response), durationMillis);
+    }
+
+    private Object body(BufferingResponse response) {
+        byte[] bytes = response.body.toByteArray();
+        if (bytes.length == 0) {
+            return null;
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json"))) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (IOException e) {
+                log.debug("Batch sub-response declared JSON but did not parse: {}", e.getMessage());
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Collects a sub-response in memory up to a limit. It shares the server's buffer factory, which
+     * the upstream routing filters need to hand over Netty buffers; a body past the limit is drained
+     * and released rather than failing the write.
+     */
+    private static final class BufferingResponse extends AbstractServerHttpResponse {
+
+        private final int maxBodyBytes;
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        private volatile boolean overflow;
+
+        BufferingResponse(DataBufferFactory bufferFactory, int maxBodyBytes) {
+            super(bufferFactory, new HttpHeaders());
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public <T> T getNativeResponse() {
+            throw new IllegalStateException("Batch sub-responses have no native response");
+        }
+
+        @Override
+        protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+            return Flux.from(body).doOnNext(this::append).then();
+        }
+
+        @Override
+        protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return Flux.from(body).concatMap(Flux::from).doOnNext(this::append).then();
+        }
+
+        private void append(DataBuffer buffer) {
+            try {
+                if (overflow || body.size() + buffer.readableByteCount() > maxBodyBytes) {
+                    overflow = true;
+                    body.reset();
+                    return;
+                }
+                try (DataBuffer.ByteBufferIterator views = buffer.readableByteBuffers()) {
+                    while (views.hasNext()) {
+                        ByteBuffer view = views.next();
+                        byte[] chunk = new byte[view.remaining()];
+                        view.get(chunk);
+                        body.write(chunk, 0, chunk.length);
+                    }
+                }
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        @Override
+        protected void applyStatusCode() {
+        }
+
+        @Override
+        protected void applyHeaders() {
+        }
+
+        @Override
+        protected void applyCookies() {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservices.apigateway.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Body of POST /api/batch
+@Data
+public class BatchRequest {
+
+    private List<SubRequest> requests = new ArrayList<>();
+
+    @Data
+    public static class SubRequest {
+
+        // Echoed in the result so the client can match it; defaults to the sub-request's index
+        private String id;
+
+        private String method = "GET";
+
+        // Path and optional query, e.g. /api/products/42 or /api/products?page=0&size=20
+        private String path;
+
+        // Added to the headers inherited from the batch request (Authorization, Accept-Language, traceparent)
+        private Map<String, String> headers = new LinkedHashMap<>();
+
+        // Sent as application/json unless headers set another Content-Type
+        private JsonNode body;
+    }
+}
@@ -0,0 +1,21 @@
+package com.microservices.apigateway.batch;
+
+import lombok.Value;
+
+import java.util.Map;
+
+// One line of the application/x-ndjson response of POST /api/batch, written as soon as its sub-request finishes
+@Value
+public class BatchResult {
+
+    String id;
+    int status;
+    Map<String, String> headers;
+    // Parsed JSON when the sub-response is JSON, else its text
+    Object body;
+    long durationMillis;
+
+    static BatchResult error(String id, int status, String message, long durationMillis) {
+        return new BatchResult(id, status, Map.of(), Map.of("error", message), durationMillis);
+    }
+}
@@ -0,0 +1,47 @@
+package com.microservices.apigateway.cache;
+
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A buffered upstream response that can be replayed to other clients (response cache, coalesced requests)
+@Value
+public class CachedResponse {
+
+    int status;
+    HttpHeaders headers;
+    byte[] body;
+    long storedAtMillis;
+    long ttlMillis;
+
+    public long ageSeconds() {
+        return Math.max(0, (System.currentTimeMillis() - storedAtMillis) / 1000);
+    }
+
+    /**
+     * Writes the stored response. Headers the current response already carries (set for this caller by
+     * the CORS filter, RateLimitFilter, tracing) win over stored ones; Vary entries are merged.
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        HttpHeaders current = response.getHeaders();
+        headers.forEach((name, values) -> {
+            if (name.equalsIgnoreCase(HttpHeaders.VARY)) {
+                List<String> vary = new ArrayList<>(current.getVary());
+                headers.getVary().stream()
+                        .filter(entry -> vary.stream().noneMatch(entry::equalsIgnoreCase))
+                        .forEach(vary::add);
+                current.setVary(vary);
+            } else if (!current.containsKey(name)) {
+                current.put(name, values);
+            }
+        });
+        current.setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,137 @@
+package com.microservices.apigateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Tees the response body into a bounded buffer without holding back what goes to the client.
+ * The listener gets the replayable status, headers and body once the body completes, or is told
+ * the capture was abandoned (not eligible, too large, or the write failed).
+ */
+public class CapturingResponse extends ServerHttpResponseDecorator {
+
+    // Hop-by-hop and per-response headers that must not be replayed to another client
+    private static final List<String> UNREPLAYABLE_HEADERS = List.of(
+            HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE,
+            HttpHeaders.AGE, HttpHeaders.RETRY_AFTER, "Keep-Alive", "traceparent", "X-Cache");
+
+    // Set per caller by RateLimitFilter and the CORS filter: another client's quota or origin must never be replayed
+    private static final List<String> UNREPLAYABLE_PREFIXES = List.of("ratelimit-", "access-control-");
+
+    // Vary entries the CORS filter adds for the caller's origin; the upstream's own entries are kept
+    private static final List<String> CORS_VARY = List.of(
+            HttpHeaders.ORIGIN, HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS);
+
+    public interface Listener {
+
+        void captured(int status, HttpHeaders headers, byte[] body);
+
+        void abandoned();
+    }
+
+    private final int maxBodyBytes;
+
+    private final Predicate<ServerHttpResponse> eligible;
+
+    private final Listener listener;
+
+    public CapturingResponse(ServerHttpResponse delegate, int maxBodyBytes,
+                             Predicate<ServerHttpResponse> eligible, Listener listener) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.eligible = eligible;
+        this.listener = listener;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        HttpStatusCode status = getStatusCode();
+        long contentLength = getHeaders().getContentLength();
+        if (status == null || contentLength > maxBodyBytes || !eligible.test(this)) {
+            listener.abandoned();
+            return super.writeWith(body);
+        }
+
+        HttpHeaders headers = replayableHeaders(getHeaders());
+        ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 256);
+        boolean[] overflow = {false};
+
+        Flux<? extends DataBuffer> teed = Flux.from(body)
+                .doOnNext(buffer -> {
+                    if (overflow[0]) {
+                        return;
+                    }
+                    if (copy.size() + buffer.readableByteCount() > maxBodyBytes) {
+                        overflow[0] = true;
+                        copy.reset();
+                        return;
+                    }
+                    append(copy, buffer);
+                })
+                .doOnComplete(() -> {
+                    if (overflow[0]) {
+                        listener.abandoned();
+                    } else {
+                        listener.captured(status.value(), headers, copy.toByteArray());
+                    }
+                })
+                .doOnError(e -> listener.abandoned())
+                .doOnCancel(listener::abandoned);
+        return super.writeWith(teed);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        // Streaming responses (SSE and the like) are never captured
+        listener.abandoned();
+        return super.writeAndFlushWith(body);
+    }
+
+    private static void append(ByteArrayOutputStream copy, DataBuffer buffer) {
+        // Reads through ByteBuffer views, leaving the buffer's read position untouched for the client write
+        try (DataBuffer.ByteBufferIterator views = buffer.readableByteBuffers()) {
+            while (views.hasNext()) {
+                ByteBuffer view = views.next();
+                if (view.hasArray()) {
+                    copy.write(view.array(), view.arrayOffset() + view.position(), view.remaining());
+                } else {
+                    byte[] chunk = new byte[view.remaining()];
+                    view.get(chunk);
+                    copy.write(chunk, 0, chunk.length);
+                }
+            }
+        }
+    }
+
+    static HttpHeaders replayableHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (UNREPLAYABLE_PREFIXES.stream().noneMatch(lowerName::startsWith)) {
+                headers.put(name, values);
+            }
+        });
+        UNREPLAYABLE_HEADERS.forEach(headers::remove);
+        List<String> vary = headers.getVary().stream()
+                .filter(name -> CORS_VARY.stream().noneMatch(name::equalsIgnoreCase))
+                .toList();
+        if (vary.isEmpty()) {
+            headers.remove(HttpHeaders.VARY);
+        } else {
+            headers.setVary(vary);
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
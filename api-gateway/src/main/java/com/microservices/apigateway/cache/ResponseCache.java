@@ -0,0 +1,246 @@
+package com.microservices.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gateway-side response cache for idempotent GETs on the configured routes.
+ * Entries are keyed on method, path, sorted query and the configured vary headers, bounded by an
+ * estimated byte budget and expire after the upstream's max-age (or the default TTL).
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    // Rough per-entry overhead: Caffeine node, key, CachedResponse and header map
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)\\s*=\\s*(\\d+)");
+
+    private final boolean enabled;
+
+    private final Set<String> routes;
+
+    private final List<String> varyHeaders;
+
+    private final long defaultTtlMillis;
+
+    private final int maxBodyBytes;
+
+    private final Cache<String, CachedResponse> cache;
+
+    // Bumped by every purge; a response fetched across a purge may predate the write and is not kept
+    private final AtomicLong purgeGeneration = new AtomicLong();
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${gateway.response-cache.enabled:true}") boolean enabled,
+                         @Value("${gateway.response-cache.routes:product-service-list,product-service-detail}") Set<String> routes,
+                         @Value("${gateway.response-cache.vary-headers:Accept,Accept-Encoding,Accept-Language}") List<String> varyHeaders,
+                         @Value("${gateway.response-cache.default-ttl-seconds:30}") long defaultTtlSeconds,
+                         @Value("${gateway.response-cache.max-bytes:33554432}") long maxBytes,
+                         @Value("${gateway.response-cache.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.enabled = enabled;
+        this.routes = routes;
+        this.varyHeaders = varyHeaders;
+        this.defaultTtlMillis = TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        this.maxBodyBytes = maxBodyBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> weigh(key, response))
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(response.getTtlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(response.getTtlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response-cache");
+        log.info("Response cache {} for routes {} (max {} bytes)", enabled ? "enabled" : "disabled", routes, maxBytes);
+    }
+
+    public boolean isCacheable(String routeId) {
+        return enabled && routeId != null && routes.contains(routeId);
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public String key(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(128)
+                .append(request.getMethod().name()).append(' ')
+                .append(request.getPath().value());
+
+        // Parameter order is not significant to the services, so sort names to share entries
+        MultiValueMap<String, String> params = request.getQueryParams();
+        if (!params.isEmpty()) {
+            List<String> names = new ArrayList<>(params.keySet());
+            Collections.sort(names);
+            char separator = '?';
+            for (String name : names) {
+                for (String value : params.get(name)) {
+                    key.append(separator).append(name).append('=').append(value);
+                    separator = '&';
+                }
+            }
+        }
+
+        HttpHeaders headers = request.getHeaders();
+        for (String header : varyHeaders) {
+            String value = headers.getFirst(header);
+            if (value != null) {
+                key.append('|').append(header.toLowerCase(Locale.ROOT)).append('=').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * TTL in milliseconds the upstream response may be cached for, or 0 when it must not be stored.
+     */
+    public long ttlMillis(HttpHeaders responseHeaders) {
+        if (responseHeaders.containsKey(HttpHeaders.SET_COOKIE) || "*".equals(responseHeaders.getFirst(HttpHeaders.VARY))) {
+            return 0;
+        }
+        String cacheControl = responseHeaders.getCacheControl();
+        if (cacheControl == null) {
+            return defaultTtlMillis;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains("no-store") || directives.contains("no-cache") || directives.contains("private")) {
+            return 0;
+        }
+        Matcher maxAge = MAX_AGE.matcher(directives);
+        return maxAge.find() ? TimeUnit.SECONDS.toMillis(Long.parseLong(maxAge.group(1))) : defaultTtlMillis;
+    }
+
+    /** Taken before the upstream call and passed to store, so a purge in between drops the response. */
+    public long generation() {
+        return purgeGeneration.get();
+    }
+
+    /**
+     * Stores the response unless a purge ran since the request read the generation. Caffeine runs
+     * eviction on its own executor, so the put itself is cheap enough for the event loop.
+     */
+    public void store(String key, CachedResponse response, long generation) {
+        if (purgeGeneration.get() != generation) {
+            return;
+        }
+        cache.put(key, response);
+        // A purge that started after the check may already have passed this key
+        if (purgeGeneration.get() != generation) {
+            cache.asMap().remove(key, response);
+        }
+    }
+
+    /**
+     * Removes every entry whose request path starts with the prefix; returns the number removed.
+     */
+    public int purge(String prefix) {
+        String pathPrefix = prefix != null ? prefix : "";
+        return removeIf(path -> path.startsWith(pathPrefix));
+    }
+
+    /**
+     * Drops what a successful write to the path may have changed: the resource and everything under
+     * it, and the collection it belongs to with any query (PUT /api/products/42 also drops
+     * GET /api/products?page=2). Returns the number removed.
+     */
+    public int purgeWrite(String path) {
+        String resource = path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+        int slash = resource.lastIndexOf('/');
+        String collection = slash > 0 ? resource.substring(0, slash) : null;
+        return removeIf(keyPath -> isPathOrBelow(keyPath, resource)
+                || (collection != null && isPath(keyPath, collection)));
+    }
+
+    private int removeIf(Predicate<String> pathMatches) {
+        purgeGeneration.incrementAndGet();
+        AtomicInteger removed = new AtomicInteger();
+        cache.asMap().keySet().removeIf(key -> {
+            // Keys are "<METHOD> <path>...", so match right after the method
+            boolean matches = pathMatches.test(key.substring(key.indexOf(' ') + 1));
+            if (matches) {
+                removed.incrementAndGet();
+            }
+            return matches;
+        });
+        return removed.get();
+    }
+
+    // keyPath is the key after the method: the path, then an optional "?query" and "|header=value" parts
+    private static boolean isPath(String keyPath, String path) {
+        return keyPath.startsWith(path) && (keyPath.length() == path.length() || isKeySeparator(keyPath.charAt(path.length())));
+    }
+
+    private static boolean isPathOrBelow(String keyPath, String path) {
+        return isPath(keyPath, path) || (keyPath.startsWith(path) && keyPath.charAt(path.length()) == '/');
+    }
+
+    private static boolean isKeySeparator(char c) {
+        return c == '?' || c == '|';
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long weightedBytes() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    private static int weigh(String key, CachedResponse response) {
+        int headerBytes = 0;
+        for (var header : response.getHeaders().entrySet()) {
+            headerBytes += header.getKey().length();
+            for (String value : header.getValue()) {
+                headerBytes += value.length();
+            }
+        }
+        return ENTRY_OVERHEAD_BYTES + key.length() + headerBytes + response.getBody().length;
+    }
+}
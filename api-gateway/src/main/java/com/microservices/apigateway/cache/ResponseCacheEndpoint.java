@@ -0,0 +1,39 @@
+package com.microservices.apigateway.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// GET /actuator/responsecache shows cache usage, DELETE /actuator/responsecache?prefix=/api/products purges by path prefix
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheEndpoint(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("entries", responseCache.estimatedSize());
+        stats.put("weightedBytes", responseCache.weightedBytes());
+        stats.put("hitRate", responseCache.hitRate());
+        return stats;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge(@Nullable String prefix) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("prefix", prefix != null ? prefix : "/");
+        result.put("purged", responseCache.purge(prefix));
+        return result;
+    }
+}
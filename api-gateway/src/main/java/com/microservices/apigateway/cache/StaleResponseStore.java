@@ -0,0 +1,82 @@
+package com.microservices.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.microservices.apigateway.config.StaleIfErrorProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last successful GET response per request on the opted-in routes, kept for the route's max-stale so
+ * the circuit-breaker fallback can answer with it while the upstream is failing. Unlike ResponseCache,
+ * entries are never served while the upstream is healthy, so they may outlive the response's max-age.
+ * Keys are ResponseCache keys; the store is bounded by an estimated byte budget.
+ */
+@Component
+@Slf4j
+public class StaleResponseStore {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final StaleIfErrorProperties properties;
+
+    private final Cache<String, CachedResponse> cache;
+
+    public StaleResponseStore(StaleIfErrorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((String key, CachedResponse response) ->
+                        ENTRY_OVERHEAD_BYTES + key.length() + response.getBody().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(response.getTtlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(response.getTtlMillis());
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.stale-if-error");
+        log.info("Stale-if-error {} for routes {}", properties.isEnabled() ? "enabled" : "disabled",
+                properties.getRoutes().keySet());
+    }
+
+    /** Max-stale of the route in milliseconds, or 0 when the route has not opted in. */
+    public long maxStaleMillis(String routeId) {
+        if (!properties.isEnabled() || routeId == null) {
+            return 0;
+        }
+        StaleIfErrorProperties.Route route = properties.getRoutes().get(routeId);
+        return route != null ? route.getMaxStale().toMillis() : 0;
+    }
+
+    public int getMaxBodyBytes() {
+        return properties.getMaxBodyBytes();
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void store(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+}
@@ -0,0 +1,164 @@
+package com.microservices.apigateway.coalescing;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight registry: the first request for a key becomes the leader and goes upstream, identical
+ * requests arriving while it is in flight wait for its buffered response instead of going upstream.
+ */
+@Component
+public class RequestCoalescer {
+
+    public enum Role { LEADER, FOLLOWER, BYPASS }
+
+    private final CoalescingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    private final AtomicLong leaders = new AtomicLong();
+
+    private final AtomicLong followers = new AtomicLong();
+
+    public RequestCoalescer(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, ConcurrentMap::size)
+                .description("Distinct upstream calls currently shared by coalesced requests")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescer::coalescingRatio)
+                .description("Share of coalescable requests answered from another request's upstream call")
+                .register(meterRegistry);
+    }
+
+    public CoalescingProperties.KeyRule ruleFor(String routeId) {
+        return properties.isEnabled() && routeId != null ? properties.getRoutes().get(routeId) : null;
+    }
+
+    public String key(ServerHttpRequest request, CoalescingProperties.KeyRule rule) {
+        StringBuilder key = new StringBuilder(128)
+                .append(request.getMethod().name()).append(' ')
+                .append(request.getPath().value());
+        if (rule.isIncludeQuery() && request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        HttpHeaders headers = request.getHeaders();
+        for (String header : rule.getHeaders()) {
+            String value = headers.getFirst(header);
+            if (value != null) {
+                key.append('|').append(header.toLowerCase(Locale.ROOT)).append('=').append(value);
+            }
+        }
+        if (rule.isPerUser()) {
+            key.append("|user=").append(headers.getFirst("X-User-Id"));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Registers a new flight for the key, or returns the one already in flight (whose isLeader is then false).
+     */
+    public Flight join(String key) {
+        Flight created = new Flight(key, true);
+        Flight existing = inFlight.putIfAbsent(key, created);
+        return existing != null ? existing.asFollower() : created;
+    }
+
+    public void record(String routeId, Role role) {
+        if (role == Role.LEADER) {
+            leaders.incrementAndGet();
+        } else if (role == Role.FOLLOWER) {
+            followers.incrementAndGet();
+        }
+        counters.computeIfAbsent(routeId, this::newCounters)[role.ordinal()].increment();
+    }
+
+    public int getMaxBodyBytes() {
+        return properties.getMaxBodyBytes();
+    }
+
+    public Duration getMaxWait() {
+        return properties.getMaxWait();
+    }
+
+    private double coalescingRatio() {
+        long shared = followers.get();
+        long total = leaders.get() + shared;
+        return total == 0 ? 0.0 : (double) shared / total;
+    }
+
+    private Counter[] newCounters(String routeId) {
+        Role[] roles = Role.values();
+        Counter[] routeCounters = new Counter[roles.length];
+        for (Role role : roles) {
+            routeCounters[role.ordinal()] = Counter.builder("gateway.coalescing.requests")
+                    .description("Coalescable requests by role: leader (went upstream), follower (shared), bypass (gave up waiting)")
+                    .tag("route", routeId)
+                    .tag("role", role.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return routeCounters;
+    }
+
+    public final class Flight {
+
+        private final String key;
+
+        private final boolean leader;
+
+        private final Sinks.One<CachedResponse> result;
+
+        private Flight(String key, boolean leader) {
+            this(key, leader, Sinks.one());
+        }
+
+        private Flight(String key, boolean leader, Sinks.One<CachedResponse> result) {
+            this.key = key;
+            this.leader = leader;
+            this.result = result;
+        }
+
+        private Flight asFollower() {
+            return new Flight(key, false, result);
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        // Completes empty if the leader's response could not be shared, so followers go upstream themselves
+        public Mono<CachedResponse> result() {
+            return result.asMono();
+        }
+
+        // Removed before publishing, so requests arriving from now on start a fresh flight
+        public void complete(CachedResponse response) {
+            inFlight.remove(key, this);
+            result.tryEmitValue(response);
+        }
+
+        public void abandon() {
+            inFlight.remove(key, this);
+            result.tryEmitEmpty();
+        }
+    }
+}
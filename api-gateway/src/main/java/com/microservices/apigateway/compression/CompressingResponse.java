@@ -0,0 +1,76 @@
+package com.microservices.apigateway.compression;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * Compresses the body as it streams to the client when the response qualifies (see
+ * ResponseCompression.shouldCompress); each upstream chunk is deflated and released as it arrives, so
+ * the body is never buffered. Response-cache hits go through writeCached and are served from the
+ * precompressed body cache instead. writeAndFlushWith (SSE and other flushed streams) is left as is.
+ */
+public class CompressingResponse extends ServerHttpResponseDecorator {
+
+    private final ContentCoding coding;
+
+    private final String routeId;
+
+    private final ResponseCompression compression;
+
+    public CompressingResponse(ServerHttpResponse delegate, ContentCoding coding, String routeId,
+                               ResponseCompression compression) {
+        super(delegate);
+        this.coding = coding;
+        this.routeId = routeId;
+        this.compression = compression;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!compression.shouldCompress(getStatusCode(), getHeaders())) {
+            return super.writeWith(body);
+        }
+        compression.applyHeaders(getHeaders(), coding);
+
+        StreamingCompressor compressor = compression.compressor(coding);
+        DataBufferFactory bufferFactory = bufferFactory();
+        Flux<DataBuffer> compressed = Flux.from(body)
+                .handle((DataBuffer buffer, SynchronousSink<DataBuffer> sink) -> {
+                    byte[] out;
+                    try {
+                        out = compressor.compress(buffer);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                    // The deflater holds back small inputs until it has a full block
+                    if (out.length > 0) {
+                        sink.next(bufferFactory.wrap(out));
+                    }
+                })
+                .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(compressor.finish())))
+                .doOnComplete(() -> compression.record(routeId, compressor))
+                .doFinally(signal -> compressor.release());
+        return super.writeWith(compressed);
+    }
+
+    /** Writes a response-cache hit, compressed once per cached entry rather than per hit. */
+    public Mono<Void> writeCached(CachedResponse cached) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(cached.getHeaders());
+        headers.setContentLength(cached.getBody().length);
+        if (!compression.shouldCompress(HttpStatusCode.valueOf(cached.getStatus()), headers)) {
+            return cached.writeTo(getDelegate());
+        }
+        return compression.precompressed(routeId, cached, coding).writeTo(getDelegate());
+    }
+}
@@ -0,0 +1,81 @@
+package com.microservices.apigateway.compression;
+
+import java.util.Locale;
+
+/**
+ * The content codings the gateway produces. Both are raw DEFLATE streams: gzip adds its own header and
+ * CRC32 trailer around a headerless stream, and HTTP "deflate" is the zlib format.
+ */
+public enum ContentCoding {
+
+    GZIP("gzip", true),
+    DEFLATE("deflate", false);
+
+    private final String token;
+
+    // Deflater nowrap: no zlib header and checksum
+    private final boolean nowrap;
+
+    ContentCoding(String token, boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public boolean nowrap() {
+        return nowrap;
+    }
+
+    /**
+     * The coding to use for an Accept-Encoding header, preferring gzip, or null when neither is
+     * acceptable (absent header, identity only, or q=0).
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon < 0 ? part : part.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            double q = semicolon < 0 ? 1 : quality(part.substring(semicolon + 1));
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = q;
+                case "deflate" -> deflate = q;
+                case "*" -> wildcard = q;
+                default -> {
+                }
+            }
+        }
+        // Codings not listed take the wildcard's quality
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
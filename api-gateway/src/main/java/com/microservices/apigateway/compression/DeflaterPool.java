@@ -0,0 +1,52 @@
+package com.microservices.apigateway.compression;
+
+import com.microservices.apigateway.config.CompressionProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Reuses Deflaters across responses. Each one holds a few hundred KB of native zlib state, which would
+ * otherwise be allocated for every response and freed only once the Deflater is garbage collected.
+ */
+@Component
+public class DeflaterPool {
+
+    private final int level;
+
+    private final Map<ContentCoding, BlockingQueue<Deflater>> idle = new EnumMap<>(ContentCoding.class);
+
+    public DeflaterPool(CompressionProperties properties) {
+        this.level = properties.getLevel();
+        for (ContentCoding coding : ContentCoding.values()) {
+            idle.put(coding, new ArrayBlockingQueue<>(Math.max(1, properties.getPoolSize())));
+        }
+    }
+
+    public Deflater borrow(ContentCoding coding) {
+        Deflater deflater = idle.get(coding).poll();
+        return deflater != null ? deflater : new Deflater(level, coding.nowrap());
+    }
+
+    public void release(ContentCoding coding, Deflater deflater) {
+        deflater.reset();
+        if (!idle.get(coding).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        idle.values().forEach(queue -> {
+            Deflater deflater;
+            while ((deflater = queue.poll()) != null) {
+                deflater.end();
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.microservices.apigateway.compression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.config.CompressionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Compressed copies of response-cache entries, so a hot cached GET is compressed once rather than on
+ * every hit. Keys are held weakly and compared by identity: when the response cache expires or replaces
+ * an entry, its compressed copy is unreachable and can never be served stale.
+ */
+@Component
+public class PrecompressedBodyCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final boolean enabled;
+
+    private final Cache<CachedResponse, CachedResponse> cache;
+
+    public PrecompressedBodyCache(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isPrecompressedCacheEnabled();
+        this.cache = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(properties.getPrecompressedCacheMaxBytes())
+                .weigher((CachedResponse original, CachedResponse compressed) ->
+                        ENTRY_OVERHEAD_BYTES + compressed.getBody().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.compression.precompressed");
+    }
+
+    /**
+     * The compressed copy of the response in the given coding, computed on a miss. A client asking for
+     * the other coding replaces the copy; the response cache keys on Accept-Encoding, so that is rare.
+     */
+    public CachedResponse get(CachedResponse original, ContentCoding coding,
+                              Function<CachedResponse, CachedResponse> compress) {
+        if (!enabled) {
+            return compress.apply(original);
+        }
+        CachedResponse compressed = cache.get(original, compress);
+        if (!coding.token().equals(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            compressed = compress.apply(original);
+            cache.put(original, compressed);
+        }
+        return compressed;
+    }
+}
@@ -0,0 +1,120 @@
+package com.microservices.apigateway.compression;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.config.CompressionProperties;
+import com.microservices.apigateway.metrics.GatewayMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides which responses are compressed and with what, hands out StreamingCompressors and reports
+ * compression ratio and deflate time per route (see CompressionFilter and CompressingResponse).
+ */
+@Component
+@Slf4j
+public class ResponseCompression {
+
+    private final CompressionProperties properties;
+
+    private final List<MediaType> mimeTypes;
+
+    private final DeflaterPool deflaterPool;
+
+    private final PrecompressedBodyCache precompressedBodyCache;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    public ResponseCompression(CompressionProperties properties, DeflaterPool deflaterPool,
+                               PrecompressedBodyCache precompressedBodyCache, GatewayMetrics gatewayMetrics) {
+        this.properties = properties;
+        this.mimeTypes = properties.getMimeTypes().stream().map(MediaType::parseMediaType).toList();
+        this.deflaterPool = deflaterPool;
+        this.precompressedBodyCache = precompressedBodyCache;
+        this.gatewayMetrics = gatewayMetrics;
+        log.info("Response compression {} (level {}, min {} bytes, {})", properties.isEnabled() ? "enabled" : "disabled",
+                properties.getLevel(), properties.getMinSize(), properties.getMimeTypes());
+    }
+
+    /** The coding the client accepts, or null when its response should go out as it is. */
+    public ContentCoding negotiate(ServerHttpRequest request) {
+        if (!properties.isEnabled() || request.getMethod() == HttpMethod.HEAD) {
+            return null;
+        }
+        return ContentCoding.negotiate(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    public boolean shouldCompress(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.is1xxInformational() || status.value() == HttpStatus.NO_CONTENT.value()
+                || status.value() == HttpStatus.NOT_MODIFIED.value()
+                || status.value() == HttpStatus.PARTIAL_CONTENT.value()) {
+            return false;
+        }
+        // Already encoded upstream, or the upstream asked intermediaries to leave the body alone
+        String encoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding != null && !"identity".equalsIgnoreCase(encoding)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-transform")) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength == 0 || (contentLength > 0 && contentLength < properties.getMinSize())) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        return contentType != null && mimeTypes.stream().anyMatch(type -> type.isCompatibleWith(contentType));
+    }
+
+    public StreamingCompressor compressor(ContentCoding coding) {
+        return new StreamingCompressor(coding, deflaterPool);
+    }
+
+    /** Headers of a response that is about to be sent compressed. */
+    public void applyHeaders(HttpHeaders headers, ContentCoding coding) {
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+        List<String> vary = headers.getVary();
+        if (vary.stream().noneMatch(name -> name.equals("*") || name.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING))) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        // The compressed bytes differ from the upstream's, so a strong validator no longer holds
+        String etag = headers.getETag();
+        if (etag != null && !etag.startsWith("W/")) {
+            headers.setETag("W/" + etag);
+        }
+    }
+
+    /** A cached response's compressed copy, from the precompressed cache when it is enabled. */
+    public CachedResponse precompressed(String routeId, CachedResponse cached, ContentCoding coding) {
+        return precompressedBodyCache.get(cached, coding, original -> {
+            StreamingCompressor compressor = compressor(coding);
+            byte[] body;
+            try {
+                body = compressor.compressAll(original.getBody());
+            } finally {
+                compressor.release();
+            }
+            record(routeId, compressor);
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(original.getHeaders());
+            applyHeaders(headers, coding);
+            return new CachedResponse(original.getStatus(), HttpHeaders.readOnlyHttpHeaders(headers), body,
+                    original.getStoredAtMillis(), original.getTtlMillis());
+        });
+    }
+
+    public void record(String routeId, StreamingCompressor compressor) {
+        gatewayMetrics.recordCompression(routeId, compressor.coding().token(), compressor.bytesIn(),
+                compressor.bytesOut(), compressor.nanos());
+    }
+}
@@ -0,0 +1,164 @@
+package com.microservices.apigateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses one response body chunk by chunk with a pooled Deflater, so the body is never held in
+ * full. Methods are synchronized because a cancel can arrive on another thread while a chunk is being
+ * compressed; after release() the Deflater is back in the pool and further calls produce nothing.
+ */
+public class StreamingCompressor {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    // Magic, CM=deflate, no flags, no mtime, XFL=0, OS=unknown
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final int CHUNK_BYTES = 8192;
+
+    private final ContentCoding coding;
+
+    private final DeflaterPool pool;
+
+    private final CRC32 crc;
+
+    private final byte[] scratch = new byte[CHUNK_BYTES];
+
+    private Deflater deflater;
+
+    private boolean headerWritten;
+
+    private long bytesIn;
+
+    private long bytesOut;
+
+    private long nanos;
+
+    public StreamingCompressor(ContentCoding coding, DeflaterPool pool) {
+        this.coding = coding;
+        this.pool = pool;
+        this.crc = coding == ContentCoding.GZIP ? new CRC32() : null;
+        this.deflater = pool.borrow(coding);
+    }
+
+    /** Compresses a body that is already buffered in full; the compressor cannot be used again. */
+    public synchronized byte[] compressAll(byte[] body) {
+        byte[] head = compress(ByteBuffer.wrap(body));
+        byte[] tail = finish();
+        byte[] out = new byte[head.length + tail.length];
+        System.arraycopy(head, 0, out, 0, head.length);
+        System.arraycopy(tail, 0, out, head.length, tail.length);
+        return out;
+    }
+
+    /** Compresses the buffer's readable bytes and returns whatever output is ready, possibly nothing. */
+    public synchronized byte[] compress(DataBuffer buffer) {
+        if (deflater == null) {
+            return EMPTY;
+        }
+        long startNanos = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, buffer.readableByteCount() / 2));
+        writeHeader(out);
+        try (DataBuffer.ByteBufferIterator views = buffer.readableByteBuffers()) {
+            while (views.hasNext()) {
+                deflate(views.next(), out);
+            }
+        }
+        return output(out, startNanos);
+    }
+
+    /** Flushes the deflater and, for gzip, appends the trailer; call once after the last chunk. */
+    public synchronized byte[] finish() {
+        if (deflater == null) {
+            return EMPTY;
+        }
+        long startNanos = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        writeHeader(out);
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.write(scratch, 0, deflater.deflate(scratch));
+        }
+        if (crc != null) {
+            writeIntLe(out, (int) crc.getValue());
+            // ISIZE is the input length modulo 2^32
+            writeIntLe(out, (int) bytesIn);
+        }
+        return output(out, startNanos);
+    }
+
+    /** Returns the Deflater to the pool; safe to call more than once. */
+    public synchronized void release() {
+        if (deflater != null) {
+            pool.release(coding, deflater);
+            deflater = null;
+        }
+    }
+
+    public ContentCoding coding() {
+        return coding;
+    }
+
+    public synchronized long bytesIn() {
+        return bytesIn;
+    }
+
+    public synchronized long bytesOut() {
+        return bytesOut;
+    }
+
+    // Time spent deflating, which is all CPU
+    public synchronized long nanos() {
+        return nanos;
+    }
+
+    private byte[] compress(ByteBuffer input) {
+        if (deflater == null) {
+            return EMPTY;
+        }
+        long startNanos = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.remaining() / 2));
+        writeHeader(out);
+        deflate(input, out);
+        return output(out, startNanos);
+    }
+
+    private void deflate(ByteBuffer input, ByteArrayOutputStream out) {
+        bytesIn += input.remaining();
+        if (crc != null) {
+            crc.update(input.duplicate());
+        }
+        // The Deflater keeps a reference to the input, so drain it before the buffer is released
+        deflater.setInput(input);
+        while (!deflater.needsInput()) {
+            out.write(scratch, 0, deflater.deflate(scratch, 0, scratch.length, Deflater.NO_FLUSH));
+        }
+    }
+
+    private void writeHeader(ByteArrayOutputStream out) {
+        if (!headerWritten) {
+            headerWritten = true;
+            if (coding == ContentCoding.GZIP) {
+                out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+        }
+    }
+
+    private byte[] output(ByteArrayOutputStream out, long startNanos) {
+        nanos += System.nanoTime() - startNanos;
+        bytesOut += out.size();
+        return out.size() == 0 ? EMPTY : out.toByteArray();
+    }
+
+    private static void writeIntLe(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
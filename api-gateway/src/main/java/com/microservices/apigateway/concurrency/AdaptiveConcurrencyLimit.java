@@ -0,0 +1,123 @@
+package com.microservices.apigateway.concurrency;
+
+import com.microservices.apigateway.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient concurrency limit for one route. Admission is a CAS on the in-flight count against the
+ * current limit; completed calls are averaged per window and compared with a slowly moving no-load RTT:
+ * <pre>
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * so the limit grows by a small queue allowance while latency holds and shrinks as soon as requests
+ * start queueing upstream, before they fail. Windows with upstream errors back off multiplicatively.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    // Smoothing factor of the long-term RTT, roughly a 600-window moving average
+    private static final double LONG_RTT_FACTOR = 2.0 / 601;
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double longRtt;
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.windowNanos = properties.getWindow().toNanos();
+        this.estimatedLimit = properties.getInitialLimit();
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * @return the in-flight count including this request, or -1 when the route is at its limit
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit. Only calls that ran to completion are sampled; cancelled ones say nothing about the upstream.
+     */
+    public void release(int inFlightAtStart, long rttNanos, boolean dropped, boolean sampled) {
+        inFlight.decrementAndGet();
+        if (!sampled) {
+            return;
+        }
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+            windowDropped |= dropped;
+
+            long now = System.nanoTime();
+            if (windowSamples >= MIN_WINDOW_SAMPLES && now - windowStart >= windowNanos) {
+                update((double) windowRttSum / windowSamples);
+                windowStart = now;
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(double shortRtt) {
+        if (windowDropped) {
+            setLimit(estimatedLimit * properties.getBackoffRatio());
+            return;
+        }
+
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) * LONG_RTT_FACTOR;
+        // A long stretch of high latency must not become the new normal; let the baseline drift back down
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Little traffic: the limit was not what bounded throughput, so there is nothing to learn
+        if (windowMaxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setLimit(estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing());
+    }
+
+    private void setLimit(double newLimit) {
+        estimatedLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
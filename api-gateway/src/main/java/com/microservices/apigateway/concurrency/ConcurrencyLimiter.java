@@ -0,0 +1,60 @@
+package com.microservices.apigateway.concurrency;
+
+import com.microservices.apigateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// One AdaptiveConcurrencyLimit per route, created on first use and exported as metrics
+@Component
+public class ConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the limit for the route, or null when the route is not concurrency-limited.
+     */
+    public AdaptiveConcurrencyLimit forRoute(String routeId) {
+        if (!properties.isEnabled() || routeId == null
+                || (!properties.getRoutes().isEmpty() && !properties.getRoutes().contains(routeId))) {
+            return null;
+        }
+        return limits.computeIfAbsent(routeId, this::newLimit);
+    }
+
+    public void recordRejection(String routeId) {
+        rejections.computeIfAbsent(routeId, route -> Counter.builder("gateway.concurrency.rejected")
+                        .description("Requests rejected because the route was at its concurrency limit")
+                        .tag("route", route)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String routeId) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties);
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently in flight to the upstream")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limit;
+    }
+}
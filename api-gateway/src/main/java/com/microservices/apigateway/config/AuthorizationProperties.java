@@ -0,0 +1,30 @@
+package com.microservices.apigateway.config;
+
+import com.microservices.apigateway.security.RoutePolicy;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Declarative route-authorization table bound from gateway.auth.* (see RoutePolicyEngine)
+@Data
+public class AuthorizationProperties {
+
+    // Access applied to paths that no policy matches
+    private RoutePolicy.Access defaultAccess = RoutePolicy.Access.AUTHENTICATED;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+
+        // Segment pattern: literals, {variable} or * for one segment, {variable:regex} for one segment the
+        // regex matches (e.g. {userId:\d+}), and a trailing ** for a whole subtree
+        private String path;
+
+        private RoutePolicy.Access access = RoutePolicy.Access.AUTHENTICATED;
+
+        // Path variable holding the owning user id for OWNER policies; defaults to the last variable
+        private String owner;
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// POST /api/batch settings bound from gateway.batch.* (see BatchExecutor)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchProperties {
+
+    private boolean enabled = true;
+
+    // Larger batches are rejected with 400
+    private int maxRequests = 20;
+
+    // Sub-requests of one batch in flight at once
+    private int maxConcurrency = 6;
+
+    // A sub-request still running after this is reported as 504
+    private Duration timeout = Duration.ofSeconds(10);
+
+    // Sub-responses larger than this are reported as 502 instead of being embedded
+    private int maxBodyBytes = 1048576;
+
+    // Sub-requests must target a path under this prefix
+    private String pathPrefix = "/api/";
+}
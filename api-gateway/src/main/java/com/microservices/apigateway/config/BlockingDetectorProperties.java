@@ -0,0 +1,28 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Event-loop stall detection bound from gateway.blocking-detector.* (see BlockingDetector)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.blocking-detector")
+public class BlockingDetectorProperties {
+
+    private boolean enabled = false;
+
+    // A loop that has not run a probe task for this long is reported as stalled
+    private long thresholdMicros = 10000;
+
+    // How often each event loop is sent a probe; stalls shorter than this may go unseen
+    private Duration probeInterval = Duration.ofMillis(50);
+
+    // Top frames kept per stack; stalls with the same frames are aggregated into one offender
+    private int stackDepth = 16;
+
+    // Distinct offenders kept; stalls with a new stack beyond this are only counted
+    private int maxOffenders = 200;
+}
@@ -0,0 +1,41 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Single-flight settings bound from gateway.coalescing.* (see RequestCoalescer)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    // How long a waiting request follows the in-flight one before going upstream on its own
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    // Responses larger than this are not shared; waiters then go upstream themselves
+    private int maxBodyBytes = 1048576;
+
+    // Route id -> what makes two requests identical on that route
+    private Map<String, KeyRule> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class KeyRule {
+
+        private boolean includeQuery = true;
+
+        // Request headers whose values become part of the key
+        private List<String> headers = new ArrayList<>(List.of("Accept", "Accept-Encoding", "Accept-Language"));
+
+        // Only coalesce requests from the same user, for responses that depend on the caller
+        private boolean perUser = false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response compression settings bound from gateway.compression.* (see CompressionFilter)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    // Bodies with a smaller Content-Length go out as they are; bodies of unknown length are compressed
+    private int minSize = 1024;
+
+    // Deflater level, 1 (fastest) to 9 (smallest)
+    private int level = 6;
+
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "text/*", "application/json", "application/*+json", "application/xml", "application/javascript"));
+
+    // Idle Deflaters kept per encoding; more are created under load and discarded on return
+    private int poolSize = 64;
+
+    // Compressed copies of response-cache hits, so hot GETs are compressed once per cached entry
+    private boolean precompressedCacheEnabled = true;
+
+    private long precompressedCacheMaxBytes = 4 * 1024 * 1024;
+}
@@ -0,0 +1,39 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Adaptive per-route concurrency limits bound from gateway.concurrency-limit.* (see ConcurrencyLimiter)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    // Route ids to limit; empty means every route
+    private Set<String> routes = new LinkedHashSet<>();
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 500;
+
+    // How much slower than the no-load RTT a route may get before its limit shrinks
+    private double rttTolerance = 1.5;
+
+    // Weight of each new limit estimate (0..1); lower reacts slower but steadier
+    private double smoothing = 0.2;
+
+    // Multiplier applied to the limit when a window saw upstream errors (5xx, timeouts, resets)
+    private double backoffRatio = 0.9;
+
+    // RTT samples are averaged over at least this long (and 10 samples) before the limit moves
+    private Duration window = Duration.ofMillis(100);
+}
@@ -0,0 +1,57 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fault and latency injection bound from gateway.fault-injection.* (see FaultInjector)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.fault-injection")
+public class FaultInjectionProperties {
+
+    // Nothing is injected, and no rule can be set at runtime, unless this is on
+    private boolean enabled = false;
+
+    // Route id -> faults injected into that route's upstream calls
+    private Map<String, Rule> routes = new LinkedHashMap<>();
+
+    public enum Distribution { FIXED, UNIFORM, EXPONENTIAL, LOGNORMAL }
+
+    @Data
+    public static class Rule {
+
+        // Percentages (0..100) of the route's requests that get each fault; they are drawn independently
+        private double delayPercent;
+
+        private Distribution delayDistribution = Distribution.FIXED;
+
+        // FIXED: the delay; UNIFORM: lower bound; EXPONENTIAL: mean; LOGNORMAL: median
+        private Duration delay = Duration.ZERO;
+
+        // UNIFORM: upper bound; caps every drawn delay
+        private Duration delayMax = Duration.ofSeconds(30);
+
+        // LOGNORMAL shape; larger values give a longer tail
+        private double delaySigma = 0.5;
+
+        private double abortPercent;
+
+        // One is picked at random per aborted request
+        private List<Integer> abortStatuses = new ArrayList<>(List.of(503));
+
+        // Fail the upstream call as a refused connection instead of answering with a status
+        private boolean abortWithError;
+
+        private double throttlePercent;
+
+        // Response body bandwidth for throttled requests
+        private long bytesPerSecond;
+    }
+}
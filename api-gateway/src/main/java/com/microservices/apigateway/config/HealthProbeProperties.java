@@ -0,0 +1,34 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Active health probes of the gateway.load-balancer.services.* instances, bound from gateway.health-probe.*
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.health-probe")
+public class HealthProbeProperties {
+
+    private boolean enabled = true;
+
+    private String path = "/actuator/health";
+
+    private Duration interval = Duration.ofSeconds(5);
+
+    // Each delay is spread by up to this fraction either way, so instances are not probed in lockstep
+    private double jitter = 0.2;
+
+    private Duration timeout = Duration.ofSeconds(2);
+
+    // A failing instance is probed at interval x 2^(failures - 1), up to this
+    private Duration maxBackoff = Duration.ofSeconds(60);
+
+    // Consecutive failed probes that take an instance out of rotation
+    private int unhealthyThreshold = 2;
+
+    // Consecutive successful probes that bring it back (through slow start)
+    private int healthyThreshold = 2;
+}
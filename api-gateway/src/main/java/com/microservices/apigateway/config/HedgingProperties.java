@@ -0,0 +1,38 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Hedged GET settings bound from gateway.hedging.* (see HedgingFilter)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+
+    // Route ids to hedge; each must also carry idempotent: true metadata in gateway-routes.yml
+    private Set<String> routes = new LinkedHashSet<>();
+
+    // The hedge is sent once the primary has been out longer than this latency percentile of the route
+    private double percentile = 0.95;
+
+    // Never hedge sooner than this, however fast the route usually is
+    private Duration minDelay = Duration.ofMillis(5);
+
+    // Hedges allowed as a percentage of the route's hedgeable requests
+    private double budgetPercent = 10;
+
+    // Samples needed in an update interval before the hedge delay is (re)computed
+    private int minSamples = 20;
+
+    private Duration updateInterval = Duration.ofSeconds(1);
+
+    // Responses with a larger (or no) Content-Length are not buffered: they race on their headers and stream
+    private int maxBodyBytes = 1048576;
+}
@@ -0,0 +1,41 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Idempotency-Key handling bound from gateway.idempotency.* (see IdempotencyStore)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private String header = "Idempotency-Key";
+
+    // Longer keys are rejected with 400
+    private int maxKeyLength = 255;
+
+    // How long a completed response is replayed for retries with the same key
+    private Duration ttl = Duration.ofHours(24);
+
+    // Estimated bytes of all stored responses
+    private long maxBytes = 32 * 1024 * 1024;
+
+    // Larger responses are not stored; a retry then reaches the service again
+    private int maxBodyBytes = 262144;
+
+    // Request bodies are buffered to digest them; larger ones are rejected with 413
+    private int maxRequestBytes = 262144;
+
+    // How long a concurrent duplicate waits for the in-flight request before getting 409
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    // Route ids whose non-GET requests honour the header
+    private Set<String> routes = new LinkedHashSet<>();
+}
@@ -0,0 +1,11 @@
+package com.microservices.apigateway.config;
+
+import com.microservices.apigateway.loadbalancer.P2CLoadBalancerClientConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+// lb:// routes are balanced by P2CLoadBalancer over the instances in gateway.load-balancer.services.*
+@Configuration
+@LoadBalancerClients(defaultConfiguration = P2CLoadBalancerClientConfiguration.class)
+public class LoadBalancerConfig {
+}
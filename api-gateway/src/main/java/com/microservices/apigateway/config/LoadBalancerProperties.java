@@ -0,0 +1,49 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Static upstream instances and balancing settings bound from gateway.load-balancer.* (see P2CLoadBalancer)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    // Keyed by the service id used in lb:// route uris
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    // Time constant of the latency EWMA: older samples lose weight as e^(-age / latency-decay)
+    private Duration latencyDecay = Duration.ofSeconds(10);
+
+    // Consecutive errors or 5xx responses that eject an instance
+    private int consecutiveFailures = 5;
+
+    // First ejection lasts this long; each further ejection adds the same again, up to max-ejection-time
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    // Never eject more than this share of a service's instances
+    private int maxEjectionPercent = 50;
+
+    // A returning instance's share of traffic ramps up linearly over this window
+    private Duration slowStart = Duration.ofSeconds(30);
+
+    // Weight a returning instance starts the ramp with
+    private double slowStartMinWeight = 0.1;
+
+    @Data
+    public static class Service {
+
+        // Comma-separated in properties, e.g. http://localhost:8082,http://localhost:8182
+        private List<URI> instances = new ArrayList<>();
+    }
+}
@@ -0,0 +1,56 @@
+package com.microservices.apigateway.config;
+
+import com.microservices.apigateway.shedding.Priority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Priority-aware admission bound from gateway.load-shedding.* (see LoadShedder)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-shedding")
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+
+    // Requests in flight through the gateway at once, across all routes
+    private int maxInFlight = 1000;
+
+    // How long a request may wait in its class's queue for a slot before it is shed
+    private Duration maxQueueWait = Duration.ofMillis(100);
+
+    // Sent as Retry-After on shed requests
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    // Process CPU is sampled off the event loop at this interval
+    private Duration cpuSampleInterval = Duration.ofMillis(500);
+
+    private Set<String> criticalRoles = new LinkedHashSet<>(Set.of("ADMIN"));
+
+    // PathTrie patterns; authenticated requests on these paths are HIGH instead of NORMAL
+    private List<String> highPriorityPaths = new ArrayList<>();
+
+    // Limits per class; a class without an entry is never shed early
+    private Map<Priority, PriorityClass> classes = new LinkedHashMap<>();
+
+    @Data
+    public static class PriorityClass {
+
+        // Share of max-in-flight this class may fill; lower classes stop being admitted first
+        private double inFlightShare = 1.0;
+
+        // Requests of this class waiting for a slot; further ones are shed at once
+        private int queueSize = 100;
+
+        // Process CPU load (0..1) above which the class is shed without queueing
+        private double cpuThreshold = 1.0;
+    }
+}
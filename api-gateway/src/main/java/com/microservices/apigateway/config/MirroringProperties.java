@@ -0,0 +1,43 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Traffic mirroring to shadow upstreams bound from gateway.mirroring.* (see TrafficMirror)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.mirroring")
+public class MirroringProperties {
+
+    private boolean enabled = true;
+
+    // Shadow requests in flight at once across all routes; requests sampled beyond this are not mirrored
+    private int maxConcurrent = 32;
+
+    // A shadow response slower than this counts as failed
+    private Duration timeout = Duration.ofSeconds(5);
+
+    // Route id -> shadow upstream for that route
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+
+        // Base URI of the shadow instance; the client's path and query are appended
+        private URI uri;
+
+        // Share (0..100) of the route's requests that are copied to the shadow
+        private double percent = 10;
+
+        // Only body-less requests with these methods are mirrored, so writes never hit the shadow twice over
+        private Set<String> methods = new LinkedHashSet<>(Set.of("GET", "HEAD"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// In-process token-bucket limits bound from gateway.rate-limit.* (see RateLimiter)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Bucket table size: stripes x slots-per-stripe longs, both powers of two
+    private int stripes = 64;
+
+    private int slotsPerStripe = 4096;
+
+    // Buckets untouched this long are reclaimed; keep it above capacity / replenish-rate of every limit
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    // Applied to routes without their own entry; leave unset to limit only the listed routes
+    private Limit defaultLimit;
+
+    // Route id -> limit per user (or per client address on anonymous requests)
+    private Map<String, Limit> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+
+        // Burst size: the most requests a client can make at once
+        private int capacity;
+
+        // Sustained requests per second
+        private int replenishRate;
+    }
+}
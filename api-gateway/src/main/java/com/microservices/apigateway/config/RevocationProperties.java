@@ -0,0 +1,40 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Token revocation denylist synced from user-service, bound from gateway.revocation.* (see RevocationSync)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.revocation")
+public class RevocationProperties {
+
+    private boolean enabled = true;
+
+    // Service (under gateway.load-balancer.services) serving the revocation feed, and the feed's path
+    private String serviceId = "user-service";
+
+    private String path = "/internal/revocations";
+
+    // Delay between incremental syncs, i.e. how long a revoked token may still get through
+    private Duration interval = Duration.ofSeconds(5);
+
+    // The denylist is rebuilt from the whole feed this often, dropping expired entries
+    private Duration fullSyncInterval = Duration.ofMinutes(10);
+
+    // Each incremental sync re-reads what user-service recorded this recently, catching entries whose
+    // transaction committed after a higher id had already been read
+    private Duration rereadWindow = Duration.ofSeconds(30);
+
+    private Duration timeout = Duration.ofSeconds(2);
+
+    private int pageSize = 500;
+
+    // Bloom filter sizing; a full sync grows it when more entries are live
+    private int expectedEntries = 100000;
+
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,24 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Route file settings bound from gateway.routes.* (see RouteTableRegistry)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.routes")
+public class RouteTableProperties {
+
+    // The only route source; any Spring resource location. An external file, so it can change at runtime
+    private String location = "file:./config/gateway-routes.yml";
+
+    // Used while the location does not exist, e.g. the routes packaged in the jar; it cannot change at runtime,
+    // and the location keeps being checked so creating the file there switches over to it
+    private String fallbackLocation = "classpath:gateway-routes.yml";
+
+    // How often the file's modification time is checked; zero disables hot reload
+    private Duration reloadInterval = Duration.ofSeconds(5);
+}
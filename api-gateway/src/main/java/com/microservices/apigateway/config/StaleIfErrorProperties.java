@@ -0,0 +1,34 @@
+package com.microservices.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Last-known-good GET responses served by the circuit-breaker fallback, bound from gateway.stale-if-error.*
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.stale-if-error")
+public class StaleIfErrorProperties {
+
+    private boolean enabled = true;
+
+    // Estimated bytes of all stored responses
+    private long maxBytes = 16 * 1024 * 1024;
+
+    // Larger responses are not kept
+    private int maxBodyBytes = 1048576;
+
+    // Route id -> opt-in; only these routes store responses and serve them stale
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+
+        // How long after it was fetched a response may still be served during an outage
+        private Duration maxStale = Duration.ofMinutes(10);
+    }
+}
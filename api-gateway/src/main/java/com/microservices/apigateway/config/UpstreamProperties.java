@@ -0,0 +1,88 @@
+package com.microservices.apigateway.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Upstream connection pools, protocols and startup warm-up bound from gateway.upstream.* (see UpstreamHttpClients)
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamProperties {
+
+    // Used by every service, and by routes that are not lb://; services override individual settings.
+    // Settings left unset here come from spring.cloud.gateway.httpclient.pool.*
+    private Pool pool = new Pool();
+
+    // Keyed by the service id used in lb:// route uris
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    private Warmup warmup = new Warmup();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        // Reactor Netty keeps one pool per remote address, so this is per instance
+        private Integer maxConnections;
+
+        // Callers allowed to wait for a connection once all are in use; -1 for no limit
+        private Integer pendingAcquireMaxCount;
+
+        // A caller that waited this long fails instead of queueing further
+        private Duration pendingAcquireTimeout;
+
+        // Idle connections are closed after this, below the upstream's keep-alive timeout
+        private Duration maxIdleTime;
+
+        // Connections are retired after this, so new instances behind a DNS name get traffic
+        private Duration maxLifeTime;
+
+        // Interval of the background sweep that closes idle and expired connections
+        private Duration evictInBackground;
+
+        public Pool orElse(Pool defaults) {
+            return new Pool(
+                    maxConnections != null ? maxConnections : defaults.maxConnections,
+                    pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.pendingAcquireMaxCount,
+                    pendingAcquireTimeout != null ? pendingAcquireTimeout : defaults.pendingAcquireTimeout,
+                    maxIdleTime != null ? maxIdleTime : defaults.maxIdleTime,
+                    maxLifeTime != null ? maxLifeTime : defaults.maxLifeTime,
+                    evictInBackground != null ? evictInBackground : defaults.evictInBackground);
+        }
+    }
+
+    @Data
+    public static class Service {
+
+        // HTTP/2 cleartext with prior knowledge: every instance must accept h2c (server.http2.enabled=true)
+        private boolean h2c = false;
+
+        private Pool pool = new Pool();
+
+        // Overrides gateway.upstream.warmup.connections for this service
+        private Integer warmupConnections;
+    }
+
+    @Data
+    public static class Warmup {
+
+        private boolean enabled = true;
+
+        // Connections opened to each instance before the gateway reports ready; h2c services get one
+        private int connections = 4;
+
+        // Any status will do; only the connection matters
+        private String path = "/actuator/health";
+
+        // Startup continues after this even if some instances have not answered
+        private Duration timeout = Duration.ofSeconds(5);
+    }
+}
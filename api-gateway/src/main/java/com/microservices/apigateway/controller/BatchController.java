@@ -0,0 +1,94 @@
+package com.microservices.apigateway.controller;
+
+import com.microservices.apigateway.batch.BatchExecutor;
+import com.microservices.apigateway.batch.BatchRequest;
+import com.microservices.apigateway.batch.BatchResult;
+import com.microservices.apigateway.config.BatchProperties;
+import com.microservices.apigateway.security.TokenRevocationList;
+import com.microservices.apigateway.security.VerifiedClaims;
+import com.microservices.apigateway.security.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@Slf4j
+public class BatchController {
+
+    @Autowired
+    private BatchExecutor batchExecutor;
+
+    @Autowired
+    private BatchProperties batchProperties;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    // Streams one application/x-ndjson line per sub-request as each finishes; the id field says which
+    @PostMapping("/api/batch")
+    public Mono<ResponseEntity<?>> batch(@RequestBody BatchRequest batch, ServerWebExchange exchange) {
+        if (!batchProperties.isEnabled()) {
+            return Mono.just(error(HttpStatus.NOT_FOUND, "Batch requests are disabled"));
+        }
+        String invalid = batchExecutor.validate(batch);
+        if (invalid != null) {
+            log.warn("❌ Rejected batch: {}", invalid);
+            return Mono.just(error(HttpStatus.BAD_REQUEST, invalid));
+        }
+
+        // Verified once for the whole batch; without a token the batch runs anonymously
+        String token = extractToken(exchange.getRequest().getHeaders());
+        VerifiedClaims claims = null;
+        if (token != null) {
+            claims = verifiedTokenCache.verify(token);
+            if (claims == null) {
+                log.warn("❌ Invalid JWT token for batch of {} requests", batch.getRequests().size());
+                return Mono.just(error(HttpStatus.UNAUTHORIZED, "Invalid JWT token"));
+            }
+            if (tokenRevocationList.isRevoked(claims)) {
+                log.warn("❌ Revoked JWT token for batch of {} requests", batch.getRequests().size());
+                return Mono.just(error(HttpStatus.UNAUTHORIZED, "Token has been revoked"));
+            }
+        }
+
+        log.debug("📦 Running batch of {} requests", batch.getRequests().size());
+        Flux<BatchResult> results = batchExecutor.execute(batch, exchange.getRequest(),
+                exchange.getResponse().bufferFactory(), token, claims);
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results));
+    }
+
+    private static String extractToken(HttpHeaders headers) {
+        String bearerToken = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+    private static ResponseEntity<?> error(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now().toString());
+        response.put("status", status.value());
+        response.put("error", status.getReasonPhrase());
+        response.put("message", message);
+        response.put("path", "/api/batch");
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+}
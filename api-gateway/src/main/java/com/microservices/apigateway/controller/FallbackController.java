@@ -1,6 +1,13 @@
 package com.microservices.apigateway.controller;
 
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.cache.StaleResponseStore;
+import com.microservices.apigateway.filter.StaleIfErrorFilter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,21 +15,34 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @Slf4j
 public class FallbackController {
 
+    @Autowired
+    private StaleResponseStore staleResponseStore;
+
     @RequestMapping("/fallback")
-    public Mono<ResponseEntity<Map<String, Object>>> fallback(ServerWebExchange exchange) {
+    public Mono<ResponseEntity<?>> fallback(ServerWebExchange exchange) {
         String path = exchange.getRequest().getPath().value();
         String method = exchange.getRequest().getMethod().name();
         
         log.warn("🔴 Circuit breaker activated for: {} {}", method, path);
         
+        // Opted-in GET routes answer with their last known good response (see StaleIfErrorFilter)
+        String staleKey = exchange.getAttribute(StaleIfErrorFilter.STALE_KEY_ATTR);
+        CachedResponse stale = staleKey != null ? staleResponseStore.get(staleKey) : null;
+        if (stale != null) {
+            log.info("🟡 Serving stale response ({}s old) for: {}", stale.ageSeconds(), staleKey);
+            return Mono.just(staleResponse(stale));
+        }
+        
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now().toString());
         response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
@@ -34,6 +54,40 @@ public class FallbackController {
         return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
     }
     
+    private static ResponseEntity<?> staleResponse(CachedResponse stale) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(stale.getHeaders());
+        headers.set(HttpHeaders.AGE, String.valueOf(stale.ageSeconds()));
+        headers.set(StaleIfErrorFilter.STALE_HEADER, "true");
+        headers.set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+        // Downstream caches, the gateway's response cache included, must not keep it as a fresh response
+        headers.setCacheControl("no-cache");
+        return ResponseEntity.status(stale.getStatus()).headers(headers).body(stale.getBody());
+    }
+    
+    @RequestMapping("/fallback/overloaded")
+    public Mono<ResponseEntity<Map<String, Object>>> overloadedFallback(ServerWebExchange exchange) {
+        Set<URI> originalUrls = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        String path = originalUrls != null && !originalUrls.isEmpty()
+                ? originalUrls.iterator().next().getPath()
+                : exchange.getRequest().getPath().value();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        
+        log.debug("🟠 Concurrency limit reached for: {}", path);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now().toString());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Overloaded");
+        response.put("message", "Too many requests are in progress for this service. Please try again shortly.");
+        response.put("path", path);
+        response.put("route", route != null ? route.getId() : null);
+        
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response));
+    }
+    
     @RequestMapping("/fallback/user-service")
     public Mono<ResponseEntity<Map<String, Object>>> userServiceFallback(ServerWebExchange exchange) {
         String path = exchange.getRequest().getPath().value();
@@ -1,5 +1,10 @@
 package com.microservices.apigateway.controller;
 
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import com.microservices.apigateway.health.HealthProber;
+import com.microservices.apigateway.health.InstanceHealth;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -7,22 +12,56 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 public class HealthController {
 
+    @Autowired
+    private HealthProber healthProber;
+
+    @Autowired
+    private LoadBalancerProperties loadBalancerProperties;
+
+    // UP when every service has all instances passing their probes, DEGRADED when some are down, and
+    // DOWN (503) only when no service has a single healthy instance; not-yet-probed instances count as up
     @GetMapping("/health")
     public Mono<ResponseEntity<Map<String, Object>>> health() {
+        Map<String, Object> services = new LinkedHashMap<>();
+        int servicesUp = 0;
+        int servicesAvailable = 0;
+        for (Map.Entry<String, List<InstanceHealth>> entry : healthProber.snapshot().entrySet()) {
+            List<InstanceHealth> instances = entry.getValue();
+            long healthy = instances.stream()
+                    .filter(instance -> instance.getStatus() != InstanceHealth.Status.DOWN)
+                    .count();
+            String status = healthy == instances.size() ? "UP" : healthy > 0 ? "DEGRADED" : "DOWN";
+            if (healthy == instances.size()) {
+                servicesUp++;
+            }
+            if (healthy > 0) {
+                servicesAvailable++;
+            }
+            Map<String, Object> service = new LinkedHashMap<>();
+            service.put("status", status);
+            service.put("instances", instances);
+            services.put(entry.getKey(), service);
+        }
+        String status = servicesUp == services.size() ? "UP" : servicesAvailable > 0 ? "DEGRADED" : "DOWN";
+
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", status);
         response.put("timestamp", LocalDateTime.now().toString());
         response.put("service", "api-gateway");
         response.put("version", "1.0.0");
-        
-        return Mono.just(ResponseEntity.ok(response));
+        response.put("services", services);
+
+        return Mono.just(ResponseEntity.status("DOWN".equals(status) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)
+                .body(response));
     }
-    
+
     @GetMapping("/info")
     public Mono<ResponseEntity<Map<String, Object>>> info() {
         Map<String, Object> response = new HashMap<>();
@@ -30,16 +69,13 @@ public class HealthController {
         response.put("description", "Spring Cloud Gateway for Microservices");
         response.put("version", "1.0.0");
         response.put("timestamp", LocalDateTime.now().toString());
-        
-        Map<String, Object> routes = new HashMap<>();
-        routes.put("user-service", "http://localhost:8081");
-        routes.put("product-service", "http://localhost:8082");
-        routes.put("order-service", "http://localhost:8083");
-        routes.put("payment-service", "http://localhost:8084");
-        routes.put("notification-service", "http://localhost:8085");
-        
+
+        Map<String, Object> routes = new LinkedHashMap<>();
+        loadBalancerProperties.getServices().forEach((serviceId, service) ->
+                routes.put(serviceId, service.getInstances().stream().map(Object::toString).toList()));
+
         response.put("routes", routes);
-        
+
         return Mono.just(ResponseEntity.ok(response));
     }
-}
\ No newline at end of file
+}
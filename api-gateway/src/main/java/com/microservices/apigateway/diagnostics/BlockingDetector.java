@@ -0,0 +1,335 @@
+package com.microservices.apigateway.diagnostics;
+
+import com.microservices.apigateway.config.BlockingDetectorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Finds tasks that hold a Netty event loop (shared by the gateway's server and upstream clients) for
+ * longer than the threshold. A watchdog thread sends each loop a tiny probe task every probe interval;
+ * when a probe has waited past the threshold the loop is stalled, and the watchdog takes the loop
+ * thread's stack at that moment. Stalls are aggregated by their top frames together with the route
+ * of the request the loop last started, and the stall's length is known once the probe finally runs.
+ * <p>
+ * The cost is one watchdog wake-up per half threshold and one probe per loop per probe interval;
+ * stacks are only taken on a stall. Stalls shorter than the probe interval are sampled, not all seen.
+ * On a saturated loop the probe also waits behind many short tasks, so such "stalls" spread over
+ * unrelated stacks with low counts, while a real blocker keeps showing up with the same one.
+ */
+@Component
+@Slf4j
+public class BlockingDetector {
+
+    public enum Kind { WAITING, RUNNING }
+
+    // Top frames that mean the thread is waiting although the JVM reports it RUNNABLE (blocking syscalls)
+    private static final List<String> WAITING_FRAME_PREFIXES = List.of(
+            "java.io.", "java.net.", "sun.nio.ch.FileDispatcherImpl", "sun.nio.ch.NioSocketImpl",
+            "sun.security.provider.SeedGenerator", "sun.security.provider.NativePRNG");
+
+    private static final long MIN_TICK_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    private final BlockingDetectorProperties properties;
+
+    private final FastThreadLocal<Loop> currentLoop = new FastThreadLocal<>();
+
+    private final List<Loop> loops = new ArrayList<>();
+
+    private final ConcurrentMap<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    private final LongAdder untracked = new LongAdder();
+
+    private final Timer probeLag;
+
+    private final Counter[] stalls = new Counter[Kind.values().length];
+
+    private volatile boolean running;
+
+    private Thread watchdog;
+
+    public BlockingDetector(BlockingDetectorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.probeLag = Timer.builder("gateway.eventloop.lag")
+                .description("Time an event loop took to run a probe task after it was submitted")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        for (Kind kind : Kind.values()) {
+            stalls[kind.ordinal()] = Counter.builder("gateway.eventloop.stalls")
+                    .description("Event-loop stalls longer than the blocking-detector threshold")
+                    .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Event-loop blocking detector disabled");
+            return;
+        }
+        // The loops Reactor Netty's global resources hand to the server and every HttpClient
+        for (EventExecutor executor : HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE)) {
+            loops.add(new Loop(executor));
+        }
+        running = true;
+        watchdog = new Thread(this::watch, "blocking-detector");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        log.info("🐢 Watching {} event loops for tasks over {} µs", loops.size(), properties.getThresholdMicros());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watchdog != null) {
+            watchdog.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /** Remembers the route of the request the calling event loop is starting; a no-op on other threads. */
+    public void mark(String routeId) {
+        Loop loop = currentLoop.getIfExists();
+        if (loop != null) {
+            loop.route = routeId;
+        }
+    }
+
+    public Map<String, Object> report(int limit) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("enabled", running);
+        report.put("thresholdMicros", properties.getThresholdMicros());
+        report.put("probeIntervalMillis", properties.getProbeInterval().toMillis());
+        report.put("loops", loops.size());
+        report.put("stalls", (long) (stalls[0].count() + stalls[1].count()));
+        report.put("untrackedStalls", untracked.sum());
+        report.put("offenders", offenders.values().stream()
+                .map(Offender::snapshot)
+                .sorted(Comparator.comparingLong(BlockingOffender::getTotalMicros)
+                        .thenComparingLong(BlockingOffender::getStalls)
+                        .reversed())
+                .limit(limit)
+                .toList());
+        return report;
+    }
+
+    public int reset() {
+        int cleared = offenders.size();
+        offenders.clear();
+        untracked.reset();
+        return cleared;
+    }
+
+    private void watch() {
+        long thresholdNanos = TimeUnit.MICROSECONDS.toNanos(properties.getThresholdMicros());
+        long tickNanos = Math.max(MIN_TICK_NANOS, thresholdNanos / 2);
+        long probeIntervalNanos = properties.getProbeInterval().toNanos();
+        while (running) {
+            long now = System.nanoTime();
+            for (Loop loop : loops) {
+                check(loop, now, thresholdNanos, probeIntervalNanos);
+            }
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    private void check(Loop loop, long now, long thresholdNanos, long probeIntervalNanos) {
+        if (!loop.probePending) {
+            if (now - loop.lastProbeNanos >= probeIntervalNanos) {
+                loop.lastProbeNanos = now;
+                loop.probeSubmittedNanos = now;
+                loop.probePending = true;
+                try {
+                    loop.executor.execute(loop::probe);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    running = false;
+                }
+            }
+            return;
+        }
+
+        long submitted = loop.probeSubmittedNanos;
+        Thread thread = loop.thread;
+        if (loop.offender != null || thread == null || now - submitted <= thresholdNanos) {
+            return;
+        }
+        // Taken outside the lock; a probe that ran meanwhile makes the stack stale and it is dropped
+        Thread.State state = thread.getState();
+        StackTraceElement[] stack = thread.getStackTrace();
+        String route = loop.route;
+        synchronized (loop) {
+            if (!loop.probePending || loop.probeSubmittedNanos != submitted || loop.offender != null) {
+                return;
+            }
+            Kind kind = kind(state, stack);
+            stalls[kind.ordinal()].increment();
+            Offender offender = offender(kind, stack);
+            if (offender != null) {
+                offender.stalled(thread.getName(), route);
+            } else {
+                untracked.increment();
+            }
+            loop.offender = offender != null ? offender : Offender.UNTRACKED;
+        }
+    }
+
+    private Offender offender(Kind kind, StackTraceElement[] stack) {
+        List<String> frames = Arrays.stream(stack)
+                .limit(Math.max(1, properties.getStackDepth()))
+                .map(StackTraceElement::toString)
+                .toList();
+        String key = kind + "|" + String.join("|", frames);
+        Offender offender = offenders.get(key);
+        if (offender == null && offenders.size() < properties.getMaxOffenders()) {
+            offender = offenders.computeIfAbsent(key, k -> new Offender(kind, frames));
+        }
+        return offender;
+    }
+
+    private static Kind kind(Thread.State state, StackTraceElement[] stack) {
+        if (state != Thread.State.RUNNABLE) {
+            return Kind.WAITING;
+        }
+        if (stack.length > 0) {
+            String top = stack[0].getClassName();
+            for (String prefix : WAITING_FRAME_PREFIXES) {
+                if (top.startsWith(prefix)) {
+                    return Kind.WAITING;
+                }
+            }
+        }
+        return Kind.RUNNING;
+    }
+
+    private final class Loop {
+
+        private final EventExecutor executor;
+
+        private volatile Thread thread;
+
+        // Route of the request this loop last started
+        private volatile String route;
+
+        private volatile boolean probePending;
+
+        private volatile long probeSubmittedNanos;
+
+        // Written by the watchdog only
+        private long lastProbeNanos = System.nanoTime();
+
+        // Set once the pending probe's stall has been recorded
+        private volatile Offender offender;
+
+        private Loop(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        // Runs on the loop thread
+        private void probe() {
+            if (thread == null) {
+                thread = Thread.currentThread();
+                currentLoop.set(this);
+            }
+            Offender stalled;
+            long lagNanos;
+            synchronized (this) {
+                lagNanos = System.nanoTime() - probeSubmittedNanos;
+                stalled = offender;
+                offender = null;
+                probePending = false;
+            }
+            probeLag.record(lagNanos, TimeUnit.NANOSECONDS);
+            if (stalled != null) {
+                stalled.finished(lagNanos);
+            }
+        }
+    }
+
+    private static final class Offender {
+
+        // Placeholder for a stall whose stack was not kept because max-offenders was reached
+        private static final Offender UNTRACKED = new Offender(Kind.RUNNING, List.of());
+
+        private static final int MAX_ROUTES = 32;
+
+        private final Kind kind;
+
+        private final List<String> stack;
+
+        private final LongAdder stalls = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final ConcurrentMap<String, LongAdder> routes = new ConcurrentHashMap<>();
+
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        private volatile long lastSeenMillis;
+
+        private Offender(Kind kind, List<String> stack) {
+            this.kind = kind;
+            this.stack = stack;
+        }
+
+        private void stalled(String thread, String route) {
+            stalls.increment();
+            lastSeenMillis = System.currentTimeMillis();
+            threads.add(thread);
+            String key = route != null ? route : "(none)";
+            if (routes.size() >= MAX_ROUTES && !routes.containsKey(key)) {
+                key = "(other)";
+            }
+            routes.computeIfAbsent(key, r -> new LongAdder()).increment();
+        }
+
+        private void finished(long durationNanos) {
+            if (this == UNTRACKED) {
+                return;
+            }
+            totalNanos.add(durationNanos);
+            maxNanos.accumulateAndGet(durationNanos, Math::max);
+        }
+
+        private BlockingOffender snapshot() {
+            Map<String, Long> routeCounts = new LinkedHashMap<>();
+            routes.entrySet().stream()
+                    .sorted(Map.Entry.<String, LongAdder>comparingByValue(Comparator.comparingLong(LongAdder::sum))
+                            .reversed())
+                    .forEach(entry -> routeCounts.put(entry.getKey(), entry.getValue().sum()));
+            return new BlockingOffender(kind.name(), stalls.sum(),
+                    TimeUnit.NANOSECONDS.toMicros(totalNanos.sum()), TimeUnit.NANOSECONDS.toMicros(maxNanos.get()),
+                    lastSeenMillis, routeCounts, threads.stream().sorted().toList(), stack);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.microservices.apigateway.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// GET /actuator/blocking?limit=20 lists the worst event-loop stall offenders, DELETE /actuator/blocking clears them
+@Component
+@Endpoint(id = "blocking")
+public class BlockingEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final BlockingDetector blockingDetector;
+
+    public BlockingEndpoint(BlockingDetector blockingDetector) {
+        this.blockingDetector = blockingDetector;
+    }
+
+    @ReadOperation
+    public Map<String, Object> offenders(@Nullable Integer limit) {
+        return blockingDetector.report(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("cleared", blockingDetector.reset());
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package com.microservices.apigateway.diagnostics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+// One aggregated stack that stalled event loops, as exported by /actuator/blocking
+@Getter
+@AllArgsConstructor
+public class BlockingOffender {
+
+    // WAITING (parked, sleeping, locked or in blocking I/O) or RUNNING (long CPU-bound task)
+    private final String kind;
+    private final long stalls;
+    private final long totalMicros;
+    private final long maxMicros;
+    private final long lastSeenEpochMillis;
+    // Route of the request each stalled loop last started, with stall counts
+    private final Map<String, Long> routes;
+    private final List<String> threads;
+    private final List<String> stack;
+}
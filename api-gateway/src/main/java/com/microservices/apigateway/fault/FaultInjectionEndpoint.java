@@ -0,0 +1,123 @@
+package com.microservices.apigateway.fault;
+
+import com.microservices.apigateway.config.FaultInjectionProperties;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * GET /actuator/faults lists the fault rules, POST /actuator/faults/{routeId} with a JSON body of rule
+ * fields (delayPercent, delayDistribution, delay, delayMax, delaySigma, abortPercent, abortStatuses,
+ * abortWithError, throttlePercent, bytesPerSecond) replaces the route's rule, and DELETE
+ * /actuator/faults/{routeId} (or /actuator/faults for all) removes rules.
+ */
+@Component
+@Endpoint(id = "faults")
+public class FaultInjectionEndpoint {
+
+    private final FaultInjector faultInjector;
+
+    public FaultInjectionEndpoint(FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rules() {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        faultInjector.rules().forEach((routeId, rule) -> routes.put(routeId, FaultInjector.describe(rule)));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", faultInjector.isEnabled());
+        result.put("routes", routes);
+        return result;
+    }
+
+    // Unset fields take their defaults, so each call describes the whole rule
+    @WriteOperation
+    public Map<String, Object> configure(@Selector String routeId, @Nullable Double delayPercent,
+                                         @Nullable String delayDistribution, @Nullable Duration delay,
+                                         @Nullable Duration delayMax, @Nullable Double delaySigma,
+                                         @Nullable Double abortPercent, @Nullable String abortStatuses,
+                                         @Nullable Boolean abortWithError, @Nullable Double throttlePercent,
+                                         @Nullable Long bytesPerSecond) {
+        requireEnabled();
+        FaultInjectionProperties.Rule rule = new FaultInjectionProperties.Rule();
+        try {
+            if (delayPercent != null) {
+                rule.setDelayPercent(delayPercent);
+            }
+            if (delayDistribution != null) {
+                rule.setDelayDistribution(FaultInjectionProperties.Distribution.valueOf(
+                        delayDistribution.trim().toUpperCase(Locale.ROOT)));
+            }
+            if (delay != null) {
+                rule.setDelay(delay);
+            }
+            if (delayMax != null) {
+                rule.setDelayMax(delayMax);
+            }
+            if (delaySigma != null) {
+                rule.setDelaySigma(delaySigma);
+            }
+            if (abortPercent != null) {
+                rule.setAbortPercent(abortPercent);
+            }
+            // "502,503" or a JSON array, which the endpoint infrastructure joins with commas
+            if (abortStatuses != null) {
+                rule.setAbortStatuses(Arrays.stream(abortStatuses.split(","))
+                        .map(String::trim)
+                        .map(Integer::valueOf)
+                        .toList());
+            }
+            if (abortWithError != null) {
+                rule.setAbortWithError(abortWithError);
+            }
+            if (throttlePercent != null) {
+                rule.setThrottlePercent(throttlePercent);
+            }
+            if (bytesPerSecond != null) {
+                rule.setBytesPerSecond(bytesPerSecond);
+            }
+            faultInjector.put(routeId, rule);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("route", routeId);
+        result.put("rule", FaultInjector.describe(rule));
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> remove(@Selector String routeId) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("route", routeId);
+        result.put("removed", faultInjector.remove(routeId));
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> clear() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("removed", faultInjector.clear());
+        return result;
+    }
+
+    private void requireEnabled() {
+        if (!faultInjector.isEnabled()) {
+            String message = "Fault injection is disabled; set gateway.fault-injection.enabled=true";
+            throw new InvalidEndpointRequestException(message, message);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.microservices.apigateway.fault;
+
+import com.microservices.apigateway.config.FaultInjectionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Current fault rules per route, seeded from gateway.fault-injection.routes and replaced at runtime
+ * through /actuator/faults. Rules are never mutated once published, so a request sees one whole rule.
+ * Everything is inert unless gateway.fault-injection.enabled is set, which keeps production safe.
+ */
+@Component
+@Slf4j
+public class FaultInjector {
+
+    public enum Fault { DELAY, ABORT, THROTTLE }
+
+    private final FaultInjectionProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, FaultInjectionProperties.Rule> rules = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    public FaultInjector(FaultInjectionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        properties.getRoutes().forEach(this::put);
+        if (properties.isEnabled()) {
+            log.warn("💥 Fault injection enabled, rules for routes {}", rules.keySet());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** The route's rule, or null when fault injection is off or the route has none. */
+    public FaultInjectionProperties.Rule ruleFor(String routeId) {
+        return properties.isEnabled() && routeId != null ? rules.get(routeId) : null;
+    }
+
+    public Map<String, FaultInjectionProperties.Rule> rules() {
+        return new TreeMap<>(rules);
+    }
+
+    /** Validates and installs the rule, replacing any previous one for the route. */
+    public void put(String routeId, FaultInjectionProperties.Rule rule) {
+        validate(routeId, rule);
+        rules.put(routeId, rule);
+        if (properties.isEnabled()) {
+            log.warn("💥 Fault rule for {}: delay {}% ({} {}), abort {}% {}, throttle {}% at {} B/s", routeId,
+                    rule.getDelayPercent(), rule.getDelayDistribution(), rule.getDelay(), rule.getAbortPercent(),
+                    rule.isAbortWithError() ? "(connection error)" : rule.getAbortStatuses(),
+                    rule.getThrottlePercent(), rule.getBytesPerSecond());
+        }
+    }
+
+    public boolean remove(String routeId) {
+        return rules.remove(routeId) != null;
+    }
+
+    public int clear() {
+        int removed = rules.size();
+        rules.clear();
+        return removed;
+    }
+
+    /** True for the given percentage (0..100) of calls. */
+    public boolean hit(double percent) {
+        return percent > 0 && (percent >= 100 || ThreadLocalRandom.current().nextDouble(100) < percent);
+    }
+
+    public Duration sampleDelay(FaultInjectionProperties.Rule rule) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double base = rule.getDelay().toNanos();
+        double max = rule.getDelayMax().toNanos();
+        double nanos = switch (rule.getDelayDistribution()) {
+            case FIXED -> base;
+            case UNIFORM -> max > base ? base + random.nextDouble() * (max - base) : base;
+            // Inverse transform sampling; 1 - u avoids log(0)
+            case EXPONENTIAL -> -base * Math.log(1 - random.nextDouble());
+            case LOGNORMAL -> base * Math.exp(rule.getDelaySigma() * random.nextGaussian());
+        };
+        return Duration.ofNanos((long) Math.min(nanos, max));
+    }
+
+    public int abortStatus(FaultInjectionProperties.Rule rule) {
+        List<Integer> statuses = rule.getAbortStatuses();
+        return statuses.get(ThreadLocalRandom.current().nextInt(statuses.size()));
+    }
+
+    public void record(String routeId, Fault fault) {
+        counters.computeIfAbsent(routeId, this::newCounters)[fault.ordinal()].increment();
+    }
+
+    /** The rule as shown by /actuator/faults. */
+    public static Map<String, Object> describe(FaultInjectionProperties.Rule rule) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("delayPercent", rule.getDelayPercent());
+        description.put("delayDistribution", rule.getDelayDistribution());
+        description.put("delay", rule.getDelay().toString());
+        description.put("delayMax", rule.getDelayMax().toString());
+        description.put("delaySigma", rule.getDelaySigma());
+        description.put("abortPercent", rule.getAbortPercent());
+        description.put("abortStatuses", rule.getAbortStatuses());
+        description.put("abortWithError", rule.isAbortWithError());
+        description.put("throttlePercent", rule.getThrottlePercent());
+        description.put("bytesPerSecond", rule.getBytesPerSecond());
+        return description;
+    }
+
+    private static void validate(String routeId, FaultInjectionProperties.Rule rule) {
+        if (routeId == null || routeId.isBlank()) {
+            throw new IllegalArgumentException("Route id is required");
+        }
+        for (double percent : new double[] {rule.getDelayPercent(), rule.getAbortPercent(), rule.getThrottlePercent()}) {
+            if (percent < 0 || percent > 100) {
+                throw new IllegalArgumentException("Percentages must be between 0 and 100 for route " + routeId);
+            }
+        }
+        if (rule.getDelayDistribution() == null || rule.getDelay() == null || rule.getDelayMax() == null
+                || rule.getDelay().isNegative() || rule.getDelayMax().isNegative()) {
+            throw new IllegalArgumentException("Delay distribution, delay and delay-max must be set and not negative for route "
+                    + routeId);
+        }
+        if (rule.getDelaySigma() < 0) {
+            throw new IllegalArgumentException("delay-sigma must not be negative for route " + routeId);
+        }
+        if (rule.getAbortPercent() > 0 && !rule.isAbortWithError()) {
+            if (rule.getAbortStatuses() == null || rule.getAbortStatuses().isEmpty()) {
+                throw new IllegalArgumentException("abort-statuses is required to abort requests on route " + routeId);
+            }
+            for (Integer status : rule.getAbortStatuses()) {
+                if (status == null || status < 400 || status > 599) {
+                    throw new IllegalArgumentException("Invalid abort status " + status + " for route " + routeId);
+                }
+            }
+        }
+        if (rule.getThrottlePercent() > 0 && rule.getBytesPerSecond() <= 0) {
+            throw new IllegalArgumentException("bytes-per-second must be positive to throttle route " + routeId);
+        }
+    }
+
+    private Counter[] newCounters(String routeId) {
+        Fault[] faults = Fault.values();
+        Counter[] routeCounters = new Counter[faults.length];
+        for (Fault fault : faults) {
+            routeCounters[fault.ordinal()] = Counter.builder("gateway.faults.injected")
+                    .description("Requests that got an injected delay, abort or bandwidth throttle")
+                    .tag("route", routeId)
+                    .tag("fault", fault.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return routeCounters;
+    }
+}
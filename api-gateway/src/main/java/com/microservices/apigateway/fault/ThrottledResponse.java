@@ -0,0 +1,46 @@
+package com.microservices.apigateway.fault;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Paces the response body to a fixed bandwidth: each buffer is held back for as long as its bytes
+ * take at that rate, so the body arrives at bytesPerSecond on average (in steps of one upstream chunk).
+ */
+public class ThrottledResponse extends ServerHttpResponseDecorator {
+
+    private final long bytesPerSecond;
+
+    public ThrottledResponse(ServerHttpResponse delegate, long bytesPerSecond) {
+        super(delegate);
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(throttle(body));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return super.writeAndFlushWith(Flux.from(body).map(this::throttle));
+    }
+
+    // A buffer dropped while it is held back (client gone) is released by the discard hook
+    private Flux<DataBuffer> throttle(Publisher<? extends DataBuffer> body) {
+        return Flux.<DataBuffer>from(body)
+                .concatMap(buffer -> Mono.just(buffer).delayElement(pause(buffer.readableByteCount())))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private Duration pause(int bytes) {
+        return Duration.ofNanos(bytes * 1_000_000_000L / bytesPerSecond);
+    }
+}
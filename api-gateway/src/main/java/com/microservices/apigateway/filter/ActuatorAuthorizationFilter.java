@@ -0,0 +1,93 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.security.RoutePolicy;
+import com.microservices.apigateway.security.RoutePolicyEngine;
+import com.microservices.apigateway.security.TokenRevocationList;
+import com.microservices.apigateway.security.VerifiedClaims;
+import com.microservices.apigateway.security.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Actuator endpoints are served by the gateway itself, not routed, so global filters never see them.
+ * This applies the same gateway.auth policies to /actuator and everything under it, so every endpoint
+ * but the ones the policies make PUBLIC (health, info) requires an ADMIN token.
+ */
+@Component
+@Slf4j
+public class ActuatorAuthorizationFilter implements WebFilter, Ordered {
+
+    private static final String ACTUATOR_BASE = "/actuator";
+
+    private static final String ACTUATOR_PREFIX = ACTUATOR_BASE + "/";
+
+    private final RoutePolicyEngine routePolicyEngine;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    public ActuatorAuthorizationFilter(RoutePolicyEngine routePolicyEngine, VerifiedTokenCache verifiedTokenCache,
+                                       TokenRevocationList tokenRevocationList) {
+        this.routePolicyEngine = routePolicyEngine;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        // The bare base path lists every exposed endpoint
+        if (!path.startsWith(ACTUATOR_PREFIX) && !path.equals(ACTUATOR_BASE)) {
+            return chain.filter(exchange);
+        }
+
+        RoutePolicy policy = routePolicyEngine.match(path);
+        if (policy.isPublic()) {
+            return chain.filter(exchange);
+        }
+
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        VerifiedClaims claims = StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")
+                ? verifiedTokenCache.verify(bearerToken.substring(7))
+                : null;
+        if (claims == null || !claims.isComplete()) {
+            log.warn("❌ Missing or invalid JWT token for actuator endpoint: {}", path);
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "Invalid or missing JWT token");
+        }
+        // Same denylist check as JwtAuthenticationFilter, so a revoked ADMIN token can't reach actuator
+        if (tokenRevocationList.isRevoked(claims)) {
+            log.warn("❌ Revoked JWT token for user {} on actuator endpoint: {}", claims.getEmail(), path);
+            return reject(exchange, HttpStatus.UNAUTHORIZED, "Token has been revoked");
+        }
+        if (!policy.permits(path, claims)) {
+            log.warn("❌ User {} attempted to access actuator endpoint: {}", claims.getEmail(), path);
+            return reject(exchange, HttpStatus.FORBIDDEN, "Admin access required");
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+
+        String body = String.format("{\"error\":\"%s\",\"message\":\"%s\",\"status\":%d}",
+                status.getReasonPhrase(), message, status.value());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,37 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.diagnostics.BlockingDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tells BlockingDetector which route the current event loop is working for, so stalls can be
+ * attributed to the request that most likely caused them.
+ */
+@Component
+public class BlockingDetectorFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private BlockingDetector blockingDetector;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (blockingDetector.isEnabled()) {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            blockingDetector.mark(route != null ? route.getId() : null);
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.BLOCKING_DETECTOR;
+    }
+}
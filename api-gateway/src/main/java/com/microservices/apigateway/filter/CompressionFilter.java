@@ -0,0 +1,39 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.compression.CompressingResponse;
+import com.microservices.apigateway.compression.ContentCoding;
+import com.microservices.apigateway.compression.ResponseCompression;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Negotiates gzip/deflate from Accept-Encoding and compresses qualifying response bodies on their way out
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private ResponseCompression responseCompression;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ContentCoding coding = responseCompression.negotiate(exchange.getRequest());
+        if (coding == null) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        CompressingResponse response = new CompressingResponse(exchange.getResponse(), coding,
+                route != null ? route.getId() : null, responseCompression);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.COMPRESSION;
+    }
+}
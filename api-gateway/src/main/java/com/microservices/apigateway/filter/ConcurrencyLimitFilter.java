@@ -0,0 +1,72 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.concurrency.AdaptiveConcurrencyLimit;
+import com.microservices.apigateway.concurrency.ConcurrencyLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Admits a request only while its route is under the adaptive concurrency limit; the rest are
+ * forwarded straight to FallbackController instead of queueing behind a slow upstream.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String OVERLOADED_FALLBACK = "/fallback/overloaded";
+
+    @Autowired
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    // Lazy: the dispatcher handler depends on the handler mappings that depend on these filters
+    @Autowired
+    private ObjectProvider<DispatcherHandler> dispatcherHandler;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        AdaptiveConcurrencyLimit limit = route != null ? concurrencyLimiter.forRoute(route.getId()) : null;
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            log.debug("🟠 Concurrency limit {} reached for route {}", limit.getLimit(), route.getId());
+            concurrencyLimiter.recordRejection(route.getId());
+            return forwardToFallback(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean dropped = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    limit.release(inFlight, System.nanoTime() - startNanos, dropped, signal != SignalType.CANCEL);
+                });
+    }
+
+    private Mono<Void> forwardToFallback(ServerWebExchange exchange) {
+        ServerWebExchangeUtils.addOriginalRequestUrl(exchange, exchange.getRequest().getURI());
+        ServerHttpRequest request = exchange.getRequest().mutate().path(OVERLOADED_FALLBACK).build();
+        return dispatcherHandler.getObject().handle(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.CONCURRENCY_LIMIT;
+    }
+}
@@ -0,0 +1,78 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.config.FaultInjectionProperties;
+import com.microservices.apigateway.fault.FaultInjector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+
+/**
+ * Injects delays and aborts into upstream calls on routes with a fault rule (see FaultInjector). It runs
+ * right before the upstream call, inside the route's CircuitBreaker, so breakers, time limits, the
+ * concurrency limit and route metrics all see the faults as if the service had produced them.
+ * Bandwidth throttling is done by FaultThrottleFilter, around the response write.
+ */
+@Component
+@Slf4j
+public class FaultInjectionFilter implements GlobalFilter, Ordered {
+
+    public static final String FAULT_HEADER = "X-Fault-Injected";
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        FaultInjectionProperties.Rule rule = route != null ? faultInjector.ruleFor(route.getId()) : null;
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        Mono<Void> call = faultInjector.hit(rule.getAbortPercent())
+                ? Mono.defer(() -> abort(exchange, routeId, rule))
+                : Mono.defer(() -> chain.filter(exchange));
+        if (!faultInjector.hit(rule.getDelayPercent())) {
+            return call;
+        }
+        Duration delay = faultInjector.sampleDelay(rule);
+        faultInjector.record(routeId, FaultInjector.Fault.DELAY);
+        log.debug("💥 Delaying {} on {} by {} ms", exchange.getRequest().getPath(), routeId, delay.toMillis());
+        return Mono.delay(delay).then(call);
+    }
+
+    private Mono<Void> abort(ServerWebExchange exchange, String routeId, FaultInjectionProperties.Rule rule) {
+        faultInjector.record(routeId, FaultInjector.Fault.ABORT);
+        if (rule.isAbortWithError()) {
+            return Mono.error(new ConnectException("Injected fault: connection refused on route " + routeId));
+        }
+        int status = faultInjector.abortStatus(rule);
+        log.debug("💥 Aborting {} on {} with {}", exchange.getRequest().getPath(), routeId, status);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        response.getHeaders().set(FAULT_HEADER, "abort");
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        String body = "{\"error\":\"Injected Fault\",\"message\":\"Aborted by gateway fault injection\",\"status\":"
+                + status + "}";
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.FAULT_INJECTION;
+    }
+}
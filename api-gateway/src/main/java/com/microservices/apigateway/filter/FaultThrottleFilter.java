@@ -0,0 +1,44 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.config.FaultInjectionProperties;
+import com.microservices.apigateway.fault.FaultInjector;
+import com.microservices.apigateway.fault.ThrottledResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throttles the bandwidth of upstream response bodies on routes whose fault rule asks for it. It wraps
+ * the response NettyWriteResponseFilter streams the upstream body into, so cached or coalesced answers
+ * served by the outer filters are not slowed down.
+ */
+@Component
+public class FaultThrottleFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        FaultInjectionProperties.Rule rule = route != null ? faultInjector.ruleFor(route.getId()) : null;
+        if (rule == null || rule.getBytesPerSecond() <= 0 || !faultInjector.hit(rule.getThrottlePercent())) {
+            return chain.filter(exchange);
+        }
+
+        faultInjector.record(route.getId(), FaultInjector.Fault.THROTTLE);
+        ThrottledResponse throttled = new ThrottledResponse(exchange.getResponse(), rule.getBytesPerSecond());
+        return chain.filter(exchange.mutate().response(throttled).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.FAULT_THROTTLE;
+    }
+}
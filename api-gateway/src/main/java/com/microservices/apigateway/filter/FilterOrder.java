@@ -0,0 +1,74 @@
+package com.microservices.apigateway.filter;
+
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+
+/**
+ * Order of the gateway's global filters, outermost first. Gaps of 10 leave room for new filters;
+ * UpstreamRoutingFilter (the actual upstream call) runs at LOWEST_PRECEDENCE.
+ */
+public final class FilterOrder {
+
+    public static final int TRACING = Ordered.HIGHEST_PRECEDENCE;
+
+    // Marks the route on the event loop before any other filter can stall it
+    public static final int BLOCKING_DETECTOR = TRACING + 5;
+
+    // Sees every outcome, including requests rejected by the filters below
+    public static final int ROUTE_METRICS = TRACING + 10;
+
+    public static final int ACCESS_LOG = TRACING + 20;
+
+    public static final int AUTHENTICATION = TRACING + 30;
+
+    // After authentication, whose role and path decide the caller's priority; before anything that
+    // does work for the request
+    public static final int LOAD_SHEDDING = TRACING + 35;
+
+    // After authentication so limits are keyed by user id
+    public static final int RATE_LIMIT = TRACING + 40;
+
+    // Outside the response cache and coalescing, so they keep uncompressed bodies and any client
+    // encoding can be served from them
+    public static final int COMPRESSION = TRACING + 45;
+
+    // After authentication so cached responses are still authorized
+    public static final int RESPONSE_CACHE = TRACING + 50;
+
+    // After authentication so keys are scoped by user id; stored responses are uncompressed and
+    // replays take no concurrency permit
+    public static final int IDEMPOTENCY = TRACING + 55;
+
+    // After the response cache so cache hits never wait
+    public static final int COALESCING = TRACING + 60;
+
+    // Stores only responses that really came from upstream: not cache hits or coalesced followers
+    public static final int STALE_IF_ERROR = TRACING + 65;
+
+    // Copies only requests that will really go upstream, and times the primary from here so cache hits,
+    // coalesced followers and load-shedding waits stay out of the comparison
+    public static final int MIRRORING = TRACING + 67;
+
+    // Only requests that will really go upstream (not cache hits or coalesced followers) take a permit
+    public static final int CONCURRENCY_LIMIT = TRACING + 70;
+
+    // Wraps the response NettyWriteResponseFilter writes the upstream body to
+    public static final int FAULT_THROTTLE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    // Right after ReactiveLoadBalancerClientFilter has picked the instance for an lb:// route
+    public static final int LOAD_BALANCER_FEEDBACK = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    // Inside the route's CircuitBreaker and right before the upstream call, so injected faults look like
+    // the service's own
+    public static final int FAULT_INJECTION = Ordered.LOWEST_PRECEDENCE - 3;
+
+    // After RouteToRequestUrlFilter and load balancing have resolved the upstream URL; hedged GETs are
+    // proxied here and never reach UpstreamSpanFilter or UpstreamRoutingFilter
+    public static final int HEDGING = Ordered.LOWEST_PRECEDENCE - 2;
+
+    public static final int UPSTREAM_SPAN = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private FilterOrder() {
+    }
+}
@@ -0,0 +1,410 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.config.HedgingProperties;
+import com.microservices.apigateway.hedging.HedgingPolicy;
+import com.microservices.apigateway.hedging.RouteHedger;
+import com.microservices.apigateway.loadbalancer.LoadBalancerRegistry;
+import com.microservices.apigateway.loadbalancer.P2CLoadBalancer;
+import com.microservices.apigateway.loadbalancer.UpstreamInstance;
+import com.microservices.apigateway.metrics.GatewayMetrics;
+import com.microservices.apigateway.tracing.Span;
+import com.microservices.apigateway.upstream.UpstreamHttpClients;
+import com.microservices.tracing.SpanCollector;
+import io.netty.buffer.ByteBuf;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged GETs for idempotent routes: when the primary upstream call is still out after the route's
+ * observed latency percentile, a second identical call is sent and whichever answers first is used;
+ * the other is cancelled. A 5xx only wins once the other attempt has failed as well. Hedged requests
+ * are proxied here with the service's pooled HttpClient instead of UpstreamRoutingFilter, because both
+ * attempts need their own response until one wins. Bodies up to max-body-bytes are buffered and race
+ * to completion; larger or unsized ones race on their headers and only the winner's body is streamed.
+ */
+@Component
+@Slf4j
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Set when the hedge won: TRUE if the primary had already failed (error or 5xx), FALSE if it was
+     * cancelled. LoadBalancerFeedbackFilter reports the primary's instance by it.
+     */
+    public static final String PRIMARY_FAILED_ATTR = HedgingFilter.class.getName() + ".primaryFailed";
+
+    /** Set with PRIMARY_FAILED_ATTR FALSE: how long the cancelled primary had been out when the hedge won. */
+    public static final String PRIMARY_ELAPSED_ATTR = HedgingFilter.class.getName() + ".primaryElapsed";
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    @Autowired
+    private HedgingPolicy hedgingPolicy;
+
+    @Autowired
+    private HedgingProperties hedgingProperties;
+
+    @Autowired
+    private UpstreamHttpClients upstreamHttpClients;
+
+    @Autowired
+    private HttpClientProperties httpClientProperties;
+
+    @Autowired
+    private ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    @Autowired
+    private LoadBalancerRegistry loadBalancerRegistry;
+
+    @Autowired
+    private SpanCollector spanCollector;
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || url == null || exchange.getRequest().getMethod() != HttpMethod.GET
+                || ServerWebExchangeUtils.isAlreadyRouted(exchange) || !url.getScheme().startsWith("http")) {
+            return chain.filter(exchange);
+        }
+        RouteHedger hedger = hedgingPolicy.forRoute(route);
+        if (hedger == null) {
+            return chain.filter(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        long delayNanos = hedger.delayNanos();
+        if (delayNanos == 0) {
+            // No latency estimate yet: proxy normally and learn from it
+            return chain.filter(exchange)
+                    .doOnSuccess(aVoid -> hedger.recordLatency(System.nanoTime() - startNanos));
+        }
+
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        HttpHeaders requestHeaders = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+
+        // A cancelled primary was at least this slow, which still belongs in the latency estimate
+        Race race = new Race();
+        Mono<Attempt> primary = race.enter(attempt(exchange, url, requestHeaders, false)
+                .doOnSuccess(attempt -> hedger.recordLatency(System.nanoTime() - startNanos))
+                .doOnError(e -> race.primaryFailed = true)
+                .doOnCancel(() -> hedger.recordLatency(System.nanoTime() - startNanos)));
+        Mono<Attempt> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                .filter(tick -> hedger.tryStartHedge())
+                .flatMap(tick -> race.enter(hedgeAttempt(exchange, url, requestHeaders)));
+
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(e -> Exceptions.unwrapMultiple(e.getCause() != null ? e.getCause() : e).get(0))
+                .doOnCancel(race::abandon)
+                .flatMap(winner -> {
+                    if (winner.hedge) {
+                        log.debug("Hedge won for {} {}", route.getId(), url.getPath());
+                        hedger.hedgeWon();
+                        exchange.getAttributes().put(PRIMARY_FAILED_ATTR, race.primaryFailed);
+                        exchange.getAttributes().put(PRIMARY_ELAPSED_ATTR, System.nanoTime() - startNanos);
+                    }
+                    gatewayMetrics.recordUpstream(route.getId(), System.nanoTime() - startNanos);
+                    return winner.writeTo(exchange.getResponse());
+                });
+    }
+
+    // On a load-balanced route the hedge goes to a different healthy instance than the primary, when there is one
+    private Mono<Attempt> hedgeAttempt(ServerWebExchange exchange, URI url, HttpHeaders requestHeaders) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !(chosen.getServer() instanceof UpstreamInstance primary)) {
+            return attempt(exchange, url, requestHeaders, true);
+        }
+        P2CLoadBalancer balancer = loadBalancerRegistry.balancer(primary.getServiceId());
+        UpstreamInstance other = balancer.chooseOther(primary);
+        if (other == null) {
+            return attempt(exchange, url, requestHeaders, true);
+        }
+
+        URI hedgeUrl = UriComponentsBuilder.fromUri(url)
+                .scheme(other.getScheme())
+                .host(other.getHost())
+                .port(other.getPort())
+                .build(true)
+                .toUri();
+        return Mono.defer(() -> {
+                    long startNanos = System.nanoTime();
+                    // Operators may cancel after the value has arrived, so only the first outcome counts
+                    AtomicBoolean finished = new AtomicBoolean();
+                    other.started();
+                    return attempt(exchange, hedgeUrl, requestHeaders, true)
+                            .doOnSuccess(attempt -> {
+                                if (finished.compareAndSet(false, true)) {
+                                    if (attempt.status >= 500) {
+                                        balancer.failed(other);
+                                    } else {
+                                        balancer.succeeded(other, System.nanoTime() - startNanos);
+                                    }
+                                }
+                            })
+                            .doOnError(e -> {
+                                if (finished.compareAndSet(false, true)) {
+                                    balancer.failed(other);
+                                }
+                            })
+                            .doOnCancel(() -> {
+                                if (finished.compareAndSet(false, true)) {
+                                    other.cancelled();
+                                }
+                            });
+                });
+    }
+
+    private Mono<Attempt> attempt(ServerWebExchange exchange, URI url, HttpHeaders requestHeaders, boolean hedge) {
+        Span server = exchange.getAttribute(TracingGlobalFilter.SERVER_SPAN_ATTR);
+        Span client = server != null
+                ? new Span(server.getTraceId(), server.getSpanId(), hedge ? "proxy-hedge" : "proxy", "CLIENT", server.isSampled())
+                : null;
+        if (client != null) {
+            client.tag("peer.host", url.getHost() + ":" + url.getPort());
+        }
+        boolean preserveHost = exchange.getAttributeOrDefault(ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE, false);
+        String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HttpClient httpClient = upstreamHttpClients.forRoute(route);
+        HttpClient http = httpClientProperties.getResponseTimeout() != null
+                ? httpClient.responseTimeout(httpClientProperties.getResponseTimeout())
+                : httpClient;
+        return http
+                .headers(headers -> {
+                    requestHeaders.forEach(headers::set);
+                    // Same as NettyRoutingFilter: Netty sets Host from the URI unless it is preserved
+                    headers.remove(HttpHeaders.HOST);
+                    if (preserveHost && host != null) {
+                        headers.set(HttpHeaders.HOST, host);
+                    }
+                    if (client != null) {
+                        headers.set(TracingGlobalFilter.TRACEPARENT, client.traceparent());
+                    }
+                })
+                .get()
+                .uri(url)
+                // The connection is ours until the body has been read (buffered) or the attempt disposed (streamed)
+                .responseConnection((response, connection) -> {
+                    Attempt attempt = received(exchange, response, connection, hedge);
+                    if (attempt.connection != null) {
+                        return Mono.just(attempt);
+                    }
+                    return connection.inbound().receive().aggregate().asByteArray()
+                            .defaultIfEmpty(EMPTY_BODY)
+                            .map(attempt::withBody);
+                })
+                .single()
+                .doOnError(e -> {
+                    if (client != null) {
+                        client.error(e);
+                    }
+                })
+                .doFinally(signal -> {
+                    if (client != null && client.isSampled()) {
+                        client.tag("hedge", String.valueOf(hedge))
+                                .tag("outcome", signal.toString());
+                        spanCollector.record(client.finish(serviceName));
+                    }
+                });
+    }
+
+    // Keeps hold of the connection only when the body is too large, or of unknown length, to buffer
+    private Attempt received(ServerWebExchange exchange, HttpClientResponse response, Connection connection,
+                             boolean hedge) {
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        response.responseHeaders().forEach(header -> upstreamHeaders.add(header.getKey(), header.getValue()));
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(HttpHeadersFilter.filter(headersFilters.getIfAvailable(), upstreamHeaders, exchange,
+                HttpHeadersFilter.Type.RESPONSE));
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        int status = response.status().code();
+        long contentLength = upstreamHeaders.getContentLength();
+        if (contentLength >= 0 && contentLength <= hedgingProperties.getMaxBodyBytes()) {
+            // The body is fully buffered and re-sent with its own Content-Length
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return new Attempt(status, headers, EMPTY_BODY, null, hedge);
+        }
+        return new Attempt(status, headers, null, connection, hedge);
+    }
+
+    /**
+     * One upstream answer: either a buffered body, or a connection whose body has not been read yet and
+     * is streamed to the client only if this attempt wins.
+     */
+    private static final class Attempt {
+
+        private final int status;
+
+        private final HttpHeaders headers;
+
+        private final byte[] body;
+
+        private final Connection connection;
+
+        private final boolean hedge;
+
+        private Attempt(int status, HttpHeaders headers, byte[] body, Connection connection, boolean hedge) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.connection = connection;
+            this.hedge = hedge;
+        }
+
+        private Attempt withBody(byte[] bytes) {
+            return new Attempt(status, headers, bytes, null, hedge);
+        }
+
+        private Mono<Void> writeTo(ServerHttpResponse response) {
+            if (connection == null) {
+                return new CachedResponse(status, headers, body, System.currentTimeMillis(), 0).writeTo(response);
+            }
+            // As NettyWriteResponseFilter does on the non-hedged path
+            response.setStatusCode(HttpStatusCode.valueOf(status));
+            response.getHeaders().putAll(headers);
+            return response.writeWith(connection.inbound().receive().retain().map(buffer -> wrap(buffer, response)))
+                    .doOnCancel(connection::dispose);
+        }
+
+        // Closes a losing attempt's connection without reading its body
+        private void dispose() {
+            if (connection != null) {
+                connection.dispose();
+            }
+        }
+
+        private static DataBuffer wrap(ByteBuf buffer, ServerHttpResponse response) {
+            DataBufferFactory bufferFactory = response.bufferFactory();
+            if (bufferFactory instanceof NettyDataBufferFactory nettyBufferFactory) {
+                return nettyBufferFactory.wrap(buffer);
+            }
+            try {
+                DataBuffer copy = bufferFactory.allocateBuffer(buffer.readableBytes());
+                copy.write(buffer.nioBuffer());
+                return copy;
+            } finally {
+                buffer.release();
+            }
+        }
+    }
+
+    /**
+     * Picks the winner between the primary and the hedge. An attempt that answers 5xx while the other is
+     * still out is held back instead of cancelling it, and is only used if the other fails too. Exactly
+     * one attempt is emitted; any other attempt that answered has its connection released.
+     */
+    private static final class Race {
+
+        // Attempts started and not yet answered or failed
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final AtomicReference<Attempt> held = new AtomicReference<>();
+
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        // Read once the hedge has won
+        private volatile boolean primaryFailed;
+
+        private Mono<Attempt> enter(Mono<Attempt> attempt) {
+            return Mono.defer(() -> {
+                pending.incrementAndGet();
+                return attempt.flatMap(this::answered).onErrorResume(this::failed);
+            });
+        }
+
+        private Mono<Attempt> answered(Attempt attempt) {
+            boolean last = pending.decrementAndGet() == 0;
+            if (attempt.status >= 500) {
+                if (!attempt.hedge) {
+                    primaryFailed = true;
+                }
+                if (!last) {
+                    hold(attempt);
+                    return Mono.empty();
+                }
+            }
+            return claim(attempt);
+        }
+
+        // The error only surfaces once no other attempt is out that could still answer
+        private Mono<Attempt> failed(Throwable error) {
+            if (pending.decrementAndGet() > 0) {
+                return Mono.empty();
+            }
+            Attempt fallback = held.getAndSet(null);
+            return fallback != null ? claim(fallback) : Mono.error(error);
+        }
+
+        private Mono<Attempt> claim(Attempt attempt) {
+            Attempt other = held.getAndSet(null);
+            if (other != null && other != attempt) {
+                other.dispose();
+            }
+            if (!decided.compareAndSet(false, true)) {
+                attempt.dispose();
+                return Mono.empty();
+            }
+            return Mono.just(attempt);
+        }
+
+        private void hold(Attempt attempt) {
+            Attempt previous = held.getAndSet(attempt);
+            if (previous != null) {
+                previous.dispose();
+            }
+        }
+
+        // The client went away before a winner was written
+        private void abandon() {
+            Attempt other = held.getAndSet(null);
+            if (other != null) {
+                other.dispose();
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.HEDGING;
+    }
+}
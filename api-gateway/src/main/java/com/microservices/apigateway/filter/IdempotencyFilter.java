@@ -0,0 +1,225 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.cache.CapturingResponse;
+import com.microservices.apigateway.idempotency.IdempotencyStore;
+import com.microservices.apigateway.idempotency.StoredResponse;
+import com.microservices.apigateway.security.VerifiedClaims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Honours the Idempotency-Key header on the configured routes (order creation, payment processing):
+ * the first request with a key goes to the service, duplicates arriving while it is in flight wait
+ * for its response, and retries after it completed get the stored response back with
+ * Idempotent-Replayed: true, without reaching the service. Keys are scoped to the authenticated user.
+ * The request body is buffered to digest it with the method and path; a key reused for a different
+ * request gets 422 rather than the first request's response.
+ */
+@Component
+@Slf4j
+public class IdempotencyFilter implements GlobalFilter, Ordered {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (route == null || !idempotencyStore.appliesTo(route.getId())
+                || method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+        String idempotencyKey = exchange.getRequest().getHeaders().getFirst(idempotencyStore.getHeader());
+        if (idempotencyKey == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        if (!idempotencyStore.isValidKey(idempotencyKey)) {
+            idempotencyStore.record(routeId, IdempotencyStore.Outcome.REJECTED);
+            return error(exchange, HttpStatus.BAD_REQUEST,
+                    idempotencyStore.getHeader() + " is blank or too long");
+        }
+        // Keys are only unique per client; without a user id two clients could replay each other's answers
+        VerifiedClaims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+        if (claims == null || claims.getUserId() == null) {
+            log.debug("Ignoring {} on anonymous request to {}", idempotencyStore.getHeader(), routeId);
+            return chain.filter(exchange);
+        }
+
+        String key = idempotencyStore.key(routeId, claims.getUserId(), idempotencyKey);
+        ServerHttpRequest request = exchange.getRequest();
+        return DataBufferUtils.join(request.getBody(), idempotencyStore.getMaxRequestBytes())
+                .map(IdempotencyFilter::toBytes)
+                .defaultIfEmpty(EMPTY_BODY)
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    idempotencyStore.record(routeId, IdempotencyStore.Outcome.REJECTED);
+                    return error(exchange, HttpStatus.PAYLOAD_TOO_LARGE, "Request body with "
+                            + idempotencyStore.getHeader() + " exceeds " + idempotencyStore.getMaxRequestBytes() + " bytes")
+                            .then(Mono.empty());
+                })
+                .flatMap(body -> {
+                    String requestDigest = idempotencyStore.requestDigest(method.name(), target(request), body);
+                    ServerWebExchange buffered = exchange.mutate()
+                            .request(withBody(request, body, exchange.getResponse().bufferFactory()))
+                            .build();
+                    return handle(buffered, chain, routeId, key, requestDigest);
+                });
+    }
+
+    private Mono<Void> handle(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, String key,
+                              String requestDigest) {
+        StoredResponse stored = idempotencyStore.get(key);
+        if (stored != null) {
+            return replay(exchange, routeId, stored, requestDigest);
+        }
+
+        IdempotencyStore.Flight flight = idempotencyStore.join(key, requestDigest);
+        if (flight.isLeader()) {
+            // The previous flight may have completed between the lookup above and the join
+            stored = idempotencyStore.get(key);
+            if (stored != null) {
+                flight.abandon();
+                return replay(exchange, routeId, stored, requestDigest);
+            }
+            idempotencyStore.record(routeId, IdempotencyStore.Outcome.FORWARDED);
+            return lead(exchange, chain, flight);
+        }
+        if (!flight.isFor(requestDigest)) {
+            return mismatch(exchange, routeId);
+        }
+
+        // Only the wait is bounded; once the first request failed without a final answer, this one
+        // starts over and may become the request that goes through
+        return flight.result()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .timeout(idempotencyStore.getMaxWait())
+                .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        return handle(exchange, chain, routeId, key, requestDigest).thenReturn(true);
+                    }
+                    idempotencyStore.record(routeId, IdempotencyStore.Outcome.WAITED);
+                    return replay(exchange, shared.get()).thenReturn(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("⏳ Request with {} on {} still in flight after {}", idempotencyStore.getHeader(),
+                            routeId, idempotencyStore.getMaxWait());
+                    idempotencyStore.record(routeId, IdempotencyStore.Outcome.CONFLICT);
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                    return error(exchange, HttpStatus.CONFLICT,
+                            "A request with this " + idempotencyStore.getHeader() + " is still being processed")
+                            .thenReturn(true);
+                }))
+                .then();
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, IdempotencyStore.Flight flight) {
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), idempotencyStore.getMaxBodyBytes(),
+                response -> idempotencyStore.isStorable(response.getStatusCode().value()),
+                new CapturingResponse.Listener() {
+                    @Override
+                    public void captured(int status, HttpHeaders headers, byte[] body) {
+                        flight.complete(new CachedResponse(status, headers, body,
+                                System.currentTimeMillis(), idempotencyStore.getTtlMillis()));
+                    }
+
+                    @Override
+                    public void abandoned() {
+                        flight.abandon();
+                    }
+                });
+
+        // Covers failures before any response was written
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> flight.abandon());
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, String routeId, StoredResponse stored, String requestDigest) {
+        if (!stored.answers(requestDigest)) {
+            return mismatch(exchange, routeId);
+        }
+        idempotencyStore.record(routeId, IdempotencyStore.Outcome.REPLAYED);
+        return replay(exchange, stored.getResponse());
+    }
+
+    private Mono<Void> mismatch(ServerWebExchange exchange, String routeId) {
+        log.warn("❌ {} on {} reused for a different request", idempotencyStore.getHeader(), routeId);
+        idempotencyStore.record(routeId, IdempotencyStore.Outcome.MISMATCHED);
+        return error(exchange, HttpStatus.UNPROCESSABLE_ENTITY,
+                "This " + idempotencyStore.getHeader() + " was already used for a different request");
+    }
+
+    private static String target(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query != null ? request.getPath().value() + '?' + query : request.getPath().value();
+    }
+
+    // The body was consumed for the digest; the service gets the same bytes
+    private static ServerHttpRequest withBody(ServerHttpRequest request, byte[] body, DataBufferFactory bufferFactory) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body.length > 0 ? Flux.defer(() -> Flux.just(bufferFactory.wrap(body))) : Flux.empty();
+            }
+        };
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, CachedResponse stored) {
+        exchange.getResponse().getHeaders().set(REPLAYED_HEADER, "true");
+        return stored.writeTo(exchange.getResponse());
+    }
+
+    private Mono<Void> error(ServerWebExchange exchange, HttpStatus status, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        String body = "{\"error\":\"" + status.getReasonPhrase() + "\",\"message\":\"" + message + "\",\"status\":"
+                + status.value() + "}";
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.IDEMPOTENCY;
+    }
+}
@@ -1,6 +1,12 @@
 package com.microservices.apigateway.filter;
 
-import com.microservices.apigateway.security.JwtUtils;
+import com.microservices.apigateway.batch.BatchContext;
+import com.microservices.apigateway.metrics.GatewayMetrics;
+import com.microservices.apigateway.security.RoutePolicy;
+import com.microservices.apigateway.security.RoutePolicyEngine;
+import com.microservices.apigateway.security.TokenRevocationList;
+import com.microservices.apigateway.security.VerifiedClaims;
+import com.microservices.apigateway.security.VerifiedTokenCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -14,42 +20,53 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
-
-import java.util.Arrays;
-import java.util.List;
+import reactor.util.context.ContextView;
 
 @Component
 @Slf4j
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     
+    // Verified claims for later filters (rate limiting), so they don't trust client-supplied X-User-* headers
+    public static final String CLAIMS_ATTR = JwtAuthenticationFilter.class.getName() + ".claims";
+    
     @Autowired
-    private JwtUtils jwtUtils;
+    private VerifiedTokenCache verifiedTokenCache;
     
-    // Public endpoints that don't require authentication
-    private static final List<String> PUBLIC_ENDPOINTS = Arrays.asList(
-            "/api/users/register",
-            "/api/users/login",
-            "/health",
-            "/info",
-            "/actuator"
-    );
+    @Autowired
+    private RoutePolicyEngine routePolicyEngine;
     
-    // Admin-only endpoints
-    private static final List<String> ADMIN_ENDPOINTS = Arrays.asList(
-            "/api/users/admin",
-            "/api/products/admin"
-    );
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
     
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Deferred to read the batch context (see BatchContext) of /api/batch sub-requests
+        return Mono.deferContextual(context -> {
+            // chain.filter() only assembles the rest of the chain, so this measures this filter's own work
+            long startNanos = System.nanoTime();
+            try {
+                return authenticate(exchange, chain, context);
+            } finally {
+                gatewayMetrics.recordAuth(System.nanoTime() - startNanos);
+            }
+        });
+    }
+    
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain, ContextView context) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
         String method = request.getMethod().name();
         
         log.debug("🔐 JWT Filter processing: {} {}", method, path);
         
+        // One trie lookup decides public / authenticated / admin / owner for this path
+        RoutePolicy policy = routePolicyEngine.match(path);
+        
         // Allow public endpoints
-        if (isPublicEndpoint(path)) {
+        if (policy.isPublic()) {
             log.debug("✅ Public endpoint, allowing access: {}", path);
             return chain.filter(exchange);
         }
@@ -62,35 +79,44 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             return handleUnauthorized(exchange, "Missing Authorization header");
         }
         
-        // Validate JWT token
-        if (!jwtUtils.validateJwtToken(token)) {
+        // Verify the token once (or reuse the cached result) and extract all claims from the same parse;
+        // batch sub-requests reuse the claims the batch was verified with
+        VerifiedClaims claims = BatchContext.claims(context, token);
+        if (claims == null) {
+            claims = verifiedTokenCache.verify(token);
+        }
+        if (claims == null) {
             log.warn("❌ Invalid JWT token for endpoint: {}", path);
             return handleUnauthorized(exchange, "Invalid JWT token");
         }
         
-        // Extract user information from token
-        String email = jwtUtils.getEmailFromJwtToken(token);
-        String userId = jwtUtils.getUserIdFromJwtToken(token);
-        String role = jwtUtils.getRoleFromJwtToken(token);
-        
-        if (email == null || userId == null || role == null) {
+        if (!claims.isComplete()) {
             log.warn("❌ Invalid JWT token claims for endpoint: {}", path);
             return handleUnauthorized(exchange, "Invalid JWT token claims");
         }
         
-        // Check admin-only endpoints
-        if (isAdminEndpoint(path) && !"ADMIN".equals(role)) {
-            log.warn("❌ User {} attempted to access admin endpoint: {}", email, path);
-            return handleForbidden(exchange, "Admin access required");
+        // In-memory denylist synced from user-service; no network call on this path
+        if (tokenRevocationList.isRevoked(claims)) {
+            log.warn("❌ Revoked JWT token for user {} on endpoint: {}", claims.getEmail(), path);
+            return handleUnauthorized(exchange, "Token has been revoked");
         }
         
-        // Check user-specific endpoints (users can only access their own data)
-        if (isUserSpecificEndpoint(path, method) && !hasUserAccess(path, userId, role)) {
+        String email = claims.getEmail();
+        String userId = claims.getUserId();
+        String role = claims.getRole();
+        
+        // Check admin-only and user-specific endpoints (users can only access their own data)
+        if (!policy.permits(path, claims)) {
+            if (policy.getAccess() == RoutePolicy.Access.ADMIN) {
+                log.warn("❌ User {} attempted to access admin endpoint: {}", email, path);
+                return handleForbidden(exchange, "Admin access required");
+            }
             log.warn("❌ User {} attempted to access unauthorized resource: {}", email, path);
             return handleForbidden(exchange, "Access denied to this resource");
         }
         
         log.debug("✅ JWT authentication successful for user: {} ({})", email, role);
+        exchange.getAttributes().put(CLAIMS_ATTR, claims);
         
         // Add user information to headers for downstream services
         ServerHttpRequest mutatedRequest = request.mutate()
@@ -110,47 +136,6 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         return null;
     }
     
-    private boolean isPublicEndpoint(String path) {
-        return PUBLIC_ENDPOINTS.stream().anyMatch(path::startsWith);
-    }
-    
-    private boolean isAdminEndpoint(String path) {
-        return ADMIN_ENDPOINTS.stream().anyMatch(path::contains);
-    }
-    
-    private boolean isUserSpecificEndpoint(String path, String method) {
-        // Check if the endpoint is user-specific (e.g., /api/users/profile, /api/orders/user/{userId})
-        return path.startsWith("/api/users/profile") || 
-               path.matches("/api/users/\\d+") || 
-               path.matches("/api/orders/user/\\d+");
-    }
-    
-    private boolean hasUserAccess(String path, String userId, String role) {
-        // Admin can access everything
-        if ("ADMIN".equals(role)) {
-            return true;
-        }
-        
-        // Check if user is accessing their own profile
-        if (path.startsWith("/api/users/profile")) {
-            return true; // Profile endpoint is for the authenticated user
-        }
-        
-        // Check if user is accessing their own data by ID
-        if (path.matches("/api/users/\\d+")) {
-            String pathUserId = path.substring(path.lastIndexOf('/') + 1);
-            return userId.equals(pathUserId);
-        }
-        
-        // Check if user is accessing their own orders
-        if (path.matches("/api/orders/user/\\d+")) {
-            String pathUserId = path.substring(path.lastIndexOf('/') + 1);
-            return userId.equals(pathUserId);
-        }
-        
-        return true; // Allow other endpoints for now
-    }
-    
     private Mono<Void> handleUnauthorized(ServerWebExchange exchange, String message) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(HttpStatus.UNAUTHORIZED);
@@ -171,6 +156,6 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     
     @Override
     public int getOrder() {
-        return Ordered.HIGHEST_PRECEDENCE + 1; // Run after logging filter
+        return FilterOrder.AUTHENTICATION;
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.loadbalancer.LoadBalancerRegistry;
+import com.microservices.apigateway.loadbalancer.P2CLoadBalancer;
+import com.microservices.apigateway.loadbalancer.UpstreamInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Reports each load-balanced call back to its P2CLoadBalancer: in-flight count while it runs, then its
+ * latency on success, or a failure (error or 5xx) that counts towards ejecting the instance. A primary
+ * that lost to a hedge is reported by its own outcome, not the hedge's: a failure if it had failed, else
+ * the time it had been out as a latency sample. Only a client cancel says nothing about the instance.
+ */
+@Component
+public class LoadBalancerFeedbackFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private LoadBalancerRegistry loadBalancerRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !(chosen.getServer() instanceof UpstreamInstance instance)) {
+            return chain.filter(exchange);
+        }
+
+        P2CLoadBalancer balancer = loadBalancerRegistry.balancer(instance.getServiceId());
+        long startNanos = System.nanoTime();
+        instance.started();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // When HedgingFilter's hedge won, the response is not this instance's
+                    Boolean primaryFailed = exchange.getAttribute(HedgingFilter.PRIMARY_FAILED_ATTR);
+                    if (Boolean.TRUE.equals(primaryFailed)) {
+                        balancer.failed(instance);
+                        return;
+                    }
+                    if (Boolean.FALSE.equals(primaryFailed)) {
+                        // Measured when the hedge won, before its body was written
+                        Long elapsedNanos = exchange.getAttribute(HedgingFilter.PRIMARY_ELAPSED_ATTR);
+                        balancer.slow(instance, elapsedNanos != null ? elapsedNanos : System.nanoTime() - startNanos);
+                        return;
+                    }
+                    if (signal == SignalType.CANCEL) {
+                        instance.cancelled();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                        balancer.failed(instance);
+                    } else {
+                        balancer.succeeded(instance, System.nanoTime() - startNanos);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.LOAD_BALANCER_FEEDBACK;
+    }
+}
@@ -0,0 +1,61 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.security.VerifiedClaims;
+import com.microservices.apigateway.shedding.LoadShedder;
+import com.microservices.apigateway.shedding.Priority;
+import com.microservices.apigateway.shedding.PriorityClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Classifies every routed request by caller priority and admits it through LoadShedder; shed requests
+ * get an immediate 503 with Retry-After instead of adding to the queueing of paying traffic.
+ */
+@Component
+@Slf4j
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private LoadShedder loadShedder;
+
+    @Autowired
+    private PriorityClassifier priorityClassifier;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!loadShedder.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedClaims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+        Priority priority = priorityClassifier.classify(exchange.getRequest().getURI().getPath(), claims);
+        return loadShedder.admit(priority)
+                .flatMap(admitted -> admitted
+                        ? chain.filter(exchange).doFinally(signal -> loadShedder.release())
+                        : handleShed(exchange, priority));
+    }
+
+    private Mono<Void> handleShed(ServerWebExchange exchange, Priority priority) {
+        log.debug("🚦 Shed {} request to {}", priority, exchange.getRequest().getURI().getPath());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(loadShedder.getRetryAfterSeconds()));
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        String body = "{\"error\":\"Service Unavailable\",\"message\":\"Gateway is overloaded, retry later\",\"status\":503}";
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.LOAD_SHEDDING;
+    }
+}
@@ -1,74 +1,84 @@
 package com.microservices.apigateway.filter;
 
+import com.microservices.apigateway.logging.AccessLogger;
+import com.microservices.apigateway.tracing.Span;
+import com.microservices.tracing.TraceParent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 @Slf4j
 public class LoggingGlobalFilter implements GlobalFilter, Ordered {
 
+    // nginx's "client closed request", logged when the client goes away before the response completes
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+
+    @Autowired
+    private AccessLogger accessLogger;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String requestId = UUID.randomUUID().toString();
-        
-        // Log request details
-        log.info("🔵 [REQUEST] {} | {} {} | Headers: {} | Remote Address: {} | Request ID: {}", 
-                LocalDateTime.now(),
-                request.getMethod(),
-                request.getURI(),
-                request.getHeaders().entrySet().stream()
-                    .filter(entry -> !entry.getKey().toLowerCase().contains("authorization"))
-                    .map(entry -> entry.getKey() + "=" + entry.getValue())
-                    .toList(),
-                request.getRemoteAddress(),
-                requestId);
-        
+        // Reuse the trace id so access-log lines and spans correlate, and downstream services see one id;
+        // without a span, a fresh trace id from ThreadLocalRandom avoids UUID's contended SecureRandom
+        Span span = exchange.getAttribute(TracingGlobalFilter.SERVER_SPAN_ATTR);
+        String requestId = span != null ? span.getTraceId() : TraceParent.newTraceId();
+        String method = request.getMethod().name();
+        String path = request.getPath().value();
+
+        log.debug("🔵 [REQUEST] {} {} | Request ID: {}", method, path, requestId);
+
         // Add request ID to headers for downstream services
         ServerHttpRequest mutatedRequest = request.mutate()
                 .header("X-Request-ID", requestId)
                 .build();
-        
+
         ServerWebExchange mutatedExchange = exchange.mutate()
                 .request(mutatedRequest)
                 .build();
-        
-        long startTime = System.currentTimeMillis();
-        
+
+        // Monotonic clock for durations; formatting and file output happen on the access-log writer thread
+        long startNanos = System.nanoTime();
+
+        // doFinally so cancelled requests are logged too, not only completed and failed ones
+        AtomicReference<Throwable> error = new AtomicReference<>();
         return chain.filter(mutatedExchange)
-                .doOnSuccess(aVoid -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.info("🟢 [RESPONSE] {} | {} {} | Status: {} | Duration: {}ms | Request ID: {}", 
-                            LocalDateTime.now(),
-                            request.getMethod(),
-                            request.getURI(),
-                            exchange.getResponse().getStatusCode(),
-                            duration,
-                            requestId);
-                })
-                .doOnError(throwable -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.error("🔴 [ERROR] {} | {} {} | Error: {} | Duration: {}ms | Request ID: {}", 
-                            LocalDateTime.now(),
-                            request.getMethod(),
-                            request.getURI(),
-                            throwable.getMessage(),
-                            duration,
-                            requestId);
-                });
+                .doOnError(error::set)
+                .doFinally(signal -> accessLogger.record(method, path, statusOf(exchange, signal), startNanos,
+                        routeIdOf(exchange), requestId, request.getRemoteAddress(), error.get()));
+    }
+
+    private static int statusOf(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return CLIENT_CLOSED_REQUEST;
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return 500;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? status.value() : 200;
+    }
+
+    private static String routeIdOf(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : null;
     }
 
     @Override
     public int getOrder() {
-        return Ordered.HIGHEST_PRECEDENCE;
+        return FilterOrder.ACCESS_LOG;
     }
-}
\ No newline at end of file
+}
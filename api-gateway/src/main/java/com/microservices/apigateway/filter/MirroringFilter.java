@@ -0,0 +1,59 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.config.MirroringProperties;
+import com.microservices.apigateway.mirror.MirrorComparison;
+import com.microservices.apigateway.mirror.TrafficMirror;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Copies a sample of a route's requests to its shadow upstream (see TrafficMirror) and records how
+ * long the primary took, so the two can be compared. The copy is sent before the primary request goes
+ * on and nothing here ever waits for it.
+ */
+@Component
+public class MirroringFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private TrafficMirror trafficMirror;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        MirroringProperties.Route mirror = trafficMirror.sample(routeId, exchange.getRequest());
+        if (mirror == null) {
+            return chain.filter(exchange);
+        }
+        MirrorComparison.Sample sample = trafficMirror.mirror(routeId, mirror, exchange.getRequest());
+        if (sample == null) {
+            return chain.filter(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // A client that went away says nothing about the primary's latency
+                    if (signal == SignalType.CANCEL) {
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    trafficMirror.finishPrimary(routeId, sample, status != null ? status.value() : 0,
+                            System.nanoTime() - startNanos);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.MIRRORING;
+    }
+}
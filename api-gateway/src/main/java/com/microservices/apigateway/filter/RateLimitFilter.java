@@ -0,0 +1,83 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.config.RateLimitProperties;
+import com.microservices.apigateway.ratelimit.RateLimiter;
+import com.microservices.apigateway.ratelimit.TokenBucketStore;
+import com.microservices.apigateway.security.VerifiedClaims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies per-route token-bucket limits and reports them with the IETF RateLimit-* header fields;
+ * rejected requests get 429 with Retry-After.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RateLimitProperties.Limit limit = route != null ? rateLimiter.limitFor(route.getId()) : null;
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedClaims claims = exchange.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTR);
+        long result = rateLimiter.tryAcquire(route.getId(), limit, claims, exchange.getRequest().getRemoteAddress());
+
+        long capacity = limit.getCapacity();
+        long rate = limit.getReplenishRate();
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set("RateLimit-Limit", String.valueOf(capacity));
+        headers.set("RateLimit-Policy", capacity + ";w=" + Math.max(1, capacity / rate));
+
+        if (result >= 0) {
+            // Seconds until the bucket is full again
+            long missingMillis = capacity * TokenBucketStore.MILLIS_PER_TOKEN - result;
+            headers.set("RateLimit-Remaining", String.valueOf(result / TokenBucketStore.MILLIS_PER_TOKEN));
+            headers.set("RateLimit-Reset", String.valueOf(ceilSeconds(missingMillis / rate)));
+            return chain.filter(exchange);
+        }
+
+        long retryAfter = ceilSeconds(-result);
+        log.warn("⛔ Rate limit exceeded on {} for {}", route.getId(),
+                claims != null ? "user " + claims.getUserId() : exchange.getRequest().getRemoteAddress());
+        headers.set("RateLimit-Remaining", "0");
+        headers.set("RateLimit-Reset", String.valueOf(retryAfter));
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        return handleTooManyRequests(exchange);
+    }
+
+    private Mono<Void> handleTooManyRequests(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+
+        String body = "{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded\",\"status\":429}";
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+    }
+
+    private static long ceilSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.RATE_LIMIT;
+    }
+}
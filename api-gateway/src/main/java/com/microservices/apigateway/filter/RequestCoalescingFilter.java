@@ -0,0 +1,86 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.cache.CapturingResponse;
+import com.microservices.apigateway.coalescing.RequestCoalescer;
+import com.microservices.apigateway.config.CoalescingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Collapses concurrent identical GET/HEAD requests on the configured routes into one upstream call;
+ * the leader's buffered response is replayed to every request that arrived while it was in flight.
+ */
+@Component
+@Slf4j
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        CoalescingProperties.KeyRule rule = route != null ? requestCoalescer.ruleFor(route.getId()) : null;
+        if (rule == null || (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD)) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        RequestCoalescer.Flight flight = requestCoalescer.join(requestCoalescer.key(request, rule));
+        if (flight.isLeader()) {
+            requestCoalescer.record(routeId, RequestCoalescer.Role.LEADER);
+            return lead(exchange, chain, flight);
+        }
+
+        return flight.result()
+                .timeout(requestCoalescer.getMaxWait(), Mono.empty())
+                .flatMap(shared -> {
+                    requestCoalescer.record(routeId, RequestCoalescer.Role.FOLLOWER);
+                    return shared.writeTo(exchange.getResponse()).thenReturn(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.debug("Coalesced request for {} went upstream on its own", request.getPath());
+                    requestCoalescer.record(routeId, RequestCoalescer.Role.BYPASS);
+                    return chain.filter(exchange).thenReturn(true);
+                }))
+                .then();
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, RequestCoalescer.Flight flight) {
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), requestCoalescer.getMaxBodyBytes(),
+                response -> true,
+                new CapturingResponse.Listener() {
+                    @Override
+                    public void captured(int status, HttpHeaders headers, byte[] body) {
+                        flight.complete(new CachedResponse(status, headers, body, System.currentTimeMillis(), 0));
+                    }
+
+                    @Override
+                    public void abandoned() {
+                        flight.abandon();
+                    }
+                });
+
+        // Covers failures before any response was written
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> flight.abandon());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.COALESCING;
+    }
+}
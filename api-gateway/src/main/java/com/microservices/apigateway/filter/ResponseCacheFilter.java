@@ -0,0 +1,108 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.cache.CapturingResponse;
+import com.microservices.apigateway.cache.ResponseCache;
+import com.microservices.apigateway.compression.CompressingResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * Serves cached GET responses for the configured routes straight from gateway memory; on a miss the
+ * upstream body is copied as it streams to the client and stored when it completes.
+ * Successful writes to a cached route drop the entries under that path and its collection's list entries.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !responseCache.isCacheable(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return invalidateOnSuccess(exchange, chain);
+        }
+
+        String requestCacheControl = request.getHeaders().getCacheControl();
+        if (requestCacheControl != null && requestCacheControl.toLowerCase(Locale.ROOT).contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        String key = responseCache.key(request);
+        boolean revalidate = requestCacheControl != null && requestCacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+        CachedResponse cached = revalidate ? null : responseCache.get(key);
+        if (cached != null) {
+            log.debug("🟢 Cache hit: {}", key);
+            return writeCached(exchange.getResponse(), cached);
+        }
+
+        exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        long generation = responseCache.generation();
+        ServerHttpResponse capturing = new CapturingResponse(exchange.getResponse(), responseCache.getMaxBodyBytes(),
+                response -> response.getStatusCode().value() == 200 && responseCache.ttlMillis(response.getHeaders()) > 0,
+                new CapturingResponse.Listener() {
+                    @Override
+                    public void captured(int status, HttpHeaders headers, byte[] body) {
+                        responseCache.store(key, new CachedResponse(status, headers, body,
+                                System.currentTimeMillis(), responseCache.ttlMillis(headers)), generation);
+                    }
+
+                    @Override
+                    public void abandoned() {
+                    }
+                });
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> invalidateOnSuccess(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange)
+                .doOnSuccess(aVoid -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        int purged = responseCache.purgeWrite(exchange.getRequest().getPath().value());
+                        log.debug("Purged {} cached responses after {} {}", purged,
+                                exchange.getRequest().getMethod(), exchange.getRequest().getPath());
+                    }
+                });
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        // Compressed once per entry through the precompressed body cache, not on every hit
+        if (response instanceof CompressingResponse compressing) {
+            return compressing.writeCached(cached);
+        }
+        return cached.writeTo(response);
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.RESPONSE_CACHE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.metrics.GatewayMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Records end-to-end latency per route and status class, including requests rejected by later filters
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startNanos = System.nanoTime();
+
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    int code = signal == SignalType.ON_ERROR ? 500 : status != null ? status.value() : 0;
+                    gatewayMetrics.recordRequest(route != null ? route.getId() : null, code,
+                            System.nanoTime() - startNanos);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.ROUTE_METRICS;
+    }
+}
@@ -0,0 +1,68 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.cache.CapturingResponse;
+import com.microservices.apigateway.cache.ResponseCache;
+import com.microservices.apigateway.cache.StaleResponseStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the last successful GET response on opted-in routes (see StaleResponseStore) and leaves the
+ * request's store key in an exchange attribute, which survives the circuit breaker's forward to
+ * /fallback; FallbackController serves the stored response from there instead of a 503.
+ */
+@Component
+public class StaleIfErrorFilter implements GlobalFilter, Ordered {
+
+    public static final String STALE_KEY_ATTR = StaleIfErrorFilter.class.getName() + ".key";
+
+    public static final String STALE_HEADER = "X-Stale";
+
+    @Autowired
+    private StaleResponseStore staleResponseStore;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        long maxStaleMillis = staleResponseStore.maxStaleMillis(route != null ? route.getId() : null);
+        if (maxStaleMillis == 0 || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String key = responseCache.key(exchange.getRequest());
+        exchange.getAttributes().put(STALE_KEY_ATTR, key);
+        // A stale answer from the fallback passes back through here and must not be stored as a fresh one
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), staleResponseStore.getMaxBodyBytes(),
+                response -> response.getStatusCode().value() == 200 && !response.getHeaders().containsKey(STALE_HEADER),
+                new CapturingResponse.Listener() {
+                    @Override
+                    public void captured(int status, HttpHeaders headers, byte[] body) {
+                        staleResponseStore.store(key, new CachedResponse(status, headers, body,
+                                System.currentTimeMillis(), maxStaleMillis));
+                    }
+
+                    @Override
+                    public void abandoned() {
+                    }
+                });
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.STALE_IF_ERROR;
+    }
+}
@@ -0,0 +1,80 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.tracing.Span;
+import com.microservices.tracing.SpanCollector;
+import com.microservices.tracing.TraceParent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Creates or continues the W3C trace for each request and records the gateway's server span
+@Component
+@Slf4j
+public class TracingGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    public static final String SERVER_SPAN_ATTR = TracingGlobalFilter.class.getName() + ".serverSpan";
+
+    @Autowired
+    private SpanCollector spanCollector;
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    @Value("${tracing.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        TraceParent incoming = TraceParent.parse(request.getHeaders().getFirst(TRACEPARENT));
+
+        Span span = incoming != null
+                ? new Span(incoming.getTraceId(), incoming.getParentId(), "gateway", "SERVER", incoming.isSampled())
+                : new Span(TraceParent.newTraceId(), null, "gateway", "SERVER", isSampled());
+        span.tag("http.method", request.getMethod().name())
+                .tag("http.path", request.getPath().value());
+
+        exchange.getAttributes().put(SERVER_SPAN_ATTR, span);
+        // Set just before commit so it replaces any traceparent copied from the upstream response
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set(TRACEPARENT, span.traceparent());
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doOnError(span::error)
+                .doFinally(signal -> {
+                    if (!span.isSampled()) {
+                        return;
+                    }
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    span.tag("gateway.route", route != null ? route.getId() : null)
+                            .tag("http.status", status != null ? String.valueOf(status.value()) : null);
+                    spanCollector.record(span.finish(serviceName));
+                });
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.TRACING;
+    }
+}
@@ -0,0 +1,44 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.upstream.UpstreamHttpClients;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * NettyRoutingFilter that sends each request through its service's pooled HttpClient (see
+ * UpstreamHttpClients) instead of the single shared gateway client. It replaces the stock filter, which
+ * is switched off with spring.cloud.gateway.global-filter.netty-routing.enabled=false.
+ */
+@Component
+public class UpstreamRoutingFilter extends NettyRoutingFilter {
+
+    private final UpstreamHttpClients upstreamHttpClients;
+
+    public UpstreamRoutingFilter(UpstreamHttpClients upstreamHttpClients,
+                                 ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                 HttpClientProperties properties) {
+        super(upstreamHttpClients.defaultClient(), headersFilters, properties);
+        this.upstreamHttpClients = upstreamHttpClients;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient httpClient = upstreamHttpClients.forRoute(route);
+        // Same per-route connect-timeout metadata as the stock filter
+        Object connectTimeout = route.getMetadata().get(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            return httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return httpClient;
+    }
+}
@@ -0,0 +1,75 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.metrics.GatewayMetrics;
+import com.microservices.apigateway.tracing.Span;
+import com.microservices.tracing.SpanCollector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Runs immediately before the Netty routing filter and records the HTTP hop to the upstream as a
+ * CLIENT span. Its span id is sent downstream as the traceparent parent, so service spans nest under it.
+ * The same hop feeds the per-route upstream wait timer.
+ */
+@Component
+public class UpstreamSpanFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_START_ATTR = UpstreamSpanFilter.class.getName() + ".startNanos";
+
+    @Autowired
+    private SpanCollector spanCollector;
+
+    @Autowired
+    private GatewayMetrics gatewayMetrics;
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Span server = exchange.getAttribute(TracingGlobalFilter.SERVER_SPAN_ATTR);
+        URI upstream = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (server == null || upstream == null || !upstream.getScheme().startsWith("http")) {
+            return chain.filter(exchange);
+        }
+
+        Span client = new Span(server.getTraceId(), server.getSpanId(), "proxy", "CLIENT", server.isSampled());
+        client.tag("peer.host", upstream.getHost() + ":" + upstream.getPort());
+        exchange.getAttributes().put(UPSTREAM_START_ATTR, client.getStartNanos());
+
+        ServerWebExchange traced = exchange.mutate()
+                .request(exchange.getRequest().mutate()
+                        .headers(headers -> headers.set(TracingGlobalFilter.TRACEPARENT, client.traceparent()))
+                        .build())
+                .build();
+
+        return chain.filter(traced)
+                .doOnError(client::error)
+                .doFinally(signal -> {
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    gatewayMetrics.recordUpstream(route != null ? route.getId() : null,
+                            System.nanoTime() - client.getStartNanos());
+                    if (client.isSampled()) {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        client.tag("http.status", status != null ? String.valueOf(status.value()) : null);
+                        spanCollector.record(client.finish(serviceName));
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.UPSTREAM_SPAN;
+    }
+}
@@ -0,0 +1,196 @@
+package com.microservices.apigateway.health;
+
+import com.microservices.apigateway.config.HealthProbeProperties;
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import com.microservices.apigateway.loadbalancer.LoadBalancerRegistry;
+import com.microservices.apigateway.loadbalancer.UpstreamInstance;
+import com.microservices.apigateway.upstream.UpstreamHttpClients;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes every configured instance's health endpoint on a jittered timer, on Reactor's timer and the
+ * upstream event loops, so no thread ever waits on a probe. A failing instance is probed with
+ * exponential backoff. After unhealthy-threshold failed probes it is taken out of rotation
+ * (UpstreamInstance.probedDown), so P2CLoadBalancer skips it before any user request fails there;
+ * healthy-threshold good probes bring it back through slow start.
+ * <p>
+ * Each instance's latest result is an immutable InstanceHealth in a volatile field, so snapshot()
+ * never locks.
+ */
+@Component
+@Slf4j
+public class HealthProber {
+
+    private final HealthProbeProperties properties;
+
+    private final UpstreamHttpClients upstreamHttpClients;
+
+    // Service id -> its instances' probe targets, fixed at startup
+    private final Map<String, List<Target>> targets = new LinkedHashMap<>();
+
+    private volatile boolean running;
+
+    public HealthProber(HealthProbeProperties properties, LoadBalancerProperties loadBalancerProperties,
+                        LoadBalancerRegistry loadBalancerRegistry, UpstreamHttpClients upstreamHttpClients,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.upstreamHttpClients = upstreamHttpClients;
+        for (String serviceId : loadBalancerProperties.getServices().keySet()) {
+            List<Target> serviceTargets = Arrays.stream(loadBalancerRegistry.balancer(serviceId).instances())
+                    .map(instance -> new Target(instance, meterRegistry))
+                    .toList();
+            targets.put(serviceId, serviceTargets);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Active health probing disabled");
+            return;
+        }
+        running = true;
+        long intervalNanos = properties.getInterval().toNanos();
+        // Spread the first round over one interval
+        targets.values().forEach(serviceTargets -> serviceTargets.forEach(target ->
+                schedule(target, ThreadLocalRandom.current().nextLong(Math.max(1, intervalNanos)))));
+        log.info("🩺 Probing {} every {} ({}% jitter)", properties.getPath(), properties.getInterval(),
+                Math.round(properties.getJitter() * 100));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        targets.values().forEach(serviceTargets -> serviceTargets.forEach(target -> {
+            Disposable pending = target.pending;
+            if (pending != null) {
+                pending.dispose();
+            }
+        }));
+    }
+
+    /** Latest probe result of every instance, by service id. */
+    public Map<String, List<InstanceHealth>> snapshot() {
+        Map<String, List<InstanceHealth>> snapshot = new LinkedHashMap<>();
+        targets.forEach((serviceId, serviceTargets) -> {
+            List<InstanceHealth> instances = new ArrayList<>(serviceTargets.size());
+            serviceTargets.forEach(target -> instances.add(target.health));
+            snapshot.put(serviceId, instances);
+        });
+        return snapshot;
+    }
+
+    private void schedule(Target target, long delayNanos) {
+        if (!running) {
+            return;
+        }
+        target.pending = Mono.delay(Duration.ofNanos(delayNanos))
+                .then(probe(target))
+                .subscribe(health -> {
+                    target.health = health;
+                    schedule(target, nextDelayNanos(target));
+                });
+    }
+
+    private Mono<InstanceHealth> probe(Target target) {
+        HttpClient client = upstreamHttpClients.forService(target.instance.getServiceId());
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return client.get()
+                    .uri(target.uri)
+                    .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                    .timeout(properties.getTimeout())
+                    .map(status -> record(target, status, null, System.nanoTime() - startNanos))
+                    .onErrorResume(e -> Mono.just(record(target, 0, e, System.nanoTime() - startNanos)));
+        });
+    }
+
+    // Runs on one probe's completion at a time per target, so the counters need no synchronization
+    private InstanceHealth record(Target target, int status, Throwable error, long latencyNanos) {
+        target.latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        UpstreamInstance instance = target.instance;
+        if (status >= 200 && status < 300) {
+            target.failures = 0;
+            target.successes++;
+            if (!instance.isProbedHealthy() && target.successes >= properties.getHealthyThreshold()) {
+                instance.probedUp();
+                log.info("💚 {} passed {} health probes, back in rotation", instance, target.successes);
+            }
+        } else {
+            target.successes = 0;
+            target.failures++;
+            if (instance.isProbedHealthy() && target.failures >= properties.getUnhealthyThreshold()) {
+                instance.probedDown();
+                log.warn("💔 {} failed {} health probes, out of rotation: {}", instance, target.failures,
+                        error != null ? error.toString() : "HTTP " + status);
+            }
+        }
+        return new InstanceHealth(instance.getInstanceId(),
+                instance.isProbedHealthy() ? InstanceHealth.Status.UP : InstanceHealth.Status.DOWN,
+                status, TimeUnit.NANOSECONDS.toMillis(latencyNanos), Instant.now(), target.failures,
+                error != null ? error.toString() : null);
+    }
+
+    private long nextDelayNanos(Target target) {
+        double delay = properties.getInterval().toNanos();
+        if (target.failures > 0) {
+            delay = Math.min(delay * Math.pow(2, Math.min(target.failures - 1, 30)),
+                    properties.getMaxBackoff().toNanos());
+        }
+        double jitter = properties.getJitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(1, (long) (delay * (1 + jitter)));
+    }
+
+    private final class Target {
+
+        private final UpstreamInstance instance;
+
+        private final URI uri;
+
+        private final Timer latency;
+
+        private volatile InstanceHealth health;
+
+        private volatile Disposable pending;
+
+        private int successes;
+
+        private int failures;
+
+        private Target(UpstreamInstance instance, MeterRegistry meterRegistry) {
+            this.instance = instance;
+            this.uri = instance.getUri().resolve(properties.getPath());
+            this.health = InstanceHealth.unknown(instance.getInstanceId());
+            Tags tags = Tags.of("service", instance.getServiceId(), "instance", instance.getInstanceId());
+            this.latency = Timer.builder("gateway.health.probe.duration")
+                    .description("Latency of active health probes, failed ones included")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.health.up", instance, i -> i.isProbedHealthy() ? 1 : 0)
+                    .description("1 while the instance passes its health probes, 0 while it is out of rotation")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+}
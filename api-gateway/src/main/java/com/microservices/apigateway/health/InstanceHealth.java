@@ -0,0 +1,25 @@
+package com.microservices.apigateway.health;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// Outcome of the latest health probe of one instance, as reported by /health
+@Value
+public class InstanceHealth {
+
+    public enum Status { UNKNOWN, UP, DOWN }
+
+    String instance;
+    Status status;
+    // HTTP status of the probe, or 0 when it failed to connect or timed out
+    int httpStatus;
+    long latencyMillis;
+    Instant checkedAt;
+    int consecutiveFailures;
+    String error;
+
+    static InstanceHealth unknown(String instance) {
+        return new InstanceHealth(instance, Status.UNKNOWN, 0, 0, null, 0, null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservices.apigateway.hedging;
+
+import com.microservices.apigateway.config.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Decides which routes are hedged and holds one RouteHedger per hedged route
+@Component
+@Slf4j
+public class HedgingPolicy {
+
+    public static final String IDEMPOTENT_METADATA = "idempotent";
+
+    private final HedgingProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, RouteHedger> hedgers = new ConcurrentHashMap<>();
+
+    public HedgingPolicy(HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the hedger for the route, or null unless hedging is enabled for it and the route is marked idempotent.
+     */
+    public RouteHedger forRoute(Route route) {
+        if (!properties.isEnabled() || !properties.getRoutes().contains(route.getId())) {
+            return null;
+        }
+        if (!Boolean.parseBoolean(String.valueOf(route.getMetadata().get(IDEMPOTENT_METADATA)))) {
+            log.debug("Route {} is configured for hedging but not marked idempotent", route.getId());
+            return null;
+        }
+        return hedgers.computeIfAbsent(route.getId(), this::newHedger);
+    }
+
+    private RouteHedger newHedger(String routeId) {
+        RouteHedger hedger = new RouteHedger(properties,
+                counter("gateway.hedging.sent", "Hedge requests sent after the primary exceeded the hedge delay", routeId),
+                counter("gateway.hedging.won", "Hedge requests that answered before the primary", routeId),
+                counter("gateway.hedging.budget-exhausted", "Hedges skipped because the hedge budget was spent", routeId));
+        Gauge.builder("gateway.hedging.delay", hedger, h -> h.currentDelayNanos() / 1_000_000_000.0)
+                .description("Current hedge delay (the route's observed latency percentile)")
+                .baseUnit("seconds")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return hedger;
+    }
+
+    private Counter counter(String name, String description, String routeId) {
+        return Counter.builder(name).description(description).tag("route", routeId).register(meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package com.microservices.apigateway.hedging;
+
+import com.microservices.apigateway.config.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-route hedging state: a lock-free latency recorder whose percentile becomes the hedge delay,
+ * and a hedge budget that earns budgetPercent of a hedge per request and spends one per hedge.
+ */
+public final class RouteHedger {
+
+    private static final long HEDGE_COST = 1000;
+
+    // At most this many hedges can be saved up for a burst
+    private static final long MAX_BUDGET = 10 * HEDGE_COST;
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HedgingProperties properties;
+
+    private final Recorder recorder = new Recorder(MAX_TRACKED_MICROS, 2);
+
+    private final long earnPerRequest;
+
+    private final long updateIntervalNanos;
+
+    private final AtomicLong budget = new AtomicLong(HEDGE_COST);
+
+    private final AtomicLong nextUpdate = new AtomicLong(System.nanoTime());
+
+    private final Counter sent;
+
+    private final Counter won;
+
+    private final Counter budgetExhausted;
+
+    private Histogram recycled;
+
+    // 0 until enough samples have been seen to know what "slow" means for this route
+    private volatile long delayNanos;
+
+    public RouteHedger(HedgingProperties properties, Counter sent, Counter won, Counter budgetExhausted) {
+        this.properties = properties;
+        this.earnPerRequest = Math.round(HEDGE_COST * properties.getBudgetPercent() / 100);
+        this.updateIntervalNanos = properties.getUpdateInterval().toNanos();
+        this.sent = sent;
+        this.won = won;
+        this.budgetExhausted = budgetExhausted;
+    }
+
+    /**
+     * Hedge delay for a new request, or 0 when the route has no latency estimate yet.
+     * Also earns this request's share of the hedge budget.
+     */
+    public long delayNanos() {
+        long now = System.nanoTime();
+        long due = nextUpdate.get();
+        if (now - due >= 0 && nextUpdate.compareAndSet(due, now + updateIntervalNanos)) {
+            updateDelay();
+        }
+        budget.getAndUpdate(current -> Math.min(MAX_BUDGET, current + earnPerRequest));
+        return delayNanos;
+    }
+
+    public void recordLatency(long nanos) {
+        recorder.recordValue(Math.min(MAX_TRACKED_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos))));
+    }
+
+    public boolean tryStartHedge() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                budgetExhausted.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        sent.increment();
+        return true;
+    }
+
+    public void hedgeWon() {
+        won.increment();
+    }
+
+    public long currentDelayNanos() {
+        return delayNanos;
+    }
+
+    // Runs on whichever request thread wins the CAS for this interval; swapping the interval histogram is cheap
+    private void updateDelay() {
+        Histogram interval = recorder.getIntervalHistogram(recycled);
+        recycled = interval;
+        if (interval.getTotalCount() < properties.getMinSamples()) {
+            return;
+        }
+        long percentileMicros = interval.getValueAtPercentile(properties.getPercentile() * 100);
+        delayNanos = Math.max(properties.getMinDelay().toNanos(), TimeUnit.MICROSECONDS.toNanos(percentileMicros));
+    }
+}
@@ -0,0 +1,207 @@
+package com.microservices.apigateway.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.config.IdempotencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Completed responses of requests that carried an Idempotency-Key, per route, user id and key, so a
+ * retry is answered from the gateway instead of repeating the order or payment. While the first request
+ * is in flight, duplicates wait for it (single flight, as in RequestCoalescer). Only final answers are
+ * kept: 5xx, 408 and 429 mean the service may not have acted, so the client's retry goes through again.
+ * Each response is kept with a digest of its request, so a key reused for a different request is refused
+ * instead of answered with another request's response. Entries expire after the configured TTL; the
+ * store is bounded by an estimated byte budget.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public enum Outcome { FORWARDED, REPLAYED, WAITED, CONFLICT, MISMATCHED, REJECTED }
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final IdempotencyProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, StoredResponse> completed;
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.completed = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((String key, StoredResponse stored) -> ENTRY_OVERHEAD_BYTES + key.length()
+                        + stored.getRequestDigest().length() + stored.getResponse().getBody().length)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "gateway.idempotency");
+        Gauge.builder("gateway.idempotency.in-flight", inFlight, ConcurrentMap::size)
+                .description("Idempotency keys whose first request is still in flight")
+                .register(meterRegistry);
+        log.info("Idempotency keys {} for routes {}", properties.isEnabled() ? "enabled" : "disabled",
+                properties.getRoutes());
+    }
+
+    public boolean appliesTo(String routeId) {
+        return properties.isEnabled() && routeId != null && properties.getRoutes().contains(routeId);
+    }
+
+    public String getHeader() {
+        return properties.getHeader();
+    }
+
+    public boolean isValidKey(String key) {
+        return !key.isBlank() && key.length() <= properties.getMaxKeyLength();
+    }
+
+    public String key(String routeId, String userId, String idempotencyKey) {
+        return routeId + '|' + userId + '|' + idempotencyKey;
+    }
+
+    /** Identifies what a request asks for, so a retry can be told apart from a different request under the same key. */
+    public String requestDigest(String method, String target, byte[] body) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.update((method + ' ' + target + '\n').getBytes(StandardCharsets.UTF_8));
+        byte[] hash = sha256.digest(body);
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    public boolean isStorable(int status) {
+        return status < 500 && status != 408 && status != 429;
+    }
+
+    public StoredResponse get(String key) {
+        return completed.getIfPresent(key);
+    }
+
+    /**
+     * Registers a new flight for the key, or returns the one already in flight (whose isLeader is then false
+     * and whose request digest is the first request's).
+     */
+    public Flight join(String key, String requestDigest) {
+        Flight created = new Flight(key, requestDigest, true);
+        Flight existing = inFlight.putIfAbsent(key, created);
+        return existing != null ? existing.asFollower() : created;
+    }
+
+    public void record(String routeId, Outcome outcome) {
+        counters.computeIfAbsent(routeId, this::newCounters)[outcome.ordinal()].increment();
+    }
+
+    public int getMaxBodyBytes() {
+        return properties.getMaxBodyBytes();
+    }
+
+    public int getMaxRequestBytes() {
+        return properties.getMaxRequestBytes();
+    }
+
+    public Duration getMaxWait() {
+        return properties.getMaxWait();
+    }
+
+    public long getTtlMillis() {
+        return properties.getTtl().toMillis();
+    }
+
+    private Counter[] newCounters(String routeId) {
+        Outcome[] outcomes = Outcome.values();
+        Counter[] routeCounters = new Counter[outcomes.length];
+        for (Outcome outcome : outcomes) {
+            routeCounters[outcome.ordinal()] = Counter.builder("gateway.idempotency.requests")
+                    .description("Requests with an idempotency key: forwarded (first), replayed (stored response), "
+                            + "waited (shared the in-flight one), conflict (gave up waiting), "
+                            + "mismatched (key reused for a different request), rejected (bad key or body too large)")
+                    .tag("route", routeId)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return routeCounters;
+    }
+
+    public final class Flight {
+
+        private final String key;
+
+        private final String requestDigest;
+
+        private final boolean leader;
+
+        private final Sinks.One<CachedResponse> result;
+
+        private Flight(String key, String requestDigest, boolean leader) {
+            this(key, requestDigest, leader, Sinks.one());
+        }
+
+        private Flight(String key, String requestDigest, boolean leader, Sinks.One<CachedResponse> result) {
+            this.key = key;
+            this.requestDigest = requestDigest;
+            this.leader = leader;
+            this.result = result;
+        }
+
+        private Flight asFollower() {
+            return new Flight(key, requestDigest, false, result);
+        }
+
+        public boolean isLeader() {
+            return leader;
+        }
+
+        // The leader's, so a follower can tell whether it is a duplicate of the request in flight
+        public boolean isFor(String requestDigest) {
+            return this.requestDigest.equals(requestDigest);
+        }
+
+        // Completes empty if the first request got no storable answer, so a waiting duplicate may go through
+        public Mono<CachedResponse> result() {
+            return result.asMono();
+        }
+
+        // Stored before the flight is removed, so no retry can slip between the two and reach the service
+        public void complete(CachedResponse response) {
+            completed.put(key, new StoredResponse(requestDigest, response));
+            inFlight.remove(key, this);
+            result.tryEmitValue(response);
+        }
+
+        public void abandon() {
+            inFlight.remove(key, this);
+            result.tryEmitEmpty();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservices.apigateway.idempotency;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import lombok.Value;
+
+// A completed response together with the digest of the request that produced it (see IdempotencyStore)
+@Value
+public class StoredResponse {
+
+    String requestDigest;
+
+    CachedResponse response;
+
+    public boolean answers(String requestDigest) {
+        return this.requestDigest.equals(requestDigest);
+    }
+}
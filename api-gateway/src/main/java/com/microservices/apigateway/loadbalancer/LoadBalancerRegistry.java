@@ -0,0 +1,83 @@
+package com.microservices.apigateway.loadbalancer;
+
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one P2CLoadBalancer per configured service, shared by the per-service load-balancer contexts
+ * (see P2CLoadBalancerClientConfiguration), LoadBalancerFeedbackFilter and the hedging filter.
+ */
+@Component
+@Slf4j
+public class LoadBalancerRegistry {
+
+    private final LoadBalancerProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, P2CLoadBalancer> balancers = new ConcurrentHashMap<>();
+
+    public LoadBalancerRegistry(LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        properties.getServices().forEach((serviceId, service) -> {
+            if (service.getInstances().isEmpty()) {
+                throw new IllegalArgumentException("gateway.load-balancer.services." + serviceId + " has no instances");
+            }
+            P2CLoadBalancer balancer = newBalancer(serviceId, service.getInstances());
+            balancers.put(serviceId, balancer);
+            log.info("⚖️ {} balanced over {}", serviceId, service.getInstances());
+        });
+    }
+
+    /** Balancer for the service; unknown services get an empty one, so lb:// routes to them answer 503. */
+    public P2CLoadBalancer balancer(String serviceId) {
+        return balancers.computeIfAbsent(serviceId, id -> {
+            log.warn("⚠️ No instances configured for service {} (gateway.load-balancer.services.{}.instances)", id, id);
+            return new P2CLoadBalancer(id, List.of(), properties, instance -> {
+            });
+        });
+    }
+
+    public Map<String, P2CLoadBalancer> balancers() {
+        return balancers;
+    }
+
+    private P2CLoadBalancer newBalancer(String serviceId, List<URI> uris) {
+        ConcurrentMap<String, Counter> ejections = new ConcurrentHashMap<>();
+        P2CLoadBalancer balancer = new P2CLoadBalancer(serviceId, uris, properties,
+                instance -> ejections.get(instance.getInstanceId()).increment());
+        for (UpstreamInstance instance : balancer.instances()) {
+            Tags tags = Tags.of("service", serviceId, "instance", instance.getInstanceId());
+            Gauge.builder("gateway.lb.in-flight", instance, UpstreamInstance::inFlight)
+                    .description("Requests in flight to the instance")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.lb.latency", instance, i -> i.ewmaNanos() / 1_000_000_000.0)
+                    .description("Peak EWMA of the instance's response latency")
+                    .baseUnit("seconds")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.lb.weight", instance, balancer::weight)
+                    .description("Slow-start weight: 0 while ejected, below 1 while ramping back up")
+                    .tags(tags)
+                    .register(meterRegistry);
+            ejections.put(instance.getInstanceId(), Counter.builder("gateway.lb.ejections")
+                    .description("Times the instance was ejected after consecutive failures")
+                    .tags(tags)
+                    .register(meterRegistry));
+        }
+        return balancer;
+    }
+}
@@ -0,0 +1,188 @@
+package com.microservices.apigateway.loadbalancer;
+
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Power-of-two-choices balancer over a static instance list. Two distinct instances that are not
+ * ejected are sampled at random and the one with the lower (in-flight + 1) x latency EWMA wins. That
+ * avoids both the herding of always picking the least loaded instance and the blindness of round robin
+ * to a slow instance.
+ * <p>
+ * Instances are ejected passively after consecutive failures, for a period that grows with each
+ * ejection, and then ramp back up through slow start: while its weight is below 1, an instance keeps a
+ * comparison it won only with that probability. At most max-ejection-percent of the instances
+ * are ejected at once; if every instance is ejected anyway, all of them are used rather than none.
+ * Instances failing their active health probes (see HealthProber) are skipped the same way, without
+ * that cap, and also return through slow start.
+ */
+@Slf4j
+public class P2CLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Mono<Response<ServiceInstance>> NO_INSTANCE = Mono.just(new EmptyResponse());
+
+    private final String serviceId;
+
+    private final UpstreamInstance[] instances;
+
+    private final long decayNanos;
+
+    private final int failureThreshold;
+
+    private final long ejectionNanos;
+
+    private final long maxEjectionNanos;
+
+    private final int maxEjected;
+
+    private final long slowStartNanos;
+
+    private final double slowStartMinWeight;
+
+    private final Consumer<UpstreamInstance> onEjection;
+
+    P2CLoadBalancer(String serviceId, List<URI> uris, LoadBalancerProperties properties,
+                    Consumer<UpstreamInstance> onEjection) {
+        this.serviceId = serviceId;
+        this.decayNanos = Math.max(1, properties.getLatencyDecay().toNanos());
+        this.failureThreshold = properties.getConsecutiveFailures();
+        this.ejectionNanos = properties.getEjectionTime().toNanos();
+        this.maxEjectionNanos = properties.getMaxEjectionTime().toNanos();
+        this.slowStartNanos = Math.max(1, properties.getSlowStart().toNanos());
+        this.slowStartMinWeight = properties.getSlowStartMinWeight();
+        this.maxEjected = uris.size() * properties.getMaxEjectionPercent() / 100;
+        this.onEjection = onEjection;
+        this.instances = uris.stream()
+                .map(uri -> new UpstreamInstance(serviceId, uri, slowStartNanos))
+                .toArray(UpstreamInstance[]::new);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        UpstreamInstance chosen = choose(null, true);
+        return chosen != null ? Mono.just(new DefaultResponse(chosen)) : NO_INSTANCE;
+    }
+
+    /** Picks a healthy instance other than the given one, e.g. for a hedge, or null if there is none. */
+    public UpstreamInstance chooseOther(UpstreamInstance excluded) {
+        return instances.length > 1 ? choose(excluded, false) : null;
+    }
+
+    private UpstreamInstance choose(UpstreamInstance excluded, boolean allowPanic) {
+        if (instances.length <= 1) {
+            return instances.length == 1 ? instances[0] : null;
+        }
+        long now = System.nanoTime();
+        int available = 0;
+        for (UpstreamInstance instance : instances) {
+            if (instance != excluded && instance.isAvailable(now)) {
+                available++;
+            }
+        }
+        boolean panic = available == 0;
+        if (panic) {
+            if (!allowPanic) {
+                return null;
+            }
+            // Everything is ejected or down: spread load over all instances rather than failing every request
+            available = excluded != null ? instances.length - 1 : instances.length;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(available);
+        UpstreamInstance first = nth(a, now, excluded, panic);
+        if (available == 1) {
+            return first;
+        }
+        int b = random.nextInt(available - 1);
+        UpstreamInstance second = nth(b >= a ? b + 1 : b, now, excluded, panic);
+
+        boolean secondBetter = second.cost(now, decayNanos) < first.cost(now, decayNanos);
+        UpstreamInstance better = secondBetter ? second : first;
+        // Slow start: a returning instance keeps only a growing fraction of the comparisons it wins
+        if (!panic && random.nextDouble() >= better.weight(now, slowStartNanos, slowStartMinWeight)) {
+            return secondBetter ? first : second;
+        }
+        return better;
+    }
+
+    // The index-th instance that is neither excluded nor (outside panic mode) unavailable
+    private UpstreamInstance nth(int index, long now, UpstreamInstance excluded, boolean panic) {
+        for (UpstreamInstance instance : instances) {
+            if (instance == excluded || (!panic && !instance.isAvailable(now))) {
+                continue;
+            }
+            if (index-- == 0) {
+                return instance;
+            }
+        }
+        throw new IllegalStateException("Instance index out of range");
+    }
+
+    public void succeeded(UpstreamInstance instance, long latencyNanos) {
+        instance.succeeded(latencyNanos, decayNanos);
+    }
+
+    /** Ends a request that was still out when a faster hedge answered; its elapsed time is a latency sample. */
+    public void slow(UpstreamInstance instance, long elapsedNanos) {
+        instance.slow(elapsedNanos, decayNanos);
+    }
+
+    public void failed(UpstreamInstance instance) {
+        if (instance.failed() >= failureThreshold) {
+            eject(instance);
+        }
+    }
+
+    private synchronized void eject(UpstreamInstance instance) {
+        long now = System.nanoTime();
+        if (instance.isEjected(now)) {
+            return;
+        }
+        int ejected = 0;
+        for (UpstreamInstance other : instances) {
+            if (other.isEjected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected >= maxEjected) {
+            log.debug("{} keeps failing but {} of {} {} instances are already ejected", instance, ejected,
+                    instances.length, serviceId);
+            return;
+        }
+        long duration = Math.min(ejectionNanos * (instance.ejections(now, maxEjectionNanos) + 1), maxEjectionNanos);
+        instance.eject(now + duration);
+        onEjection.accept(instance);
+        log.warn("⛔ Ejected {} for {}s after {} consecutive failures", instance,
+                TimeUnit.NANOSECONDS.toSeconds(duration), failureThreshold);
+    }
+
+    public String serviceId() {
+        return serviceId;
+    }
+
+    public UpstreamInstance[] instances() {
+        return instances;
+    }
+
+    public boolean isEjected(UpstreamInstance instance) {
+        return instance.isEjected(System.nanoTime());
+    }
+
+    public double weight(UpstreamInstance instance) {
+        return instance.weight(System.nanoTime(), slowStartNanos, slowStartMinWeight);
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservices.apigateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+// Per-service load-balancer context configuration (see LoadBalancerConfig); deliberately not a
+// @Configuration so component scanning doesn't register it in the main context
+public class P2CLoadBalancerClientConfiguration {
+
+    @Bean
+    public ReactorServiceInstanceLoadBalancer reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                 LoadBalancerRegistry registry) {
+        return registry.balancer(environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME));
+    }
+}
@@ -0,0 +1,201 @@
+package com.microservices.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One statically configured instance of a service and the load signals P2CLoadBalancer compares:
+ * requests in flight and a peak-sensitive, time-decayed EWMA of response latency. Also tracks the
+ * consecutive failures that eject it, whether active health probes (HealthProber) consider it up, and
+ * when it was last readmitted, for slow start.
+ */
+public final class UpstreamInstance implements ServiceInstance {
+
+    private final String serviceId;
+
+    private final URI uri;
+
+    private final int port;
+
+    private final String instanceId;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong ewmaNanos = new AtomicLong();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile long lastSampleNanos = System.nanoTime();
+
+    // Ejected while now < ejectedUntil; slow start runs from ejectedUntil onwards
+    private volatile long ejectedUntil;
+
+    private volatile int ejections;
+
+    // Written by HealthProber; instances start healthy so traffic flows before the first probe
+    private volatile boolean probedHealthy = true;
+
+    UpstreamInstance(String serviceId, URI uri, long slowStartNanos) {
+        this.serviceId = serviceId;
+        this.uri = uri;
+        this.port = uri.getPort() >= 0 ? uri.getPort() : isSecure() ? 443 : 80;
+        this.instanceId = uri.getHost() + ":" + port;
+        // Instances known at startup take full traffic straight away
+        this.ejectedUntil = System.nanoTime() - slowStartNanos;
+    }
+
+    public void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /** Ends a request that was cancelled before the upstream answered; it says nothing about the instance. */
+    public void cancelled() {
+        inFlight.decrementAndGet();
+    }
+
+    void succeeded(long latencyNanos, long decayNanos) {
+        inFlight.decrementAndGet();
+        consecutiveFailures.set(0);
+        sample(latencyNanos, decayNanos);
+    }
+
+    // Lost to a hedge: at least this slow, but neither a success nor a failure
+    void slow(long latencyNanos, long decayNanos) {
+        inFlight.decrementAndGet();
+        sample(latencyNanos, decayNanos);
+    }
+
+    private void sample(long latencyNanos, long decayNanos) {
+        long now = System.nanoTime();
+        double weight = Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+        lastSampleNanos = now;
+        // Peak EWMA: a slower sample is taken at once, faster ones are blended in over the decay window
+        ewmaNanos.getAndUpdate(ewma -> ewma == 0 || latencyNanos > ewma
+                ? latencyNanos
+                : (long) (ewma * weight + latencyNanos * (1 - weight)));
+    }
+
+    int failed() {
+        inFlight.decrementAndGet();
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /** Load score for the two-choice comparison; lower is better. */
+    double cost(long now, long decayNanos) {
+        // The estimate also decays while no samples arrive, so an instance that once looked slow is
+        // probed again instead of being starved; an unmeasured instance costs only its queue
+        double latency = ewmaNanos.get() * Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+        return (inFlight.get() + 1) * Math.max(latency, 1);
+    }
+
+    boolean isEjected(long now) {
+        return now - ejectedUntil < 0;
+    }
+
+    // Neither ejected after failed requests nor failing its health probes
+    boolean isAvailable(long now) {
+        return probedHealthy && !isEjected(now);
+    }
+
+    public boolean isProbedHealthy() {
+        return probedHealthy;
+    }
+
+    public void probedDown() {
+        probedHealthy = false;
+    }
+
+    /** Back in rotation after passing its probes; like a readmission after ejection, it ramps up through slow start. */
+    public void probedUp() {
+        if (!probedHealthy) {
+            long now = System.nanoTime();
+            if (!isEjected(now)) {
+                ejectedUntil = now;
+            }
+            probedHealthy = true;
+        }
+    }
+
+    /** Slow-start weight: zero while ejected or probed down, ramping from minWeight to 1 after readmission. */
+    double weight(long now, long slowStartNanos, double minWeight) {
+        long sinceReadmitted = now - ejectedUntil;
+        if (sinceReadmitted < 0 || !probedHealthy) {
+            return 0;
+        }
+        if (sinceReadmitted >= slowStartNanos) {
+            return 1;
+        }
+        return Math.max(minWeight, (double) sinceReadmitted / slowStartNanos);
+    }
+
+    void eject(long until) {
+        ejections++;
+        ejectedUntil = until;
+        consecutiveFailures.set(0);
+    }
+
+    /** Ejections so far, reset once the instance has stayed healthy for a whole max-ejection-time. */
+    int ejections(long now, long maxEjectionNanos) {
+        if (ejections > 0 && now - ejectedUntil > maxEjectionNanos) {
+            ejections = 0;
+        }
+        return ejections;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long ewmaNanos() {
+        return ewmaNanos.get();
+    }
+
+    @Override
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public String getHost() {
+        return uri.getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public String getScheme() {
+        return uri.getScheme();
+    }
+
+    @Override
+    public Map<String, String> getMetadata() {
+        return Map.of();
+    }
+
+    @Override
+    public String toString() {
+        return serviceId + "@" + instanceId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservices.apigateway.logging;
+
+import java.net.InetSocketAddress;
+
+// Pre-allocated ring-buffer slot; producers overwrite the fields in place instead of allocating a new record
+final class AccessLogRecord {
+
+    // Sequence number this slot was last published with, read by the writer thread
+    volatile long published = -1;
+
+    long timestampMillis;
+    long durationNanos;
+    String method;
+    String path;
+    int status;
+    String routeId;
+    String requestId;
+    InetSocketAddress remoteAddress;
+    String error;
+
+    void clear() {
+        method = null;
+        path = null;
+        routeId = null;
+        requestId = null;
+        remoteAddress = null;
+        error = null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.microservices.apigateway.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded multi-producer / single-consumer ring of pre-allocated AccessLogRecord slots.
+ * Producers (event-loop threads) claim a sequence with a CAS and never block; when the ring is full
+ * the record is dropped. The single writer thread consumes slots in sequence order.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] slots;
+
+    private final int mask;
+
+    private final AtomicLong claimed = new AtomicLong();
+
+    private volatile long consumed;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new AccessLogRecord[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogRecord();
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /** Returns the claimed sequence, or -1 when the ring is full. */
+    long claim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                return -1;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    AccessLogRecord slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        slot(sequence).published = sequence;
+    }
+
+    /** Returns the next published record for the consumer, or null when none is ready. */
+    AccessLogRecord peek() {
+        long next = consumed;
+        AccessLogRecord record = slots[(int) next & mask];
+        return record.published == next ? record : null;
+    }
+
+    /** Releases the slot returned by the last peek() back to producers. */
+    void release(AccessLogRecord record) {
+        record.clear();
+        consumed = consumed + 1;
+    }
+
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+}
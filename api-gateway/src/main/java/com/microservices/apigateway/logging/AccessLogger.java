@@ -0,0 +1,214 @@
+package com.microservices.apigateway.logging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured, sampled access log. The request thread only fills a pre-allocated ring slot;
+ * a background writer formats JSON lines and writes them to the access log file in batches.
+ * Errors (status >= 400 or an exception) and slow calls are always kept, fast successes are sampled.
+ */
+@Component
+@Slf4j
+public class AccessLogger {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Value("${gateway.access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.access-log.file:logs/gateway-access.log}")
+    private String file;
+
+    @Value("${gateway.access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${gateway.access-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${gateway.access-log.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong written = new AtomicLong();
+
+    private AccessLogRingBuffer ringBuffer;
+
+    private long slowThresholdNanos;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    public AccessLogger(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            log.info("Access log disabled");
+            return;
+        }
+
+        ringBuffer = new AccessLogRingBuffer(bufferSize);
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+
+        Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Writer writer = new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+
+        Gauge.builder("gateway.access-log.queue", ringBuffer, AccessLogRingBuffer::size).register(meterRegistry);
+        Gauge.builder("gateway.access-log.dropped", dropped, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("gateway.access-log.written", written, AtomicLong::get).register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(() -> drainLoop(writer), "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Access log writing to {} (buffer {}, sample rate {}, slow >= {}ms)",
+                path.toAbsolutePath(), ringBuffer.capacity(), sampleRate, slowThresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Records one completed exchange. Never blocks: when the ring is full the record is counted as dropped.
+     */
+    public void record(String method, String path, int status, long startNanos, String routeId,
+                       String requestId, InetSocketAddress remoteAddress, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+
+        long durationNanos = System.nanoTime() - startNanos;
+        if (!isSampled(status, durationNanos, error)) {
+            return;
+        }
+
+        long sequence = ringBuffer.claim();
+        if (sequence < 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        AccessLogRecord record = ringBuffer.slot(sequence);
+        record.timestampMillis = System.currentTimeMillis();
+        record.durationNanos = durationNanos;
+        record.method = method;
+        record.path = path;
+        record.status = status;
+        record.routeId = routeId;
+        record.requestId = requestId;
+        record.remoteAddress = remoteAddress;
+        record.error = error != null ? String.valueOf(error.getMessage()) : null;
+        ringBuffer.publish(sequence);
+    }
+
+    private boolean isSampled(int status, long durationNanos, Throwable error) {
+        if (error != null || status >= 400 || durationNanos >= slowThresholdNanos) {
+            return true;
+        }
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void drainLoop(Writer writer) {
+        StringBuilder line = new StringBuilder(256);
+        try (writer) {
+            while (running || ringBuffer.peek() != null) {
+                int batch = 0;
+                AccessLogRecord record;
+                while (batch < BATCH_SIZE && (record = ringBuffer.peek()) != null) {
+                    line.setLength(0);
+                    format(record, line);
+                    ringBuffer.release(record);
+                    writer.append(line);
+                    batch++;
+                }
+                if (batch > 0) {
+                    writer.flush();
+                    written.addAndGet(batch);
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            log.error("❌ Access log writer stopped: {}", e.getMessage());
+        }
+    }
+
+    private static void format(AccessLogRecord record, StringBuilder out) {
+        out.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(record.timestampMillis)).append('"');
+        out.append(",\"requestId\":");
+        appendString(out, record.requestId);
+        out.append(",\"method\":");
+        appendString(out, record.method);
+        out.append(",\"path\":");
+        appendString(out, record.path);
+        out.append(",\"route\":");
+        appendString(out, record.routeId);
+        out.append(",\"status\":").append(record.status);
+        out.append(",\"durationMicros\":").append(record.durationNanos / 1_000);
+        out.append(",\"remote\":");
+        appendString(out, record.remoteAddress != null ? record.remoteAddress.getHostString() : null);
+        if (record.error != null) {
+            out.append(",\"error\":");
+            appendString(out, record.error);
+        }
+        out.append("}\n");
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,153 @@
+package com.microservices.apigateway.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route RED metrics (rate, errors, duration) plus auth and upstream-wait timers.
+ * Timers are resolved once per route and status class and kept in local maps, so the hot path is a
+ * map lookup and a lock-free histogram record with no meter-registry lookup or tag allocation.
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    private static final String[] STATUS_CLASSES = {"unknown", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99, 0.999};
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Timer[]> requestTimers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer> upstreamTimers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompressionMeters> compressionMeters = new ConcurrentHashMap<>();
+
+    private final Timer authTimer;
+
+    @Value("${gateway.metrics.percentile-histogram:true}")
+    private boolean percentileHistogram;
+
+    @Value("${gateway.metrics.expiry:PT1M}")
+    private Duration expiry;
+
+    public GatewayMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.authTimer = Timer.builder("gateway.auth.duration")
+                .description("Time spent in JwtAuthenticationFilter before the request continues")
+                .publishPercentiles(PERCENTILES)
+                .register(meterRegistry);
+    }
+
+    public void recordRequest(String routeId, int status, long nanos) {
+        String route = routeKey(routeId);
+        Timer[] timers = requestTimers.computeIfAbsent(route, key -> new Timer[STATUS_CLASSES.length]);
+        int statusClass = statusClass(status);
+        Timer timer = timers[statusClass];
+        if (timer == null) {
+            // Registered on first use so idle status classes don't export empty series; the registry
+            // returns the same meter if two threads race here
+            timer = requestTimer(route, STATUS_CLASSES[statusClass]);
+            timers[statusClass] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpstream(String routeId, long nanos) {
+        upstreamTimers.computeIfAbsent(routeKey(routeId), route -> configure(Timer.builder("gateway.upstream.duration")
+                        .description("Time from handing the request to the upstream until its response completes")
+                        .tag("route", route))
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAuth(long nanos) {
+        authTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCompression(String routeId, String encoding, long bytesIn, long bytesOut, long nanos) {
+        String route = routeKey(routeId);
+        CompressionMeters meters = compressionMeters.computeIfAbsent(route + '|' + encoding,
+                key -> new CompressionMeters(route, encoding));
+        meters.duration.record(nanos, TimeUnit.NANOSECONDS);
+        meters.bytesIn.increment(bytesIn);
+        meters.bytesOut.increment(bytesOut);
+        if (bytesOut > 0) {
+            meters.ratio.record((double) bytesIn / bytesOut);
+        }
+    }
+
+    private Timer requestTimer(String route, String statusClass) {
+        return configure(Timer.builder("gateway.route.requests")
+                .description("End-to-end gateway latency per route and status class")
+                .tag("route", route)
+                .tag("status", statusClass))
+                .register(meterRegistry);
+    }
+
+    private Timer.Builder configure(Timer.Builder builder) {
+        // Percentiles are computed in-process from an HdrHistogram; the bucketed histogram lets
+        // Prometheus aggregate quantiles across gateway instances
+        return builder.publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram(percentileHistogram)
+                .distributionStatisticExpiry(expiry);
+    }
+
+    private static String routeKey(String routeId) {
+        return routeId != null ? routeId : UNMATCHED_ROUTE;
+    }
+
+    private static int statusClass(int status) {
+        int statusClass = status / 100;
+        return statusClass >= 1 && statusClass <= 5 ? statusClass : 0;
+    }
+
+    // rate(bytes{direction="in"}) / rate(bytes{direction="out"}) gives the aggregate ratio in Prometheus
+    private final class CompressionMeters {
+
+        private final Timer duration;
+
+        private final DistributionSummary ratio;
+
+        private final Counter bytesIn;
+
+        private final Counter bytesOut;
+
+        private CompressionMeters(String route, String encoding) {
+            this.duration = configure(Timer.builder("gateway.compression.duration")
+                    .description("CPU time spent deflating one response body")
+                    .tag("route", route)
+                    .tag("encoding", encoding))
+                    .register(meterRegistry);
+            this.ratio = DistributionSummary.builder("gateway.compression.ratio")
+                    .description("Uncompressed size / compressed size of one response body")
+                    .tag("route", route)
+                    .tag("encoding", encoding)
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry);
+            this.bytesIn = compressionBytes(route, encoding, "in");
+            this.bytesOut = compressionBytes(route, encoding, "out");
+        }
+
+        private Counter compressionBytes(String route, String encoding, String direction) {
+            return Counter.builder("gateway.compression.bytes")
+                    .description("Response body bytes before (in) and after (out) compression")
+                    .baseUnit("bytes")
+                    .tag("route", route)
+                    .tag("encoding", encoding)
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+    }
+}
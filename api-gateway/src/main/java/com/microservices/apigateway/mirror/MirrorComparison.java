@@ -0,0 +1,163 @@
+package com.microservices.apigateway.mirror;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Side-by-side latency and status of one route's mirrored requests: the primary answer the client got
+ * and the shadow's answer to the copy of the same request. Latencies go into lock-free recorders that
+ * are folded into cumulative histograms when a report is taken.
+ */
+public final class MirrorComparison {
+
+    public enum Target { PRIMARY, SHADOW }
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    // Index 0 is a failed call (error, timeout, no status)
+    private static final String[] STATUS_CLASSES = {"failed", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final Side[] sides = {new Side(), new Side()};
+
+    private final LongAdder mirrored = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder compared = new LongAdder();
+
+    private final LongAdder statusMismatches = new LongAdder();
+
+    private final LongAdder shadowSlower = new LongAdder();
+
+    /** Starts one mirrored request; both sides report into the returned sample. */
+    public Sample start() {
+        mirrored.increment();
+        return new Sample();
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public synchronized Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mirrored", mirrored.sum());
+        report.put("droppedAtConcurrencyLimit", dropped.sum());
+        report.put("compared", compared.sum());
+        report.put("statusClassMismatches", statusMismatches.sum());
+        report.put("shadowSlower", shadowSlower.sum());
+        report.put("primary", sides[Target.PRIMARY.ordinal()].report());
+        report.put("shadow", sides[Target.SHADOW.ordinal()].report());
+        return report;
+    }
+
+    public synchronized void reset() {
+        for (Side side : sides) {
+            side.reset();
+        }
+        mirrored.reset();
+        dropped.reset();
+        compared.reset();
+        statusMismatches.reset();
+        shadowSlower.reset();
+    }
+
+    private static int statusClass(int status) {
+        return status >= 100 && status < 600 ? status / 100 : 0;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public final class Sample {
+
+        private final int[] statuses = new int[2];
+
+        private final long[] nanos = new long[2];
+
+        private final AtomicInteger finished = new AtomicInteger();
+
+        private Sample() {
+        }
+
+        /** Records one side's outcome (status 0 on failure); the second call also compares the two. */
+        public void finish(Target target, int status, long durationNanos) {
+            sides[target.ordinal()].record(status, durationNanos);
+            statuses[target.ordinal()] = status;
+            nanos[target.ordinal()] = durationNanos;
+            // The atomic increment publishes the first side's fields to whichever thread finishes second
+            if (finished.incrementAndGet() == 2) {
+                compared.increment();
+                if (statusClass(statuses[0]) != statusClass(statuses[1])) {
+                    statusMismatches.increment();
+                }
+                if (nanos[1] > nanos[0]) {
+                    shadowSlower.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Side {
+
+        private final Recorder recorder = new Recorder(MAX_TRACKED_MICROS, 3);
+
+        private final Histogram cumulative = new Histogram(MAX_TRACKED_MICROS, 3);
+
+        private final LongAdder[] statusClasses = new LongAdder[STATUS_CLASSES.length];
+
+        private Histogram recycled;
+
+        private Side() {
+            for (int i = 0; i < statusClasses.length; i++) {
+                statusClasses[i] = new LongAdder();
+            }
+        }
+
+        private void record(int status, long durationNanos) {
+            statusClasses[statusClass(status)].increment();
+            if (status > 0) {
+                recorder.recordValue(Math.min(MAX_TRACKED_MICROS,
+                        Math.max(1, TimeUnit.NANOSECONDS.toMicros(durationNanos))));
+            }
+        }
+
+        private Map<String, Object> report() {
+            Histogram interval = recorder.getIntervalHistogram(recycled);
+            cumulative.add(interval);
+            recycled = interval;
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("count", cumulative.getTotalCount());
+            report.put("p50Millis", millis(cumulative.getValueAtPercentile(50)));
+            report.put("p90Millis", millis(cumulative.getValueAtPercentile(90)));
+            report.put("p99Millis", millis(cumulative.getValueAtPercentile(99)));
+            report.put("p999Millis", millis(cumulative.getValueAtPercentile(99.9)));
+            report.put("maxMillis", millis(cumulative.getMaxValue()));
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                long count = statusClasses[i].sum();
+                if (count > 0) {
+                    statuses.put(STATUS_CLASSES[i], count);
+                }
+            }
+            report.put("statuses", statuses);
+            return report;
+        }
+
+        private void reset() {
+            recycled = recorder.getIntervalHistogram(recycled);
+            cumulative.reset();
+            for (LongAdder statusClass : statusClasses) {
+                statusClass.reset();
+            }
+        }
+    }
+}
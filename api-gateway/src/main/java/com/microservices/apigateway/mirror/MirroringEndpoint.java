@@ -0,0 +1,34 @@
+package com.microservices.apigateway.mirror;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// GET /actuator/mirroring compares primary and shadow latency and statuses per route, DELETE /actuator/mirroring resets them
+@Component
+@Endpoint(id = "mirroring")
+public class MirroringEndpoint {
+
+    private final TrafficMirror trafficMirror;
+
+    public MirroringEndpoint(TrafficMirror trafficMirror) {
+        this.trafficMirror = trafficMirror;
+    }
+
+    @ReadOperation
+    public Map<String, Object> comparison() {
+        return trafficMirror.report();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        trafficMirror.reset();
+        Map<String, Object> result = new HashMap<>();
+        result.put("reset", true);
+        return result;
+    }
+}
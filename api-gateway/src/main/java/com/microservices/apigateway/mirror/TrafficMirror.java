@@ -0,0 +1,213 @@
+package com.microservices.apigateway.mirror;
+
+import com.microservices.apigateway.config.MirroringProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.codec.http.HttpMethod;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends sampled copies of requests to a route's shadow upstream, fire and forget. Shadow calls use their
+ * own small connection pool and a hard cap on calls in flight, so a slow shadow can never take
+ * connections or event-loop time from primary traffic: requests sampled while the cap is reached are
+ * simply not mirrored. Shadow responses are drained and discarded; only their status and latency are
+ * kept, next to the primary's, in one MirrorComparison per route.
+ */
+@Component
+@Slf4j
+public class TrafficMirror {
+
+    public static final String MIRRORED_HEADER = "X-Mirrored";
+
+    // Per-connection headers and the ones the shadow's own request sets
+    private static final Set<String> UNMIRRORED_HEADERS = Set.of(
+            "host", "content-length", "connection", "keep-alive", "transfer-encoding", "te", "upgrade",
+            "proxy-connection", "expect");
+
+    private final MirroringProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConnectionProvider connectionProvider;
+
+    private final HttpClient client;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ConcurrentMap<String, MirrorComparison> comparisons = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    private final Counter failures;
+
+    public TrafficMirror(MirroringProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.connectionProvider = ConnectionProvider.builder("mirror")
+                .maxConnections(Math.max(1, properties.getMaxConcurrent()))
+                .pendingAcquireMaxCount(Math.max(1, properties.getMaxConcurrent()))
+                .pendingAcquireTimeout(properties.getTimeout())
+                .metrics(true)
+                .build();
+        this.client = HttpClient.create(connectionProvider).responseTimeout(properties.getTimeout());
+        this.failures = Counter.builder("gateway.mirror.failures")
+                .description("Shadow requests that failed or timed out")
+                .register(meterRegistry);
+        Gauge.builder("gateway.mirror.in-flight", inFlight, AtomicInteger::get)
+                .description("Shadow requests currently in flight")
+                .register(meterRegistry);
+        properties.getRoutes().forEach((routeId, route) -> {
+            if (route.getUri() == null) {
+                throw new IllegalArgumentException("gateway.mirroring.routes." + routeId + ".uri is required");
+            }
+        });
+        if (properties.isEnabled() && !properties.getRoutes().isEmpty()) {
+            log.info("🪞 Mirroring routes {} (at most {} shadow requests in flight)", properties.getRoutes().keySet(),
+                    properties.getMaxConcurrent());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * The route's mirror settings when this request is sampled for mirroring, else null.
+     */
+    public MirroringProperties.Route sample(String routeId, ServerHttpRequest request) {
+        if (!properties.isEnabled() || routeId == null) {
+            return null;
+        }
+        MirroringProperties.Route route = properties.getRoutes().get(routeId);
+        if (route == null || !route.getMethods().contains(request.getMethod().name())) {
+            return null;
+        }
+        HttpHeaders headers = request.getHeaders();
+        if (headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            return null;
+        }
+        double percent = route.getPercent();
+        return percent >= 100 || (percent > 0 && ThreadLocalRandom.current().nextDouble(100) < percent) ? route : null;
+    }
+
+    /**
+     * Sends the copy if the shadow cap allows and returns the sample the primary's outcome goes into,
+     * or null when the request was not mirrored. Never waits for the shadow.
+     */
+    public MirrorComparison.Sample mirror(String routeId, MirroringProperties.Route route, ServerHttpRequest request) {
+        MirrorComparison comparison = comparisons.computeIfAbsent(routeId, id -> new MirrorComparison());
+        if (inFlight.incrementAndGet() > properties.getMaxConcurrent()) {
+            inFlight.decrementAndGet();
+            comparison.recordDropped();
+            return null;
+        }
+
+        MirrorComparison.Sample sample = comparison.start();
+        URI uri = shadowUri(route.getUri(), request.getURI());
+        HttpHeaders requestHeaders = request.getHeaders();
+        long startNanos = System.nanoTime();
+        client.headers(headers -> {
+                    requestHeaders.forEach((name, values) -> {
+                        if (!UNMIRRORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                            headers.add(name, values);
+                        }
+                    });
+                    headers.set(MIRRORED_HEADER, "true");
+                })
+                .request(HttpMethod.valueOf(request.getMethod().name()))
+                .uri(uri)
+                // The body is read and released without being kept
+                .response((response, body) -> body.then(Mono.just(response.status().code())))
+                .next()
+                .timeout(properties.getTimeout())
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .subscribe(
+                        status -> finishShadow(routeId, sample, status, startNanos),
+                        error -> {
+                            failures.increment();
+                            log.debug("Shadow request to {} failed: {}", uri, error.toString());
+                            finishShadow(routeId, sample, 0, startNanos);
+                        });
+        return sample;
+    }
+
+    public void finishPrimary(String routeId, MirrorComparison.Sample sample, int status, long nanos) {
+        sample.finish(MirrorComparison.Target.PRIMARY, status, nanos);
+        timer(routeId, MirrorComparison.Target.PRIMARY).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new TreeMap<>();
+        comparisons.forEach((routeId, comparison) -> {
+            Map<String, Object> routeReport = comparison.report();
+            MirroringProperties.Route route = properties.getRoutes().get(routeId);
+            if (route != null) {
+                routeReport.put("shadowUri", route.getUri().toString());
+                routeReport.put("percent", route.getPercent());
+            }
+            report.put(routeId, routeReport);
+        });
+        return report;
+    }
+
+    public void reset() {
+        comparisons.values().forEach(MirrorComparison::reset);
+    }
+
+    // Status 0 is a shadow that failed or timed out; it is compared but kept out of the latency timer
+    private void finishShadow(String routeId, MirrorComparison.Sample sample, int status, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        sample.finish(MirrorComparison.Target.SHADOW, status, nanos);
+        if (status > 0) {
+            timer(routeId, MirrorComparison.Target.SHADOW).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String routeId, MirrorComparison.Target target) {
+        Timer[] routeTimers = timers.computeIfAbsent(routeId, id -> {
+            MirrorComparison.Target[] targets = MirrorComparison.Target.values();
+            Timer[] created = new Timer[targets.length];
+            for (MirrorComparison.Target each : targets) {
+                created[each.ordinal()] = Timer.builder("gateway.mirror.duration")
+                        .description("Latency of mirrored requests, primary and shadow side by side")
+                        .tag("route", id)
+                        .tag("target", each.name().toLowerCase(Locale.ROOT))
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry);
+            }
+            return created;
+        });
+        return routeTimers[target.ordinal()];
+    }
+
+    private static URI shadowUri(URI base, URI original) {
+        String path = original.getRawPath();
+        String query = original.getRawQuery();
+        String baseUri = base.toString();
+        if (baseUri.endsWith("/")) {
+            baseUri = baseUri.substring(0, baseUri.length() - 1);
+        }
+        return URI.create(baseUri + path + (query != null ? "?" + query : ""));
+    }
+}
@@ -0,0 +1,165 @@
+package com.microservices.apigateway.ratelimit;
+
+import com.microservices.apigateway.config.RateLimitProperties;
+import com.microservices.apigateway.security.VerifiedClaims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token-bucket rate limiting keyed by the caller's user id, or by client address on
+ * anonymous requests. Buckets live in a TokenBucketStore; a background sweeper reclaims idle ones.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final RateLimitProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final TokenBucketStore store;
+
+    private final ConcurrentMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sweeper;
+
+    private volatile int liveBuckets;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        if (properties.getDefaultLimit() != null) {
+            validate("default", properties.getDefaultLimit());
+        }
+        properties.getRoutes().forEach(this::validate);
+        if (properties.getIdleTimeout().toMillis() > TokenBucketStore.MAX_IDLE_MILLIS) {
+            throw new IllegalArgumentException("gateway.rate-limit.idle-timeout must be at most "
+                    + TimeUnit.MILLISECONDS.toMinutes(TokenBucketStore.MAX_IDLE_MILLIS) + " minutes");
+        }
+        this.store = new TokenBucketStore(properties.getStripes(), properties.getSlotsPerStripe());
+
+        Gauge.builder("gateway.rate-limit.buckets", this, limiter -> limiter.liveBuckets)
+                .description("Client buckets in use as of the last idle sweep")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Rate limiting disabled");
+            return;
+        }
+        long period = Math.max(1000, properties.getIdleTimeout().toMillis() / 2);
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+        log.info("Rate limiting enabled for routes {} ({} bucket slots)", properties.getRoutes().keySet(), store.capacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    public RateLimitProperties.Limit limitFor(String routeId) {
+        if (!properties.isEnabled() || routeId == null) {
+            return null;
+        }
+        RateLimitProperties.Limit limit = properties.getRoutes().get(routeId);
+        return limit != null ? limit : properties.getDefaultLimit();
+    }
+
+    /**
+     * Takes a token for this caller on the route; see TokenBucketStore.tryAcquire for the result encoding.
+     */
+    public long tryAcquire(String routeId, RateLimitProperties.Limit limit, VerifiedClaims claims,
+                           InetSocketAddress remoteAddress) {
+        long hash = claims != null
+                ? hash(routeId, 'u', claims.getUserId())
+                : hash(routeId, 'a', addressKey(remoteAddress));
+        long result = store.tryAcquire(hash, limit.getCapacity(), limit.getReplenishRate());
+        counters.computeIfAbsent(routeId, this::newCounters)[result >= 0 ? 0 : 1].increment();
+        return result;
+    }
+
+    private void sweep() {
+        try {
+            liveBuckets = store.sweep(properties.getIdleTimeout().toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Rate-limit bucket sweep failed", e);
+        }
+    }
+
+    private void validate(String name, RateLimitProperties.Limit limit) {
+        if (limit.getCapacity() < 1 || limit.getCapacity() > TokenBucketStore.MAX_CAPACITY || limit.getReplenishRate() < 1) {
+            throw new IllegalArgumentException("Invalid rate limit for " + name + ": capacity must be 1.."
+                    + TokenBucketStore.MAX_CAPACITY + " and replenish-rate at least 1");
+        }
+        long refillMillis = TimeUnit.SECONDS.toMillis(limit.getCapacity()) / limit.getReplenishRate();
+        if (refillMillis > properties.getIdleTimeout().toMillis()) {
+            log.warn("Rate limit for {} refills slower than gateway.rate-limit.idle-timeout; idle clients get a full bucket early", name);
+        }
+    }
+
+    private Counter[] newCounters(String routeId) {
+        return new Counter[]{counter(routeId, "allowed"), counter(routeId, "limited")};
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return Counter.builder("gateway.rate-limit.requests")
+                .description("Rate-limited route requests by outcome")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String addressKey(InetSocketAddress remoteAddress) {
+        if (remoteAddress == null) {
+            return "";
+        }
+        InetAddress address = remoteAddress.getAddress();
+        return address != null ? address.getHostAddress() : remoteAddress.getHostString();
+    }
+
+    // 64-bit FNV-1a over route id, key type and key, then a MurmurHash3 finalizer to spread the bits
+    static long hash(String routeId, char type, String key) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, routeId);
+        hash = (hash ^ type) * FNV_PRIME;
+        hash = mix(hash, key != null ? key : "");
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,196 @@
+package com.microservices.apigateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets in striped, open-addressed primitive arrays. Each bucket is one long:
+ * <pre>
+ *   [ key fingerprint : 22 | last refill, ms : 22 | milli-tokens : 20 ]
+ * </pre>
+ * so a single CAS updates the owner and its state together, and replacing an idle bucket can never
+ * race with an update to it. Nothing is allocated per request or per key, so 100k+ keys cost only
+ * the fixed arrays (8 bytes a slot).
+ * <p>
+ * The 64-bit key hash picks the slot (low bits), fingerprint (middle bits) and stripe (high bits).
+ * Timestamps wrap every ~70 minutes, which is why idle buckets must be swept well before that.
+ */
+public final class TokenBucketStore {
+
+    public static final long MILLIS_PER_TOKEN = 1000;
+
+    private static final int TOKEN_BITS = 20;
+    private static final int TIME_BITS = 22;
+    private static final int FINGERPRINT_BITS = 22;
+
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long FINGERPRINT_MASK = (1L << FINGERPRINT_BITS) - 1;
+
+    private static final int TIME_SHIFT = TOKEN_BITS;
+    private static final int FINGERPRINT_SHIFT = TOKEN_BITS + TIME_BITS;
+
+    private static final int SLOT_BITS = 20;
+    private static final int STRIPE_SHIFT = SLOT_BITS + FINGERPRINT_BITS;
+
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLIS_PER_TOKEN);
+
+    // Longest idle time a bucket may have before its timestamp becomes ambiguous
+    public static final long MAX_IDLE_MILLIS = TIME_MASK / 2;
+
+    private static final int PROBE_WINDOW = 16;
+
+    // Returned by consume() when the slot was taken over by another key mid-update
+    private static final long RETRY = Long.MIN_VALUE;
+
+    private final AtomicLongArray[] stripes;
+
+    private final int stripeMask;
+
+    private final int slotMask;
+
+    private final LongSupplier nanoClock;
+
+    private final long originNanos;
+
+    public TokenBucketStore(int stripes, int slotsPerStripe) {
+        this(stripes, slotsPerStripe, System::nanoTime);
+    }
+
+    // The clock is a parameter so tests can step time, including across the timestamp wrap
+    TokenBucketStore(int stripes, int slotsPerStripe, LongSupplier nanoClock) {
+        if (Integer.bitCount(stripes) != 1 || Integer.bitCount(slotsPerStripe) != 1
+                || slotsPerStripe < PROBE_WINDOW || slotsPerStripe > (1 << SLOT_BITS)) {
+            throw new IllegalArgumentException("stripes and slots-per-stripe must be powers of two, slots between "
+                    + PROBE_WINDOW + " and " + (1 << SLOT_BITS));
+        }
+        this.stripes = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new AtomicLongArray(slotsPerStripe);
+        }
+        this.stripeMask = stripes - 1;
+        this.slotMask = slotsPerStripe - 1;
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token from the bucket for the key hash, creating a full bucket on first use.
+     *
+     * @return remaining milli-tokens (>= 0) when allowed, or minus the milliseconds until a token is
+     *         available when the bucket is empty
+     */
+    public long tryAcquire(long hash, int capacity, int refillPerSecond) {
+        AtomicLongArray slots = stripes[(int) (hash >>> STRIPE_SHIFT) & stripeMask];
+        long fingerprint = fingerprint(hash);
+        int home = (int) hash & slotMask;
+        long now = nowMillis();
+        long full = capacity * MILLIS_PER_TOKEN;
+
+        while (true) {
+            int empty = -1;
+            int oldest = -1;
+            long oldestAge = -1;
+            for (int probe = 0; probe < PROBE_WINDOW; probe++) {
+                int slot = (home + probe) & slotMask;
+                long state = slots.get(slot);
+                if (state == 0) {
+                    if (empty < 0) {
+                        empty = slot;
+                    }
+                } else if (state >>> FINGERPRINT_SHIFT == fingerprint) {
+                    long result = consume(slots, slot, fingerprint, now, full, refillPerSecond);
+                    if (result != RETRY) {
+                        return result;
+                    }
+                } else {
+                    long age = elapsed(now, state);
+                    if (age > oldestAge) {
+                        oldestAge = age;
+                        oldest = slot;
+                    }
+                }
+            }
+
+            // New key: claim the first free slot, or displace the least recently used bucket in the window.
+            // Losing the CAS means another thread got there first, possibly with this key, so rescan.
+            int slot = empty >= 0 ? empty : oldest;
+            long expected = empty >= 0 ? 0 : slots.get(oldest);
+            if (slot >= 0 && slots.compareAndSet(slot, expected, pack(fingerprint, now, full - MILLIS_PER_TOKEN))) {
+                return full - MILLIS_PER_TOKEN;
+            }
+        }
+    }
+
+    /**
+     * Clears buckets idle for longer than the given time (they would be full again anyway).
+     *
+     * @return the number of buckets still in use
+     */
+    public int sweep(long idleMillis) {
+        long now = nowMillis();
+        // Raw age (not elapsed()) so buckets idle past the ambiguity point are still reclaimed; the upper
+        // bound skips buckets refilled by a request thread after this sweep read the clock
+        long recentlyUpdated = TIME_MASK - TimeUnit.SECONDS.toMillis(1);
+        int live = 0;
+        for (AtomicLongArray slots : stripes) {
+            for (int slot = 0; slot < slots.length(); slot++) {
+                long state = slots.get(slot);
+                if (state == 0) {
+                    continue;
+                }
+                long age = (now - ((state >>> TIME_SHIFT) & TIME_MASK)) & TIME_MASK;
+                if (age > idleMillis && age < recentlyUpdated) {
+                    slots.compareAndSet(slot, state, 0);
+                } else {
+                    live++;
+                }
+            }
+        }
+        return live;
+    }
+
+    public int capacity() {
+        return stripes.length * (slotMask + 1);
+    }
+
+    private long consume(AtomicLongArray slots, int slot, long fingerprint, long now, long full, int refillPerSecond) {
+        while (true) {
+            long state = slots.get(slot);
+            if (state >>> FINGERPRINT_SHIFT != fingerprint) {
+                return RETRY;
+            }
+            long elapsed = elapsed(now, state);
+            // refillPerSecond tokens/s is exactly refillPerSecond milli-tokens/ms, so no fractions are lost
+            long tokens = Math.min(full, (state & TOKEN_MASK) + elapsed * refillPerSecond);
+            if (tokens < MILLIS_PER_TOKEN) {
+                return -Math.max(1, (MILLIS_PER_TOKEN - tokens + refillPerSecond - 1) / refillPerSecond);
+            }
+            long refilledAt = elapsed > 0 ? now : (state >>> TIME_SHIFT) & TIME_MASK;
+            if (slots.compareAndSet(slot, state, pack(fingerprint, refilledAt, tokens - MILLIS_PER_TOKEN))) {
+                return tokens - MILLIS_PER_TOKEN;
+            }
+        }
+    }
+
+    private long elapsed(long now, long state) {
+        long elapsed = (now - ((state >>> TIME_SHIFT) & TIME_MASK)) & TIME_MASK;
+        // A thread that read the clock just before another one updated the bucket sees a "negative" gap
+        return elapsed > MAX_IDLE_MILLIS ? 0 : elapsed;
+    }
+
+    private long nowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - originNanos) & TIME_MASK;
+    }
+
+    private static long fingerprint(long hash) {
+        long fingerprint = (hash >>> SLOT_BITS) & FINGERPRINT_MASK;
+        // Zero is reserved for empty slots
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+
+    private static long pack(long fingerprint, long time, long milliTokens) {
+        return fingerprint << FINGERPRINT_SHIFT | time << TIME_SHIFT | milliTokens;
+    }
+}
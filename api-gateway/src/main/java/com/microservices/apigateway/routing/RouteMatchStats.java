@@ -0,0 +1,35 @@
+package com.microservices.apigateway.routing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lookup count and time for one route (or for misses); striped counters so event-loop threads don't contend
+public final class RouteMatchStats {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public Map<String, Object> snapshot() {
+        long matches = count.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", matches);
+        snapshot.put("meanMicros", matches > 0 ? totalNanos.sum() / matches / 1000.0 : 0.0);
+        snapshot.put("maxMicros", maxNanos.get() / 1000.0);
+        return snapshot;
+    }
+}
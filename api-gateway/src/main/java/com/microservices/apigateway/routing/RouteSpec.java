@@ -0,0 +1,31 @@
+package com.microservices.apigateway.routing;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// One entry of the route file (see gateway-routes.yml)
+@Data
+public class RouteSpec {
+
+    private String id;
+
+    private String uri;
+
+    // Literal segments, {name} or * for one segment, and an optional trailing **
+    private String path;
+
+    // Empty means any method
+    private List<String> methods = new ArrayList<>();
+
+    // Extra Spring Cloud Gateway predicates in shortcut form, e.g. Header=X-Beta, true
+    private List<String> predicates = new ArrayList<>();
+
+    // Gateway filters in shortcut form, e.g. CircuitBreaker=user-service,forward:/fallback
+    private List<String> filters = new ArrayList<>();
+
+    private Map<String, String> metadata = new LinkedHashMap<>();
+}
@@ -0,0 +1,152 @@
+package com.microservices.apigateway.routing;
+
+import com.microservices.apigateway.util.PathTrie;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable, compiled form of the route file. Routes are indexed by path pattern in a PathTrie, so a
+ * lookup costs one trie walk plus a method check; only routes that declare extra predicates evaluate
+ * them. Routes sharing a pattern are tried in file order, and the most specific pattern wins.
+ */
+public final class RouteTable {
+
+    private final PathTrie<CompiledRoute[]> trie;
+
+    private final List<CompiledRoute> routes;
+
+    private final long version;
+
+    private final Instant loadedAt;
+
+    RouteTable(PathTrie<CompiledRoute[]> trie, List<CompiledRoute> routes, long version, Instant loadedAt) {
+        this.trie = trie;
+        this.routes = routes;
+        this.version = version;
+        this.loadedAt = loadedAt;
+    }
+
+    public List<CompiledRoute> routes() {
+        return routes;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public Mono<CompiledRoute> lookup(ServerWebExchange exchange) {
+        return lookup(exchange, exchange.getRequest().getPath().pathWithinApplication().value(),
+                exchange.getRequest().getMethod(), null);
+    }
+
+    private Mono<CompiledRoute> lookup(ServerWebExchange exchange, String path, HttpMethod method,
+                                       Set<CompiledRoute[]> rejected) {
+        CompiledRoute[] candidates = trie.match(path, group -> accepts(group, method)
+                && (rejected == null || !rejected.contains(group)));
+        return candidates != null ? evaluate(exchange, path, method, candidates, 0, rejected) : Mono.empty();
+    }
+
+    private Mono<CompiledRoute> evaluate(ServerWebExchange exchange, String path, HttpMethod method,
+                                         CompiledRoute[] candidates, int index, Set<CompiledRoute[]> rejected) {
+        for (int i = index; i < candidates.length; i++) {
+            CompiledRoute candidate = candidates[i];
+            if (!candidate.accepts(method)) {
+                continue;
+            }
+            if (!candidate.conditional) {
+                return candidate.matched;
+            }
+            int next = i + 1;
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR, candidate.route.getId());
+            return Mono.from(candidate.route.getPredicate().apply(exchange))
+                    .flatMap(matched -> matched
+                            ? candidate.matched
+                            : evaluate(exchange, path, method, candidates, next, rejected));
+        }
+        // Every route on this pattern declined the request; fall back to the next most specific pattern
+        Set<CompiledRoute[]> skip = rejected != null ? rejected : Collections.newSetFromMap(new IdentityHashMap<>());
+        skip.add(candidates);
+        return lookup(exchange, path, method, skip);
+    }
+
+    private static boolean accepts(CompiledRoute[] group, HttpMethod method) {
+        for (CompiledRoute route : group) {
+            if (route.accepts(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static final class CompiledRoute {
+
+        private final Route route;
+
+        private final String path;
+
+        // Null accepts any method
+        private final HttpMethod[] methods;
+
+        // True when the route declares predicates beyond path and method
+        private final boolean conditional;
+
+        private final RouteMatchStats stats;
+
+        // Reused for every match, so the common case returns without allocating
+        private final Mono<CompiledRoute> matched;
+
+        CompiledRoute(Route route, String path, HttpMethod[] methods, boolean conditional, RouteMatchStats stats) {
+            this.route = route;
+            this.path = path;
+            this.methods = methods;
+            this.conditional = conditional;
+            this.stats = stats;
+            this.matched = Mono.just(this);
+        }
+
+        public Route route() {
+            return route;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        public HttpMethod[] methods() {
+            return methods;
+        }
+
+        public boolean conditional() {
+            return conditional;
+        }
+
+        public RouteMatchStats stats() {
+            return stats;
+        }
+
+        boolean accepts(HttpMethod method) {
+            if (methods == null) {
+                return true;
+            }
+            for (HttpMethod candidate : methods) {
+                if (candidate.equals(method)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservices.apigateway.routing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// GET /actuator/routetable lists the compiled routes with per-route match counts and lookup times,
+// POST /actuator/routetable reloads the route file immediately
+@Component
+@Endpoint(id = "routetable")
+public class RouteTableEndpoint {
+
+    private final RouteTableRegistry registry;
+
+    public RouteTableEndpoint(RouteTableRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> routes() {
+        RouteTable table = registry.current();
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (RouteTable.CompiledRoute compiled : table.routes()) {
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("id", compiled.route().getId());
+            route.put("path", compiled.path());
+            route.put("methods", compiled.methods() != null ? Arrays.toString(compiled.methods()) : "*");
+            route.put("uri", compiled.route().getUri().toString());
+            route.put("conditional", compiled.conditional());
+            route.put("matches", compiled.stats().snapshot());
+            routes.add(route);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("source", registry.location());
+        result.put("version", table.version());
+        result.put("loadedAt", table.loadedAt().toString());
+        result.put("routes", routes);
+        result.put("misses", registry.misses().snapshot());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            RouteTable table = registry.reload();
+            result.put("reloaded", true);
+            result.put("version", table.version());
+            result.put("routes", table.routes().size());
+        } catch (IllegalStateException e) {
+            result.put("reloaded", false);
+            result.put("version", registry.current().version());
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+}
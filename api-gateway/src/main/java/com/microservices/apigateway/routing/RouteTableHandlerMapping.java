@@ -0,0 +1,47 @@
+package com.microservices.apigateway.routing;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves gateway routes from the compiled RouteTable instead of testing every route's predicates in
+ * turn. It keeps the stock mapping's order and behaviour (management port, CORS, exchange attributes).
+ * The stock RoutePredicateHandlerMapping is still registered but never matches: with the route file as
+ * the only route source, its RouteLocator is empty.
+ */
+@Component
+public class RouteTableHandlerMapping extends RoutePredicateHandlerMapping {
+
+    private final RouteTableRegistry registry;
+
+    public RouteTableHandlerMapping(FilteringWebHandler webHandler, RouteTableRegistry registry,
+                                    GlobalCorsProperties globalCorsProperties, Environment environment) {
+        super(webHandler, () -> Flux.fromIterable(registry.current().routes()).map(RouteTable.CompiledRoute::route),
+                globalCorsProperties, environment);
+        this.registry = registry;
+    }
+
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        long start = System.nanoTime();
+        return registry.current().lookup(exchange)
+                .map(compiled -> {
+                    compiled.stats().record(System.nanoTime() - start);
+                    validateRoute(compiled.route(), exchange);
+                    return compiled.route();
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> registry.misses().record(System.nanoTime() - start)));
+    }
+
+    @Override
+    protected String getSimpleName() {
+        return "RouteTableHandlerMapping";
+    }
+}
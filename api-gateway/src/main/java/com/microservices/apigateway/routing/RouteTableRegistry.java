@@ -0,0 +1,288 @@
+package com.microservices.apigateway.routing;
+
+import com.microservices.apigateway.config.RouteTableProperties;
+import com.microservices.apigateway.routing.RouteTable.CompiledRoute;
+import com.microservices.apigateway.util.PathTrie;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the gateway's route table. The route file is compiled into an immutable RouteTable held in a
+ * volatile field; a background thread recompiles it when the file changes and swaps the reference, so
+ * lookups never lock and in-flight requests keep the Route they already matched. An invalid file is
+ * rejected and the previous table stays in service.
+ */
+@Component
+@Slf4j
+public class RouteTableRegistry {
+
+    private final RouteTableProperties properties;
+
+    private final ResourceLoader resourceLoader;
+
+    private final Environment environment;
+
+    // Turns definitions into Routes with the same predicate and filter factories the stock locator uses
+    private final RouteDefinitionRouteLocator routeFactory;
+
+    private final ConcurrentMap<String, RouteMatchStats> stats = new ConcurrentHashMap<>();
+
+    private final RouteMatchStats misses = new RouteMatchStats();
+
+    private volatile List<RouteDefinition> compiling = List.of();
+
+    private volatile RouteTable table;
+
+    private long lastModified;
+
+    // The location the current table was read from: the configured one, or the fallback while it is missing
+    private volatile String activeLocation;
+
+    private ScheduledExecutorService reloader;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public RouteTableRegistry(RouteTableProperties properties, ResourceLoader resourceLoader, Environment environment,
+                              List<RoutePredicateFactory> predicateFactories, List<GatewayFilterFactory> filterFactories,
+                              GatewayProperties gatewayProperties, ConfigurationService configurationService) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.environment = environment;
+        this.routeFactory = new RouteDefinitionRouteLocator(() -> Flux.fromIterable(compiling),
+                predicateFactories, filterFactories, gatewayProperties, configurationService);
+
+        // Fail startup on a bad route file; later reloads keep the previous table instead
+        Resource resource = resolve();
+        this.lastModified = lastModified(resource);
+        this.table = load(resource, 1);
+        log.info("🧭 Loaded {} routes from {}", table.routes().size(), activeLocation);
+        if (!activeLocation.equals(properties.getLocation())) {
+            log.warn("Route file {} not found, using {}; create it to change routes at runtime",
+                    properties.getLocation(), activeLocation);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        long period = properties.getReloadInterval().toMillis();
+        if (period <= 0) {
+            log.info("Route file hot reload disabled");
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "route-table-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloader.scheduleWithFixedDelay(this::reloadIfModified, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    public RouteTable current() {
+        return table;
+    }
+
+    public RouteMatchStats misses() {
+        return misses;
+    }
+
+    public String location() {
+        return activeLocation;
+    }
+
+    /**
+     * Recompiles the route file and publishes the new table.
+     *
+     * @throws IllegalStateException if the file cannot be read or compiled; the current table is kept
+     */
+    public synchronized RouteTable reload() {
+        Resource resource = resolve();
+        lastModified = lastModified(resource);
+        RouteTable previous = table;
+        try {
+            table = load(resource, previous.version() + 1);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid route file " + activeLocation
+                    + ", keeping table version " + previous.version() + ": " + e.getMessage(), e);
+        }
+        log.info("🧭 Reloaded {} routes from {} (version {})", table.routes().size(),
+                activeLocation, table.version());
+        return table;
+    }
+
+    private void reloadIfModified() {
+        try {
+            Resource resource = resolve();
+            long modified = lastModified(resource);
+            if (modified != lastModified) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ {}", e.getMessage());
+        }
+    }
+
+    private RouteTable load(Resource resource, long version) {
+        List<RouteSpec> specs = read(resource);
+        if (specs.isEmpty()) {
+            throw new IllegalArgumentException("No routes defined");
+        }
+
+        List<RouteDefinition> definitions = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (RouteSpec spec : specs) {
+            validate(spec);
+            if (!ids.add(spec.getId())) {
+                throw new IllegalArgumentException("Duplicate route id: " + spec.getId());
+            }
+            definitions.add(definition(spec));
+        }
+
+        Map<String, Route> routes = new HashMap<>();
+        compiling = definitions;
+        try {
+            for (Route route : routeFactory.getRoutes().collectList().block()) {
+                routes.put(route.getId(), route);
+            }
+        } finally {
+            compiling = List.of();
+        }
+
+        PathTrie.Builder<CompiledRoute[]> trie = PathTrie.builder(RouteTableRegistry::concat);
+        List<CompiledRoute> compiled = new ArrayList<>();
+        for (RouteSpec spec : specs) {
+            CompiledRoute route = new CompiledRoute(routes.get(spec.getId()), spec.getPath(), methods(spec),
+                    !spec.getPredicates().isEmpty(), stats.computeIfAbsent(spec.getId(), id -> new RouteMatchStats()));
+            trie.add(spec.getPath(), new CompiledRoute[]{route});
+            compiled.add(route);
+        }
+        stats.keySet().retainAll(ids);
+        return new RouteTable(trie.build(), List.copyOf(compiled), version, Instant.now());
+    }
+
+    private List<RouteSpec> read(Resource resource) {
+        List<PropertySource<?>> sources;
+        try {
+            sources = new YamlPropertySourceLoader().load(activeLocation, resource);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read route file: " + e.getMessage(), e);
+        }
+        // ${...} placeholders resolve against the environment
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources),
+                new PropertySourcesPlaceholdersResolver(environment));
+        return binder.bind("routes", Bindable.listOf(RouteSpec.class)).orElseGet(List::of);
+    }
+
+    private static void validate(RouteSpec spec) {
+        if (!StringUtils.hasText(spec.getId())) {
+            throw new IllegalArgumentException("Route id is required");
+        }
+        if (!StringUtils.hasText(spec.getUri())) {
+            throw new IllegalArgumentException("Route " + spec.getId() + " needs a uri");
+        }
+        if (spec.getPath() == null || !spec.getPath().startsWith("/")) {
+            throw new IllegalArgumentException("Route " + spec.getId() + " needs a path starting with /");
+        }
+        List<String> segments = PathTrie.segments(spec.getPath());
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            boolean pattern = segment.indexOf('*') >= 0 || segment.indexOf('{') >= 0;
+            if (pattern && !PathTrie.isWildcard(segment) && !("**".equals(segment) && i == segments.size() - 1)) {
+                throw new IllegalArgumentException("Route " + spec.getId() + " has an unsupported path segment '"
+                        + segment + "'; use {name}, {name:regex}, * or a trailing **");
+            }
+        }
+    }
+
+    private static RouteDefinition definition(RouteSpec spec) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(spec.getId());
+        definition.setUri(URI.create(spec.getUri()));
+        // Path and method are matched by the trie; only extra predicates become part of the Route
+        spec.getPredicates().forEach(text -> definition.getPredicates().add(new PredicateDefinition(text)));
+        spec.getFilters().forEach(text -> definition.getFilters().add(new FilterDefinition(text)));
+        definition.setMetadata(new LinkedHashMap<>(spec.getMetadata()));
+        return definition;
+    }
+
+    private static HttpMethod[] methods(RouteSpec spec) {
+        if (spec.getMethods().isEmpty()) {
+            return null;
+        }
+        return spec.getMethods().stream()
+                .map(method -> HttpMethod.valueOf(method.trim().toUpperCase(Locale.ROOT)))
+                .toArray(HttpMethod[]::new);
+    }
+
+    private static CompiledRoute[] concat(CompiledRoute[] existing, CompiledRoute[] added) {
+        CompiledRoute[] merged = Arrays.copyOf(existing, existing.length + added.length);
+        System.arraycopy(added, 0, merged, existing.length, added.length);
+        return merged;
+    }
+
+    // The configured location if it exists, else the fallback; appearing or disappearing changes lastModified
+    private Resource resolve() {
+        Resource resource = resourceLoader.getResource(properties.getLocation());
+        String location = properties.getLocation();
+        if (!resource.exists() && StringUtils.hasText(properties.getFallbackLocation())) {
+            resource = resourceLoader.getResource(properties.getFallbackLocation());
+            location = properties.getFallbackLocation();
+        }
+        activeLocation = location;
+        return resource;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
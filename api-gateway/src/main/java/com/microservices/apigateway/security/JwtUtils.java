@@ -12,23 +12,57 @@ import java.nio.charset.StandardCharsets;
 @Component
 @Slf4j
 public class JwtUtils {
-    
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-    
-    @Value("${jwt.expiration}")
-    private int jwtExpirationMs;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+
+    private final int jwtExpirationMs;
+
+    // Key derivation and parser construction happen once; JwtParser is immutable and thread-safe
+    private final SecretKey signingKey;
+
+    private final JwtParser jwtParser;
+
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration}") int jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * Verifies the signature and expiry of the token once and extracts every claim the gateway needs.
+     * Returns null when the token is not valid.
+     */
+    public VerifiedClaims verifyAndExtract(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            return new VerifiedClaims(
+                    claims.getSubject(),
+                    claims.get("userId", String.class),
+                    claims.get("role", String.class),
+                    claims.getId(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0,
+                    claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+        } catch (SecurityException e) {
+            log.error("Invalid JWT signature: {}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            log.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            log.error("Invalid JWT claims: {}", e.getMessage());
+        }
+
+        return null;
     }
-    
+
     public String getEmailFromJwtToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
+            return jwtParser.parseClaimsJws(token)
                     .getBody()
                     .getSubject();
         } catch (Exception e) {
@@ -36,71 +70,41 @@ public class JwtUtils {
             return null;
         }
     }
-    
+
     public String getUserIdFromJwtToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
             return claims.get("userId", String.class);
         } catch (Exception e) {
             log.error("Error extracting user ID from JWT token: {}", e.getMessage());
             return null;
         }
     }
-    
+
     public String getRoleFromJwtToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
             return claims.get("role", String.class);
         } catch (Exception e) {
             log.error("Error extracting role from JWT token: {}", e.getMessage());
             return null;
         }
     }
-    
+
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException e) {
-            log.error("Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            log.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.error("JWT claims string is empty: {}", e.getMessage());
-        }
-        
-        return false;
+        return verifyAndExtract(authToken) != null;
     }
-    
+
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
             return claims.getExpiration().before(new java.util.Date());
         } catch (Exception e) {
             log.error("Error checking token expiration: {}", e.getMessage());
             return true;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.microservices.apigateway.security;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One page of user-service's GET /internal/revocations feed
+@Data
+public class RevocationPage {
+
+    private List<Entry> revocations = new ArrayList<>();
+
+    private long cursor;
+
+    private boolean more;
+
+    @Data
+    public static class Entry {
+
+        private long id;
+
+        // TOKEN (revokes tokenId) or USER (revokes the user's tokens issued before notBefore)
+        private String type;
+
+        private String tokenId;
+
+        private String userId;
+
+        private Long notBefore;
+
+        private long expiresAt;
+    }
+}
@@ -0,0 +1,191 @@
+package com.microservices.apigateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.apigateway.config.RevocationProperties;
+import com.microservices.apigateway.loadbalancer.LoadBalancerRegistry;
+import com.microservices.apigateway.loadbalancer.UpstreamInstance;
+import com.microservices.apigateway.upstream.UpstreamHttpClients;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps TokenRevocationList in step with user-service's revocation feed. Every interval it pulls the
+ * entries after its cursor; every full-sync-interval (and when the Bloom filter outgrows its sizing)
+ * it reads the whole feed and swaps in a rebuilt denylist, dropping expired entries and covering any
+ * entry an incremental read missed. Incremental reads start reread-window early, because feed ids are
+ * taken at insert and a later commit can surface behind the cursor. Syncs run one at a time on Reactor's timer and the upstream event
+ * loops. When user-service is unreachable the last synced denylist stays in force.
+ */
+@Component
+@Slf4j
+public class RevocationSync {
+
+    private final RevocationProperties properties;
+
+    private final TokenRevocationList revocationList;
+
+    private final LoadBalancerRegistry loadBalancerRegistry;
+
+    private final UpstreamHttpClients upstreamHttpClients;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter failures;
+
+    private volatile boolean running;
+
+    private volatile Disposable pending;
+
+    private volatile long lastSuccessMillis;
+
+    // Only touched by the sync in progress, and syncs never overlap
+    private long cursor;
+
+    private long lastFullSyncNanos;
+
+    private boolean synced;
+
+    public RevocationSync(RevocationProperties properties, TokenRevocationList revocationList,
+                          LoadBalancerRegistry loadBalancerRegistry, UpstreamHttpClients upstreamHttpClients,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revocationList = revocationList;
+        this.loadBalancerRegistry = loadBalancerRegistry;
+        this.upstreamHttpClients = upstreamHttpClients;
+        this.objectMapper = objectMapper;
+        this.failures = Counter.builder("gateway.revocation.sync.failures")
+                .description("Revocation syncs that failed; the previous denylist stays in force")
+                .register(meterRegistry);
+        Gauge.builder("gateway.revocation.sync.age", this,
+                        sync -> sync.lastSuccessMillis == 0
+                                ? Double.NaN
+                                : (System.currentTimeMillis() - sync.lastSuccessMillis) / 1000.0)
+                .description("Seconds since the denylist was last synced")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Token revocation sync disabled");
+            return;
+        }
+        running = true;
+        schedule(Duration.ZERO);
+        log.info("🚫 Syncing token revocations from {}{} every {}", properties.getServiceId(), properties.getPath(),
+                properties.getInterval());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Disposable current = pending;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private void schedule(Duration delay) {
+        if (!running) {
+            return;
+        }
+        pending = Mono.delay(delay)
+                .then(Mono.defer(this::sync))
+                .onErrorResume(e -> {
+                    failures.increment();
+                    log.warn("⚠️ Token revocation sync failed, keeping {} entries: {}", revocationList.size(),
+                            e.toString());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> {
+                    if (signal != SignalType.CANCEL) {
+                        schedule(properties.getInterval());
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> sync() {
+        long now = System.nanoTime();
+        boolean full = !synced
+                || now - lastFullSyncNanos >= properties.getFullSyncInterval().toNanos()
+                || revocationList.isOverCapacity();
+        if (full) {
+            return fetchAll(0, Duration.ZERO)
+                    .collectList()
+                    .doOnNext(pages -> {
+                        List<RevocationPage.Entry> entries = pages.stream()
+                                .flatMap(page -> page.getRevocations().stream())
+                                .toList();
+                        revocationList.replace(entries);
+                        cursor = pages.get(pages.size() - 1).getCursor();
+                        lastFullSyncNanos = now;
+                        synced = true;
+                        lastSuccessMillis = System.currentTimeMillis();
+                        log.debug("🚫 Revocation denylist rebuilt with {} live entries", revocationList.size());
+                    })
+                    .then();
+        }
+        // Re-read entries are already in the denylist and are added again harmlessly
+        return fetchAll(cursor, properties.getRereadWindow())
+                .doOnNext(page -> {
+                    revocationList.add(page.getRevocations());
+                    cursor = Math.max(cursor, page.getCursor());
+                })
+                .then(Mono.fromRunnable(() -> lastSuccessMillis = System.currentTimeMillis()));
+    }
+
+    // Only the first page reaches back by the reread window; later pages follow the cursor
+    private Flux<RevocationPage> fetchAll(long since, Duration reread) {
+        return fetch(since, reread).expand(page -> page.isMore() ? fetch(page.getCursor(), Duration.ZERO) : Mono.empty());
+    }
+
+    private Mono<RevocationPage> fetch(long since, Duration reread) {
+        return Mono.defer(() -> {
+            UpstreamInstance instance = pickInstance();
+            URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                    .path(properties.getPath())
+                    .queryParam("since", since)
+                    .queryParam("rereadMs", reread.toMillis())
+                    .queryParam("limit", properties.getPageSize())
+                    .build()
+                    .toUri();
+            return upstreamHttpClients.forService(properties.getServiceId()).get()
+                    .uri(uri)
+                    .responseSingle((response, body) -> response.status().code() == 200
+                            ? body.asByteArray()
+                            : Mono.error(new IllegalStateException(uri + " answered HTTP " + response.status().code())))
+                    .timeout(properties.getTimeout())
+                    .flatMap(bytes -> Mono.fromCallable(() -> objectMapper.readValue(bytes, RevocationPage.class)));
+        });
+    }
+
+    // Any instance passing its health probes; failures are retried on the next interval, likely elsewhere
+    private UpstreamInstance pickInstance() {
+        List<UpstreamInstance> candidates = Arrays.stream(
+                        loadBalancerRegistry.balancer(properties.getServiceId()).instances())
+                .filter(UpstreamInstance::isProbedHealthy)
+                .toList();
+        if (candidates.isEmpty()) {
+            throw new IllegalStateException("No healthy " + properties.getServiceId() + " instance");
+        }
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.microservices.apigateway.security;
+
+import com.microservices.apigateway.util.PathTrie;
+import lombok.Value;
+
+// A compiled authorization decision for one path pattern
+@Value
+public class RoutePolicy {
+
+    public enum Access {
+        PUBLIC,
+        AUTHENTICATED,
+        ADMIN,
+        // Only the user whose id is in the owner path segment (or an ADMIN) may access
+        OWNER
+    }
+
+    String pattern;
+
+    Access access;
+
+    // Index of the path segment holding the owner id, -1 unless access is OWNER
+    int ownerSegment;
+
+    public boolean isPublic() {
+        return access == Access.PUBLIC;
+    }
+
+    public boolean permits(String path, VerifiedClaims claims) {
+        switch (access) {
+            case ADMIN:
+                return claims.isAdmin();
+            case OWNER:
+                return claims.isAdmin() || segmentEquals(path, ownerSegment, claims.getUserId());
+            default:
+                return true;
+        }
+    }
+
+    // Compares one path segment in place so the check does not allocate
+    private static boolean segmentEquals(String path, int segment, String value) {
+        int index = 0;
+        int start = PathTrie.skipSlashes(path, 0);
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (index == segment) {
+                return end - start == value.length() && path.regionMatches(start, value, 0, value.length());
+            }
+            index++;
+            start = PathTrie.skipSlashes(path, end);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package com.microservices.apigateway.security;
+
+import com.microservices.apigateway.config.AuthorizationProperties;
+import com.microservices.apigateway.util.PathTrie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Compiles the gateway.auth.* policy table into a PathTrie and answers one lookup per request.
+ * The compiled table is swapped atomically when the configuration changes (POST /actuator/refresh),
+ * so policies can be edited without restarting the gateway.
+ */
+@Component
+@Slf4j
+public class RoutePolicyEngine {
+
+    private static final String PREFIX = "gateway.auth";
+
+    private final Environment environment;
+
+    private volatile CompiledPolicies compiled;
+
+    public RoutePolicyEngine(Environment environment) {
+        this.environment = environment;
+        this.compiled = compile(bind());
+        log.info("🔐 Loaded {} route authorization policies", compiled.trie.size());
+    }
+
+    public RoutePolicy match(String path) {
+        return compiled.match(path);
+    }
+
+    public int size() {
+        return compiled.trie.size();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX))) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        try {
+            compiled = compile(bind());
+            log.info("🔐 Reloaded {} route authorization policies", compiled.trie.size());
+        } catch (RuntimeException e) {
+            // Keep serving with the previous table rather than failing open or closed
+            log.error("❌ Invalid route authorization policies, keeping previous table: {}", e.getMessage());
+        }
+    }
+
+    private AuthorizationProperties bind() {
+        return Binder.get(environment)
+                .bind(PREFIX, AuthorizationProperties.class)
+                .orElseGet(AuthorizationProperties::new);
+    }
+
+    public static CompiledPolicies compile(AuthorizationProperties properties) {
+        if (properties.getPolicies().isEmpty()) {
+            log.warn("⚠️ No gateway.auth.policies configured, every path uses {}", properties.getDefaultAccess());
+        }
+
+        PathTrie.Builder<RoutePolicy> builder = PathTrie.builder();
+        for (AuthorizationProperties.Policy policy : properties.getPolicies()) {
+            if (!StringUtils.hasText(policy.getPath())) {
+                throw new IllegalArgumentException("Policy path is required");
+            }
+            int ownerSegment = policy.getAccess() == RoutePolicy.Access.OWNER
+                    ? ownerSegment(policy.getPath(), policy.getOwner())
+                    : -1;
+            try {
+                builder.add(policy.getPath(), new RoutePolicy(policy.getPath(), policy.getAccess(), ownerSegment));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(e.getMessage() + ": " + policy.getPath(), e);
+            }
+        }
+
+        RoutePolicy defaultPolicy = new RoutePolicy("/**", properties.getDefaultAccess(), -1);
+        return new CompiledPolicies(builder.build(), defaultPolicy);
+    }
+
+    private static int ownerSegment(String pattern, String owner) {
+        List<String> segments = PathTrie.segments(pattern);
+        int found = -1;
+        for (int i = 0; i < segments.size(); i++) {
+            String name = PathTrie.variableName(segments.get(i));
+            if (name != null && (owner == null || owner.equals(name))) {
+                found = i;
+            }
+        }
+        if (found < 0) {
+            throw new IllegalArgumentException("OWNER policy needs a path variable"
+                    + (owner != null ? " named " + owner : "") + ": " + pattern);
+        }
+        return found;
+    }
+
+    public static final class CompiledPolicies {
+
+        private final PathTrie<RoutePolicy> trie;
+
+        private final RoutePolicy defaultPolicy;
+
+        private CompiledPolicies(PathTrie<RoutePolicy> trie, RoutePolicy defaultPolicy) {
+            this.trie = trie;
+            this.defaultPolicy = defaultPolicy;
+        }
+
+        public RoutePolicy match(String path) {
+            RoutePolicy policy = trie.match(path);
+            return policy != null ? policy : defaultPolicy;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.apigateway.security;
+
+import lombok.Value;
+
+// Claims of a token whose signature and expiry have already been checked by JwtUtils
+@Value
+public class VerifiedClaims {
+
+    String email;
+
+    String userId;
+
+    String role;
+
+    // "jti" claim, null on tokens minted before user-service added it
+    String tokenId;
+
+    // Epoch millis of the token's "iat" claim, 0 when absent
+    long issuedAt;
+
+    // Epoch millis of the token's "exp" claim
+    long expiresAt;
+
+    public boolean isComplete() {
+        return email != null && userId != null && role != null;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -0,0 +1,126 @@
+package com.microservices.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified claims in front of JwtUtils, keyed by the SHA-256 digest of the raw token
+ * so the tokens themselves are never retained. Each entry expires at the token's own "exp" claim.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    // Rough per-entry overhead: Caffeine node, digest key string and VerifiedClaims object headers
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtils jwtUtils;
+
+    private final boolean enabled;
+
+    private final Cache<String, VerifiedClaims> cache;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-bytes:16777216}") long maxBytes) {
+        this.jwtUtils = jwtUtils;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, VerifiedClaims claims) -> weigh(key, claims))
+                .expireAfter(new Expiry<String, VerifiedClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+                        long remainingMs = claims.getExpiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedClaims claims, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+        log.info("Verified token cache {} (max {} bytes)", enabled ? "enabled" : "disabled", maxBytes);
+    }
+
+    /**
+     * Returns the verified claims for the token, or null when the token is invalid.
+     * Only valid tokens are cached, so a bad token is always re-checked by JwtUtils.
+     */
+    public VerifiedClaims verify(String token) {
+        if (!enabled) {
+            return jwtUtils.verifyAndExtract(token);
+        }
+
+        String key = digest(token);
+        VerifiedClaims cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedClaims claims = jwtUtils.verifyAndExtract(token);
+        if (claims != null) {
+            cache.put(key, claims);
+        }
+        return claims;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static int weigh(String key, VerifiedClaims claims) {
+        return ENTRY_OVERHEAD_BYTES
+                + key.length()
+                + length(claims.getEmail())
+                + length(claims.getUserId())
+                + length(claims.getRole())
+                + length(claims.getTokenId());
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
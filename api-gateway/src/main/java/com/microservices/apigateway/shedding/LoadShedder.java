@@ -0,0 +1,237 @@
+package com.microservices.apigateway.shedding;
+
+import com.microservices.apigateway.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gateway-wide admission by caller priority. Each class may fill only its share of max-in-flight, so
+ * as in-flight requests pile up the lowest classes stop being admitted first while higher ones still
+ * get through. A request over its class's share waits in that class's bounded queue; freed slots go
+ * to the highest waiting class first. Requests are shed (never queued) once the queue is full, the
+ * wait runs out, or process CPU is above the class's threshold.
+ */
+@Component
+@Slf4j
+public class LoadShedder {
+
+    public enum Reason { QUEUE_FULL, TIMEOUT, CPU }
+
+    private static final Mono<Boolean> ADMITTED = Mono.just(true);
+
+    private static final Mono<Boolean> SHED = Mono.just(false);
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final LoadSheddingProperties properties;
+
+    private final com.sun.management.OperatingSystemMXBean operatingSystem =
+            ManagementFactory.getPlatformMXBean(com.sun.management.OperatingSystemMXBean.class);
+
+    // By Priority ordinal
+    private final int[] capacities = new int[PRIORITIES.length];
+
+    private final int[] queueSizes = new int[PRIORITIES.length];
+
+    private final double[] cpuThresholds = new double[PRIORITIES.length];
+
+    private final List<ArrayDeque<Sinks.One<Boolean>>> queues = new ArrayList<>(PRIORITIES.length);
+
+    private final Counter[] admitted = new Counter[PRIORITIES.length];
+
+    private final Counter[][] shed = new Counter[PRIORITIES.length][Reason.values().length];
+
+    // Guards inFlight and the queues
+    private final Object lock = new Object();
+
+    private int inFlight;
+
+    private volatile double cpuLoad;
+
+    private Disposable cpuSampler;
+
+    public LoadShedder(LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (Priority priority : PRIORITIES) {
+            int index = priority.ordinal();
+            LoadSheddingProperties.PriorityClass limits =
+                    properties.getClasses().getOrDefault(priority, new LoadSheddingProperties.PriorityClass());
+            capacities[index] = Math.max(1, (int) Math.round(properties.getMaxInFlight() * limits.getInFlightShare()));
+            queueSizes[index] = Math.max(0, limits.getQueueSize());
+            cpuThresholds[index] = limits.getCpuThreshold();
+            queues.add(new ArrayDeque<>());
+
+            String tag = priority.name().toLowerCase(Locale.ROOT);
+            admitted[index] = Counter.builder("gateway.shedding.admitted")
+                    .description("Requests admitted, directly or after queueing")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            for (Reason reason : Reason.values()) {
+                shed[index][reason.ordinal()] = Counter.builder("gateway.shedding.shed")
+                        .description("Requests answered 503 by load shedding: queue full, queue wait ran out, or CPU over threshold")
+                        .tag("priority", tag)
+                        .tag("reason", reason.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                        .register(meterRegistry);
+            }
+            Gauge.builder("gateway.shedding.queue.depth", this, shedder -> shedder.queueDepth(index))
+                    .description("Requests waiting for an admission slot")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("gateway.shedding.in-flight", this, LoadShedder::getInFlight)
+                .description("Requests admitted and not yet completed")
+                .register(meterRegistry);
+        Gauge.builder("gateway.shedding.cpu", this, shedder -> shedder.cpuLoad)
+                .description("Process CPU load (0..1) the CPU thresholds are compared with")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.info("Load shedding disabled");
+            return;
+        }
+        // getProcessCpuLoad reads /proc, so it stays off the event loop
+        cpuSampler = Flux.interval(properties.getCpuSampleInterval(), Schedulers.boundedElastic())
+                .subscribe(tick -> {
+                    double load = operatingSystem.getProcessCpuLoad();
+                    cpuLoad = load < 0 ? 0 : load;
+                });
+        log.info("🚦 Load shedding above {} in flight, class shares {}", properties.getMaxInFlight(),
+                properties.getClasses().keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (cpuSampler != null) {
+            cpuSampler.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, properties.getRetryAfter().toSeconds());
+    }
+
+    /**
+     * Emits true once the request holds a slot (it must then call release exactly once), or false if it is shed.
+     */
+    public Mono<Boolean> admit(Priority priority) {
+        int index = priority.ordinal();
+        if (cpuLoad > cpuThresholds[index]) {
+            shed[index][Reason.CPU.ordinal()].increment();
+            return SHED;
+        }
+
+        Sinks.One<Boolean> waiter;
+        synchronized (lock) {
+            // Requests already waiting in this class or a higher one go first
+            if (inFlight < capacities[index] && !hasWaiters(index)) {
+                inFlight++;
+                waiter = null;
+            } else if (queues.get(index).size() >= queueSizes[index]) {
+                shed[index][Reason.QUEUE_FULL.ordinal()].increment();
+                return SHED;
+            } else {
+                waiter = Sinks.one();
+                queues.get(index).addLast(waiter);
+            }
+        }
+        if (waiter == null) {
+            admitted[index].increment();
+            return ADMITTED;
+        }
+
+        return waiter.asMono()
+                .timeout(properties.getMaxQueueWait(), Mono.defer(() -> {
+                    if (dequeue(index, waiter)) {
+                        shed[index][Reason.TIMEOUT.ordinal()].increment();
+                        return SHED;
+                    }
+                    // Granted a slot just as the wait ran out
+                    return ADMITTED;
+                }))
+                .doOnCancel(() -> {
+                    if (!dequeue(index, waiter)) {
+                        release();
+                    }
+                });
+    }
+
+    /** Frees the caller's slot and hands free slots to waiting requests, highest class first. */
+    public void release() {
+        List<Sinks.One<Boolean>> granted = null;
+        int[] grantedByClass = null;
+        synchronized (lock) {
+            inFlight--;
+            for (int index = 0; index < PRIORITIES.length; index++) {
+                ArrayDeque<Sinks.One<Boolean>> queue = queues.get(index);
+                while (!queue.isEmpty() && inFlight < capacities[index]) {
+                    if (granted == null) {
+                        granted = new ArrayList<>();
+                        grantedByClass = new int[PRIORITIES.length];
+                    }
+                    granted.add(queue.pollFirst());
+                    grantedByClass[index]++;
+                    inFlight++;
+                }
+            }
+        }
+        if (granted == null) {
+            return;
+        }
+        for (int index = 0; index < PRIORITIES.length; index++) {
+            admitted[index].increment(grantedByClass[index]);
+        }
+        // Outside the lock: each admitted request resumes on this thread
+        granted.forEach(waiter -> waiter.tryEmitValue(true));
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    private int queueDepth(int index) {
+        synchronized (lock) {
+            return queues.get(index).size();
+        }
+    }
+
+    private boolean hasWaiters(int index) {
+        for (int higher = 0; higher <= index; higher++) {
+            if (!queues.get(higher).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True if the waiter was still queued, false if release already granted it a slot
+    private boolean dequeue(int index, Sinks.One<Boolean> waiter) {
+        synchronized (lock) {
+            return queues.get(index).remove(waiter);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservices.apigateway.shedding;
+
+// Caller classes for load shedding, highest first; under pressure the lowest classes are shed first
+public enum Priority {
+
+    // Roles in gateway.load-shedding.critical-roles (ADMIN)
+    CRITICAL,
+
+    // Authenticated requests on gateway.load-shedding.high-priority-paths (checkout, payments)
+    HIGH,
+
+    // Any other authenticated request
+    NORMAL,
+
+    // Anonymous requests, e.g. catalog browsing on public routes
+    LOW
+}
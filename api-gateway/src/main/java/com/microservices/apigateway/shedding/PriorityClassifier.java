@@ -0,0 +1,37 @@
+package com.microservices.apigateway.shedding;
+
+import com.microservices.apigateway.config.LoadSheddingProperties;
+import com.microservices.apigateway.security.VerifiedClaims;
+import com.microservices.apigateway.util.PathTrie;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classifies a request from what JwtAuthenticationFilter resolved: the caller's role and the path.
+ * Requests without verified claims (public routes) are LOW.
+ */
+@Component
+public class PriorityClassifier {
+
+    private final LoadSheddingProperties properties;
+
+    private final PathTrie<Priority> highPriorityPaths;
+
+    public PriorityClassifier(LoadSheddingProperties properties) {
+        this.properties = properties;
+        PathTrie.Builder<Priority> builder = PathTrie.builder();
+        for (String path : properties.getHighPriorityPaths()) {
+            builder.add(path, Priority.HIGH);
+        }
+        this.highPriorityPaths = builder.build();
+    }
+
+    public Priority classify(String path, VerifiedClaims claims) {
+        if (claims == null) {
+            return Priority.LOW;
+        }
+        if (properties.getCriticalRoles().contains(claims.getRole())) {
+            return Priority.CRITICAL;
+        }
+        return highPriorityPaths.match(path) != null ? Priority.HIGH : Priority.NORMAL;
+    }
+}
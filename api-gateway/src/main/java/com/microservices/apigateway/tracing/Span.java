@@ -0,0 +1,71 @@
+package com.microservices.apigateway.tracing;
+
+import com.microservices.tracing.SpanRecord;
+import com.microservices.tracing.TraceParent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// An in-flight gateway span, carried in exchange attributes rather than a ThreadLocal
+public final class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final String kind;
+    private final boolean sampled;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private volatile String error;
+
+    public Span(String traceId, String parentSpanId, String name, String kind, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = TraceParent.newSpanId();
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.startEpochMicros = System.currentTimeMillis() * 1_000;
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public String traceparent() {
+        return TraceParent.format(traceId, spanId, sampled);
+    }
+
+    public synchronized Span tag(String key, String value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public Span error(Throwable throwable) {
+        this.error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+        return this;
+    }
+
+    public synchronized SpanRecord finish(String service) {
+        long durationMicros = (System.nanoTime() - startNanos) / 1_000;
+        return new SpanRecord(traceId, spanId, parentSpanId, service, name, kind,
+                startEpochMicros, durationMicros, error, new LinkedHashMap<>(attributes));
+    }
+}
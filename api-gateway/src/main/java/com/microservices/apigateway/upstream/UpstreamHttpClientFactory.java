@@ -0,0 +1,67 @@
+package com.microservices.apigateway.upstream;
+
+import com.microservices.apigateway.config.UpstreamProperties;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+
+/**
+ * The stock gateway HttpClientFactory with one named pool per upstream service. Everything else the
+ * stock client honours from spring.cloud.gateway.httpclient.* (connect timeout, proxy, SSL, wiretap,
+ * compression, header and initial-line limits, HttpClientCustomizer beans) applies unchanged.
+ */
+class UpstreamHttpClientFactory extends HttpClientFactory {
+
+    private final String name;
+
+    private final UpstreamProperties.Pool pool;
+
+    private ConnectionProvider connectionProvider;
+
+    UpstreamHttpClientFactory(String name, UpstreamProperties.Pool pool, HttpClientProperties properties,
+                              ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+                              List<HttpClientCustomizer> customizers) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.name = name;
+        this.pool = pool;
+        setSingleton(false);
+    }
+
+    ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
+    }
+
+    // pool.type=DISABLED is kept; otherwise the pool is fixed-size, sized by the merged gateway.upstream pool
+    @Override
+    protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+        if (properties.getPool().getType() == HttpClientProperties.Pool.PoolType.DISABLED) {
+            connectionProvider = ConnectionProvider.newConnection();
+            return connectionProvider;
+        }
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .metrics(true);
+        if (pool.getPendingAcquireMaxCount() != null) {
+            builder.pendingAcquireMaxCount(pool.getPendingAcquireMaxCount());
+        }
+        if (pool.getPendingAcquireTimeout() != null) {
+            builder.pendingAcquireTimeout(pool.getPendingAcquireTimeout());
+        }
+        if (pool.getMaxIdleTime() != null) {
+            builder.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getEvictInBackground() != null) {
+            builder.evictInBackground(pool.getEvictInBackground());
+        }
+        connectionProvider = builder.build();
+        return connectionProvider;
+    }
+}
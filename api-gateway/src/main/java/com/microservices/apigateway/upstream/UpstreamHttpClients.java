@@ -0,0 +1,130 @@
+package com.microservices.apigateway.upstream;
+
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import com.microservices.apigateway.config.UpstreamProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One HttpClient per upstream service, each with its own named connection pool and protocol. lb://
+ * routes use their service's client; other routes share the "default" pool. Pools export Reactor
+ * Netty's reactor.netty.connection.provider.* meters (active, idle, pending and max connections, and
+ * pending.connections.time for the acquire wait), tagged with the pool name, i.e. the service id.
+ * Clients are otherwise built like the stock gateway client from spring.cloud.gateway.httpclient.*,
+ * and pool settings layer: httpclient.pool, then gateway.upstream.pool, then the service's own pool.
+ */
+@Component
+@Slf4j
+public class UpstreamHttpClients {
+
+    public static final String DEFAULT_POOL = "default";
+
+    private final Map<String, HttpClient> clients = new LinkedHashMap<>();
+
+    private final Set<String> h2cServices = new LinkedHashSet<>();
+
+    private final List<ConnectionProvider> providers = new ArrayList<>();
+
+    private final HttpClientProperties httpClientProperties;
+
+    private final ServerProperties serverProperties;
+
+    private final HttpClientSslConfigurer sslConfigurer;
+
+    private final List<HttpClientCustomizer> customizers;
+
+    private final HttpClient defaultClient;
+
+    public UpstreamHttpClients(UpstreamProperties properties, LoadBalancerProperties loadBalancerProperties,
+                               HttpClientProperties httpClientProperties, ServerProperties serverProperties,
+                               HttpClientSslConfigurer sslConfigurer,
+                               ObjectProvider<HttpClientCustomizer> customizers) {
+        this.httpClientProperties = httpClientProperties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers.orderedStream().toList();
+        UpstreamProperties.Pool gatewayPool = properties.getPool().orElse(basePool(httpClientProperties.getPool()));
+        this.defaultClient = create(DEFAULT_POOL, gatewayPool, false);
+
+        Set<String> serviceIds = new LinkedHashSet<>(loadBalancerProperties.getServices().keySet());
+        serviceIds.addAll(properties.getServices().keySet());
+        for (String serviceId : serviceIds) {
+            UpstreamProperties.Service service = properties.getServices()
+                    .getOrDefault(serviceId, new UpstreamProperties.Service());
+            UpstreamProperties.Pool pool = service.getPool().orElse(gatewayPool);
+            clients.put(serviceId, create(serviceId, pool, service.isH2c()));
+            if (service.isH2c()) {
+                h2cServices.add(serviceId);
+            }
+            log.info("🔌 {} pool: {} connections per instance, {}", serviceId, pool.getMaxConnections(),
+                    service.isH2c() ? "h2c" : "HTTP/1.1");
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        providers.forEach(ConnectionProvider::dispose);
+    }
+
+    /** Client for the route's service when it is an lb:// route, else the default client. */
+    public HttpClient forRoute(Route route) {
+        URI uri = route.getUri();
+        return "lb".equals(uri.getScheme()) ? forService(uri.getHost()) : defaultClient;
+    }
+
+    public HttpClient forService(String serviceId) {
+        return clients.getOrDefault(serviceId, defaultClient);
+    }
+
+    public HttpClient defaultClient() {
+        return defaultClient;
+    }
+
+    public boolean isH2c(String serviceId) {
+        return h2cServices.contains(serviceId);
+    }
+
+    private HttpClient create(String name, UpstreamProperties.Pool pool, boolean h2c) {
+        UpstreamHttpClientFactory factory = new UpstreamHttpClientFactory(name, pool, httpClientProperties,
+                serverProperties, sslConfigurer, customizers);
+        HttpClient client;
+        try {
+            client = factory.getObject();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create the HTTP client for " + name, e);
+        }
+        providers.add(factory.getConnectionProvider());
+        // Prior knowledge rather than an Upgrade: a POST body cannot ride an HTTP/1.1 upgrade request
+        return client.protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11);
+    }
+
+    // spring.cloud.gateway.httpclient.pool.* as the bottom layer; it has no pending-acquire limit of its own
+    private static UpstreamProperties.Pool basePool(HttpClientProperties.Pool pool) {
+        return new UpstreamProperties.Pool(
+                pool.getMaxConnections(),
+                null,
+                pool.getAcquireTimeout() != null ? Duration.ofMillis(pool.getAcquireTimeout()) : null,
+                pool.getMaxIdleTime(),
+                pool.getMaxLifeTime(),
+                pool.getEvictionInterval());
+    }
+}
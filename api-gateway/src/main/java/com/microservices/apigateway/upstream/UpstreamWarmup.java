@@ -0,0 +1,89 @@
+package com.microservices.apigateway.upstream;
+
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import com.microservices.apigateway.config.UpstreamProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens connections to every configured instance at startup so the first burst after a deploy does
+ * not pay TCP handshakes. Runs as an ApplicationRunner, which Spring Boot completes before it reports
+ * the readiness state ACCEPTING_TRAFFIC. Each instance gets up to warmup.connections concurrent
+ * requests; unreachable instances are logged and skipped, and startup never waits past warmup.timeout.
+ */
+@Component
+@Slf4j
+public class UpstreamWarmup implements ApplicationRunner {
+
+    private final UpstreamProperties properties;
+
+    private final LoadBalancerProperties loadBalancerProperties;
+
+    private final UpstreamHttpClients upstreamHttpClients;
+
+    public UpstreamWarmup(UpstreamProperties properties, LoadBalancerProperties loadBalancerProperties,
+                          UpstreamHttpClients upstreamHttpClients) {
+        this.properties = properties;
+        this.loadBalancerProperties = loadBalancerProperties;
+        this.upstreamHttpClients = upstreamHttpClients;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        UpstreamProperties.Warmup warmup = properties.getWarmup();
+        if (!warmup.isEnabled()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        // Event loops, native transport and resolver are initialised here, not on the first request
+        loadBalancerProperties.getServices().keySet()
+                .forEach(serviceId -> upstreamHttpClients.forService(serviceId).warmup().block());
+        Long opened = Flux.fromIterable(loadBalancerProperties.getServices().entrySet())
+                .flatMap(entry -> {
+                    String serviceId = entry.getKey();
+                    HttpClient client = upstreamHttpClients.forService(serviceId);
+                    int connections = connections(serviceId, warmup);
+                    return Flux.fromIterable(entry.getValue().getInstances())
+                            .flatMap(instance -> warm(client, serviceId, instance, connections, warmup));
+                })
+                .reduce(0L, Long::sum)
+                .block();
+        log.info("🔥 Pre-warmed {} upstream requests in {} ms", opened,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private int connections(String serviceId, UpstreamProperties.Warmup warmup) {
+        // One h2c connection carries every concurrent stream
+        if (upstreamHttpClients.isH2c(serviceId)) {
+            return 1;
+        }
+        UpstreamProperties.Service service = properties.getServices().get(serviceId);
+        return service != null && service.getWarmupConnections() != null
+                ? service.getWarmupConnections()
+                : warmup.getConnections();
+    }
+
+    // Concurrent requests, so each takes its own connection unless an earlier one was already released
+    private Mono<Long> warm(HttpClient client, String serviceId, URI instance, int connections,
+                            UpstreamProperties.Warmup warmup) {
+        URI uri = instance.resolve(warmup.getPath());
+        return Flux.range(0, connections)
+                .flatMap(i -> client.get()
+                        .uri(uri)
+                        .responseSingle((response, body) -> body.then(Mono.just(1L)))
+                        .timeout(warmup.getTimeout()), connections)
+                .reduce(0L, Long::sum)
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Could not pre-warm {} at {}: {}", serviceId, instance, e.toString());
+                    return Mono.just(0L);
+                });
+    }
+}
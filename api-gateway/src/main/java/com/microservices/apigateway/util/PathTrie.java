@@ -0,0 +1,294 @@
+package com.microservices.apigateway.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable path-segment trie. Patterns are made of literal segments, single-segment wildcards
+ * ({name} or *), constrained wildcards ({name:regex}, e.g. {userId:\d+}, matching only segments the
+ * regex matches in full) and an optional trailing ** that matches the node itself and everything below it.
+ * <p>
+ * Matching walks the request path in place: segments are hashed and compared by region, so a lookup
+ * does not allocate (digit-only constraints are checked by a loop, other regexes need a Matcher) and
+ * its cost depends on the path depth rather than on the number of patterns. Literal segments win over
+ * constrained wildcards, those over plain wildcards, and the deepest match wins over an enclosing **.
+ */
+public final class PathTrie<T> {
+
+    private final Node<T> root;
+
+    private final int size;
+
+    private PathTrie(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>((existing, added) -> {
+            throw new IllegalArgumentException("Duplicate path pattern");
+        });
+    }
+
+    /** Builder that combines values registered for the same pattern with the given function. */
+    public static <T> Builder<T> builder(BinaryOperator<T> merge) {
+        return new Builder<>(merge);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Returns the value of the most specific matching pattern, or null. */
+    public T match(String path) {
+        return match(path, value -> true);
+    }
+
+    /**
+     * Returns the value of the most specific matching pattern that the filter accepts, or null. A rejected
+     * value does not end the lookup: matching backtracks to the next most specific pattern.
+     */
+    public T match(String path, Predicate<? super T> accept) {
+        return match(root, path, skipSlashes(path, 0), accept);
+    }
+
+    private static <T> T match(Node<T> node, String path, int start, Predicate<? super T> accept) {
+        if (start >= path.length()) {
+            if (node.exact != null && accept.test(node.exact)) {
+                return node.exact;
+            }
+            return subtree(node, accept);
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int next = skipSlashes(path, end);
+
+        Node<T> literal = node.literal(path, start, end);
+        if (literal != null) {
+            T value = match(literal, path, next, accept);
+            if (value != null) {
+                return value;
+            }
+        }
+        for (int i = 0; i < node.constraints.length; i++) {
+            if (node.constraints[i].matches(path, start, end)) {
+                T value = match(node.constrained[i], path, next, accept);
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+        if (node.wildcard != null) {
+            T value = match(node.wildcard, path, next, accept);
+            if (value != null) {
+                return value;
+            }
+        }
+        return subtree(node, accept);
+    }
+
+    private static <T> T subtree(Node<T> node, Predicate<? super T> accept) {
+        return node.subtree != null && accept.test(node.subtree) ? node.subtree : null;
+    }
+
+    public static int skipSlashes(String path, int index) {
+        while (index < path.length() && path.charAt(index) == '/') {
+            index++;
+        }
+        return index;
+    }
+
+    /** Splits a pattern into its non-empty segments. */
+    public static List<String> segments(String pattern) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    public static boolean isWildcard(String segment) {
+        return "*".equals(segment) || (segment.startsWith("{") && segment.endsWith("}"));
+    }
+
+    /** The variable name of a {name} or {name:regex} segment, or null for any other segment. */
+    public static String variableName(String segment) {
+        if (!segment.startsWith("{") || !segment.endsWith("}")) {
+            return null;
+        }
+        int colon = segment.indexOf(':');
+        return segment.substring(1, colon > 0 ? colon : segment.length() - 1);
+    }
+
+    // The regex of a {name:regex} segment, or null when the wildcard matches any segment
+    private static String constraint(String segment) {
+        int colon = segment.indexOf(':');
+        return segment.startsWith("{") && colon > 0 ? segment.substring(colon + 1, segment.length() - 1) : null;
+    }
+
+    // Same hash as String.hashCode over path[start, end) without creating the substring
+    private static int hash(String path, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + path.charAt(i);
+        }
+        return h;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // Tests one path segment, path[start, end), against a {name:regex} constraint
+    private interface SegmentConstraint {
+
+        boolean matches(String path, int start, int end);
+
+        static SegmentConstraint of(String regex) {
+            if ("\\d+".equals(regex) || "[0-9]+".equals(regex)) {
+                return (path, start, end) -> {
+                    for (int i = start; i < end; i++) {
+                        char c = path.charAt(i);
+                        if (c < '0' || c > '9') {
+                            return false;
+                        }
+                    }
+                    return end > start;
+                };
+            }
+            Pattern pattern = Pattern.compile(regex);
+            return (path, start, end) -> pattern.matcher(path).region(start, end).matches();
+        }
+    }
+
+    private static final class Node<T> {
+
+        // Open-addressing table of literal children, sized to a power of two at build time
+        private final String[] keys;
+        private final Node<T>[] children;
+        // Constrained wildcard children, tried in the order their patterns were added
+        private final SegmentConstraint[] constraints;
+        private final Node<T>[] constrained;
+        private final Node<T> wildcard;
+        private final T exact;
+        private final T subtree;
+
+        @SuppressWarnings("unchecked")
+        private Node(Map<String, Node<T>> literals, Map<String, Node<T>> constrainedChildren, Node<T> wildcard,
+                     T exact, T subtree) {
+            int capacity = Integer.highestOneBit(Math.max(1, literals.size() * 2 - 1)) << 1;
+            this.keys = new String[capacity];
+            this.children = new Node[capacity];
+            for (Map.Entry<String, Node<T>> entry : literals.entrySet()) {
+                int slot = spread(entry.getKey().hashCode()) & (capacity - 1);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = entry.getKey();
+                children[slot] = entry.getValue();
+            }
+            this.constraints = new SegmentConstraint[constrainedChildren.size()];
+            this.constrained = new Node[constrainedChildren.size()];
+            int index = 0;
+            for (Map.Entry<String, Node<T>> entry : constrainedChildren.entrySet()) {
+                constraints[index] = SegmentConstraint.of(entry.getKey());
+                constrained[index++] = entry.getValue();
+            }
+            this.wildcard = wildcard;
+            this.exact = exact;
+            this.subtree = subtree;
+        }
+
+        private Node<T> literal(String path, int start, int end) {
+            int length = end - start;
+            int mask = keys.length - 1;
+            int slot = spread(hash(path, start, end)) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return children[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final MutableNode<T> root = new MutableNode<>();
+
+        private final BinaryOperator<T> merge;
+
+        private int size;
+
+        private Builder(BinaryOperator<T> merge) {
+            this.merge = merge;
+        }
+
+        public Builder<T> add(String pattern, T value) {
+            List<String> segments = segments(pattern);
+            MutableNode<T> node = root;
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if ("**".equals(segment)) {
+                    if (i != segments.size() - 1) {
+                        throw new IllegalArgumentException("** is only allowed as the last segment: " + pattern);
+                    }
+                    node.subtree = node.subtree == null ? value : merge.apply(node.subtree, value);
+                    size++;
+                    return this;
+                }
+                String constraint = isWildcard(segment) ? constraint(segment) : null;
+                if (constraint != null) {
+                    node = node.constrained.computeIfAbsent(constraint, MutableNode::constrainedBy);
+                } else if (isWildcard(segment)) {
+                    node = node.wildcard != null ? node.wildcard : (node.wildcard = new MutableNode<>());
+                } else {
+                    node = node.literals.computeIfAbsent(segment, s -> new MutableNode<>());
+                }
+            }
+            node.exact = node.exact == null ? value : merge.apply(node.exact, value);
+            size++;
+            return this;
+        }
+
+        public PathTrie<T> build() {
+            return new PathTrie<>(root.freeze(), size);
+        }
+    }
+
+    private static final class MutableNode<T> {
+
+        private final Map<String, MutableNode<T>> literals = new LinkedHashMap<>();
+        // Keyed by regex, so patterns with the same constraint share a node
+        private final Map<String, MutableNode<T>> constrained = new LinkedHashMap<>();
+        private MutableNode<T> wildcard;
+        private T exact;
+        private T subtree;
+
+        // Compiles the regex up front, so an invalid one fails while the pattern is added
+        private static <T> MutableNode<T> constrainedBy(String regex) {
+            SegmentConstraint.of(regex);
+            return new MutableNode<>();
+        }
+
+        private Node<T> freeze() {
+            Map<String, Node<T>> frozen = new LinkedHashMap<>();
+            literals.forEach((segment, child) -> frozen.put(segment, child.freeze()));
+            Map<String, Node<T>> frozenConstrained = new LinkedHashMap<>();
+            constrained.forEach((regex, child) -> frozenConstrained.put(regex, child.freeze()));
+            return new Node<>(frozen, frozenConstrained, wildcard != null ? wildcard.freeze() : null, exact, subtree);
+        }
+    }
+}
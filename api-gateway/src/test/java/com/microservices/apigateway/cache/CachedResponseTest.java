@@ -0,0 +1,69 @@
+package com.microservices.apigateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedResponseTest {
+
+    @Test
+    void writesStatusHeadersAndBody() {
+        HttpHeaders stored = new HttpHeaders();
+        stored.setContentType(MediaType.APPLICATION_JSON);
+        stored.setETag("\"v1\"");
+        CachedResponse cached = cached(stored, "{\"id\":7}");
+        MockServerHttpResponse response = new MockServerHttpResponse();
+
+        cached.writeTo(response).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(8);
+        assertThat(response.getBodyAsString().block()).isEqualTo("{\"id\":7}");
+    }
+
+    @Test
+    void keepsHeadersAlreadySetForThisCallerAndMergesVary() {
+        HttpHeaders stored = new HttpHeaders();
+        stored.setContentType(MediaType.APPLICATION_JSON);
+        stored.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "https://other.example.com");
+        stored.set("RateLimit-Remaining", "0");
+        stored.setVary(List.of("accept-encoding", HttpHeaders.ACCEPT_LANGUAGE));
+        CachedResponse cached = cached(stored, "[]");
+
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        response.getHeaders().set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "https://shop.example.com");
+        response.getHeaders().set("RateLimit-Remaining", "9");
+        response.getHeaders().setVary(List.of(HttpHeaders.ORIGIN, HttpHeaders.ACCEPT_ENCODING));
+
+        cached.writeTo(response).block();
+
+        HttpHeaders written = response.getHeaders();
+        assertThat(written.getAccessControlAllowOrigin()).isEqualTo("https://shop.example.com");
+        assertThat(written.getFirst("RateLimit-Remaining")).isEqualTo("9");
+        assertThat(written.getVary()).containsExactly(
+                HttpHeaders.ORIGIN, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+        assertThat(written.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void reportsAgeInWholeSeconds() {
+        CachedResponse cached = new CachedResponse(200, HttpHeaders.EMPTY, new byte[0],
+                System.currentTimeMillis() - 2_500, 60_000);
+
+        assertThat(cached.ageSeconds()).isEqualTo(2);
+    }
+
+    private static CachedResponse cached(HttpHeaders headers, String body) {
+        return new CachedResponse(200, HttpHeaders.readOnlyHttpHeaders(headers),
+                body.getBytes(StandardCharsets.UTF_8), System.currentTimeMillis(), 60_000);
+    }
+}
@@ -0,0 +1,156 @@
+package com.microservices.apigateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapturingResponseTest {
+
+    private final MockServerHttpResponse delegate = new MockServerHttpResponse();
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    void capturesTheBodyWhileTheClientGetsItUnchanged() {
+        delegate.setStatusCode(HttpStatus.OK);
+        delegate.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        CapturingResponse response = new CapturingResponse(delegate, 1024, r -> true, listener);
+
+        response.writeWith(Flux.just(buffer("{\"id\":"), buffer("7}"))).block();
+
+        assertThat(delegate.getBodyAsString().block()).isEqualTo("{\"id\":7}");
+        assertThat(listener.status).isEqualTo(200);
+        assertThat(new String(listener.body, StandardCharsets.UTF_8)).isEqualTo("{\"id\":7}");
+        assertThat(listener.headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(listener.abandoned).isZero();
+    }
+
+    @Test
+    void dropsPerCallerAndHopByHopHeaders() {
+        HttpHeaders source = new HttpHeaders();
+        source.setContentType(MediaType.APPLICATION_JSON);
+        source.setContentLength(42);
+        source.set(HttpHeaders.DATE, "Thu, 01 Jan 2026 00:00:00 GMT");
+        source.set(HttpHeaders.RETRY_AFTER, "5");
+        source.set("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        source.set("RateLimit-Remaining", "9");
+        source.set("RateLimit-Policy", "10;w=1");
+        source.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "https://shop.example.com");
+        source.set(HttpHeaders.ETAG, "\"v1\"");
+        source.setVary(List.of(HttpHeaders.ORIGIN, HttpHeaders.ACCEPT_ENCODING,
+                HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD));
+
+        HttpHeaders replayable = CapturingResponse.replayableHeaders(source);
+
+        assertThat(replayable.keySet()).containsExactlyInAnyOrder(
+                HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.VARY);
+        assertThat(replayable.getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void dropsVaryWhenOnlyCorsEntriesWereSet() {
+        HttpHeaders source = new HttpHeaders();
+        source.setVary(List.of(HttpHeaders.ORIGIN));
+
+        assertThat(CapturingResponse.replayableHeaders(source).containsKey(HttpHeaders.VARY)).isFalse();
+    }
+
+    @Test
+    void abandonsBodiesThatOverflowTheLimit() {
+        delegate.setStatusCode(HttpStatus.OK);
+        CapturingResponse response = new CapturingResponse(delegate, 8, r -> true, listener);
+
+        response.writeWith(Flux.just(buffer("hello "), buffer("world"))).block();
+
+        assertThat(delegate.getBodyAsString().block()).isEqualTo("hello world");
+        assertThat(listener.body).isNull();
+        assertThat(listener.abandoned).isEqualTo(1);
+    }
+
+    @Test
+    void abandonsAtOnceWhenContentLengthIsOverTheLimit() {
+        delegate.setStatusCode(HttpStatus.OK);
+        delegate.getHeaders().setContentLength(100);
+        CapturingResponse response = new CapturingResponse(delegate, 8, r -> true, listener);
+
+        response.writeWith(Mono.just(buffer("0123456789"))).block();
+
+        assertThat(listener.body).isNull();
+        assertThat(listener.abandoned).isEqualTo(1);
+    }
+
+    @Test
+    void abandonsIneligibleResponses() {
+        delegate.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        CapturingResponse response = new CapturingResponse(delegate, 1024,
+                r -> r.getStatusCode().is2xxSuccessful(), listener);
+
+        response.writeWith(Flux.just(buffer("oops"))).block();
+
+        assertThat(delegate.getBodyAsString().block()).isEqualTo("oops");
+        assertThat(listener.body).isNull();
+        assertThat(listener.abandoned).isEqualTo(1);
+    }
+
+    @Test
+    void abandonsWhenTheClientWriteIsCancelled() {
+        delegate.setStatusCode(HttpStatus.OK);
+        // A client that goes away after the first chunk
+        delegate.setWriteHandler(body -> body.take(1).then());
+        CapturingResponse response = new CapturingResponse(delegate, 1024, r -> true, listener);
+
+        response.writeWith(Flux.just(buffer("first"), buffer("second"))).block();
+
+        assertThat(listener.body).isNull();
+        assertThat(listener.abandoned).isEqualTo(1);
+    }
+
+    @Test
+    void neverCapturesStreamingResponses() {
+        delegate.setStatusCode(HttpStatus.OK);
+        CapturingResponse response = new CapturingResponse(delegate, 1024, r -> true, listener);
+
+        response.writeAndFlushWith(Flux.just(Flux.just(buffer("data: 1\n\n")))).block();
+
+        assertThat(listener.body).isNull();
+        assertThat(listener.abandoned).isEqualTo(1);
+    }
+
+    private static DataBuffer buffer(String value) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class RecordingListener implements CapturingResponse.Listener {
+
+        private int status;
+
+        private HttpHeaders headers;
+
+        private byte[] body;
+
+        private int abandoned;
+
+        @Override
+        public void captured(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public void abandoned() {
+            abandoned++;
+        }
+    }
+}
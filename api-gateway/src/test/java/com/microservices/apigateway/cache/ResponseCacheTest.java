@@ -0,0 +1,136 @@
+package com.microservices.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), true,
+            Set.of("product-service-list"), List.of("Accept", "Accept-Language"), 30, 1 << 20, 1024);
+
+    @Test
+    void keySortsQueryParametersAndAddsVaryHeaders() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/products?page=2&category=books&category=games")
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .build();
+
+        assertThat(cache.key(request))
+                .isEqualTo("GET /api/products?category=books&category=games&page=2|accept=application/json");
+    }
+
+    @Test
+    void keyIsThePathAloneWithoutQueryOrVaryHeaders() {
+        assertThat(cache.key(MockServerHttpRequest.get("/api/products/7").build())).isEqualTo("GET /api/products/7");
+    }
+
+    @Test
+    void ttlFollowsCacheControl() {
+        assertThat(cache.ttlMillis(headers(null))).isEqualTo(30_000);
+        assertThat(cache.ttlMillis(headers("public, max-age=60"))).isEqualTo(60_000);
+        assertThat(cache.ttlMillis(headers("s-maxage=5"))).isEqualTo(5_000);
+        assertThat(cache.ttlMillis(headers("public"))).isEqualTo(30_000);
+        assertThat(cache.ttlMillis(headers("no-store"))).isZero();
+        assertThat(cache.ttlMillis(headers("no-cache"))).isZero();
+        assertThat(cache.ttlMillis(headers("private, max-age=60"))).isZero();
+    }
+
+    @Test
+    void responsesWithCookiesOrVaryStarAreNotCached() {
+        HttpHeaders cookie = headers("max-age=60");
+        cookie.add(HttpHeaders.SET_COOKIE, "session=1");
+        HttpHeaders varyAll = headers("max-age=60");
+        varyAll.set(HttpHeaders.VARY, "*");
+
+        assertThat(cache.ttlMillis(cookie)).isZero();
+        assertThat(cache.ttlMillis(varyAll)).isZero();
+    }
+
+    @Test
+    void cachesOnlyConfiguredRoutes() {
+        assertThat(cache.isCacheable("product-service-list")).isTrue();
+        assertThat(cache.isCacheable("user-service")).isFalse();
+        assertThat(cache.isCacheable(null)).isFalse();
+    }
+
+    @Test
+    void storeKeepsResponsesFetchedWithoutAPurge() {
+        long generation = cache.generation();
+        CachedResponse response = response();
+
+        cache.store("GET /api/products/7", response, generation);
+
+        assertThat(cache.get("GET /api/products/7")).isSameAs(response);
+    }
+
+    @Test
+    void storeDropsResponsesFetchedAcrossAPurge() {
+        long generation = cache.generation();
+        cache.purge("/api/products");
+
+        cache.store("GET /api/products/7", response(), generation);
+
+        assertThat(cache.get("GET /api/products/7")).isNull();
+    }
+
+    @Test
+    void purgeRemovesKeysUnderThePrefix() {
+        store("GET /api/products/7", "GET /api/products?page=2", "GET /api/users/7");
+
+        assertThat(cache.purge("/api/products")).isEqualTo(2);
+        assertThat(cache.get("GET /api/users/7")).isNotNull();
+    }
+
+    @Test
+    void purgeWriteRemovesTheResourceItsChildrenAndItsCollection() {
+        store("GET /api/products/42",
+                "GET /api/products/42|accept=application/json",
+                "GET /api/products/42/reviews",
+                "GET /api/products",
+                "GET /api/products?page=2",
+                "GET /api/products|accept=application/json",
+                "GET /api/products/420",
+                "GET /api/products/7",
+                "GET /api/products-archive");
+
+        assertThat(cache.purgeWrite("/api/products/42")).isEqualTo(6);
+
+        assertThat(cache.get("GET /api/products/420")).isNotNull();
+        assertThat(cache.get("GET /api/products/7")).isNotNull();
+        assertThat(cache.get("GET /api/products-archive")).isNotNull();
+        assertThat(cache.get("GET /api/products?page=2")).isNull();
+    }
+
+    @Test
+    void purgeWriteOnACollectionKeepsItsSiblings() {
+        store("GET /api/products", "GET /api/products/7", "GET /api/orders");
+
+        assertThat(cache.purgeWrite("/api/products/")).isEqualTo(2);
+        assertThat(cache.get("GET /api/orders")).isNotNull();
+    }
+
+    private void store(String... keys) {
+        for (String key : keys) {
+            cache.store(key, response(), cache.generation());
+        }
+    }
+
+    private static HttpHeaders headers(String cacheControl) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null) {
+            headers.setCacheControl(cacheControl);
+        }
+        return headers;
+    }
+
+    private static CachedResponse response() {
+        return new CachedResponse(200, HttpHeaders.EMPTY, new byte[]{'{', '}'}, System.currentTimeMillis(), 60_000);
+    }
+}
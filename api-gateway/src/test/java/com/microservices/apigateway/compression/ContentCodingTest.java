@@ -0,0 +1,51 @@
+package com.microservices.apigateway.compression;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCodingTest {
+
+    @Test
+    void prefersGzip() {
+        assertThat(ContentCoding.negotiate("gzip, deflate, br")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("deflate, gzip")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("x-gzip")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("GZIP")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("deflate")).isEqualTo(ContentCoding.DEFLATE);
+    }
+
+    @Test
+    void followsQualityValues() {
+        assertThat(ContentCoding.negotiate("gzip;q=0.5, deflate")).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(ContentCoding.negotiate("gzip; q=0.8, deflate;q=0.8")).isEqualTo(ContentCoding.GZIP);
+    }
+
+    @Test
+    void zeroQualityRefusesTheCoding() {
+        assertThat(ContentCoding.negotiate("gzip;q=0")).isNull();
+        assertThat(ContentCoding.negotiate("gzip;q=0, deflate")).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(ContentCoding.negotiate("*;q=0")).isNull();
+    }
+
+    @Test
+    void wildcardCoversUnlistedCodings() {
+        assertThat(ContentCoding.negotiate("*;q=0.5")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("*")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("gzip;q=0, *;q=0.5")).isEqualTo(ContentCoding.DEFLATE);
+    }
+
+    @Test
+    void identityOrNothingMeansUncompressed() {
+        assertThat(ContentCoding.negotiate("identity")).isNull();
+        assertThat(ContentCoding.negotiate("br")).isNull();
+        assertThat(ContentCoding.negotiate("")).isNull();
+        assertThat(ContentCoding.negotiate(null)).isNull();
+    }
+
+    @Test
+    void malformedQualityCountsAsZero() {
+        assertThat(ContentCoding.negotiate("gzip;q=high")).isNull();
+        assertThat(ContentCoding.negotiate("gzip;q=, deflate")).isEqualTo(ContentCoding.DEFLATE);
+    }
+}
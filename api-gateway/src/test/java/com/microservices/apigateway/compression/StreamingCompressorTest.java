@@ -0,0 +1,135 @@
+package com.microservices.apigateway.compression;
+
+import com.microservices.apigateway.config.CompressionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingCompressorTest {
+
+    private final DeflaterPool pool = new DeflaterPool(new CompressionProperties());
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void gzipRoundTripsOverManyChunks() throws IOException {
+        byte[] body = body(100_000);
+
+        byte[] compressed = compressInChunks(ContentCoding.GZIP, body, 3_000, 8_192, 20_000, 1);
+
+        assertThat(gunzip(compressed)).isEqualTo(body);
+    }
+
+    @Test
+    void deflateRoundTripsOverManyChunks() throws IOException {
+        byte[] body = body(100_000);
+
+        byte[] compressed = compressInChunks(ContentCoding.DEFLATE, body, 3_000, 8_192, 20_000, 1);
+
+        assertThat(inflate(compressed)).isEqualTo(body);
+    }
+
+    @Test
+    void emptyBodyIsStillAValidStream() throws IOException {
+        StreamingCompressor gzip = new StreamingCompressor(ContentCoding.GZIP, pool);
+        StreamingCompressor deflate = new StreamingCompressor(ContentCoding.DEFLATE, pool);
+
+        // No chunk at all: the gzip header has to come out of finish()
+        assertThat(gunzip(gzip.finish())).isEmpty();
+        assertThat(inflate(deflate.compressAll(new byte[0]))).isEmpty();
+        assertThat(gzip.bytesIn()).isZero();
+    }
+
+    @Test
+    void compressAllMatchesTheChunkedOutput() throws IOException {
+        byte[] body = "{\"products\":[]}".repeat(500).getBytes(StandardCharsets.UTF_8);
+        StreamingCompressor compressor = new StreamingCompressor(ContentCoding.GZIP, pool);
+
+        byte[] compressed = compressor.compressAll(body);
+
+        assertThat(gunzip(compressed)).isEqualTo(body);
+        assertThat(compressor.bytesIn()).isEqualTo(body.length);
+        assertThat(compressor.bytesOut()).isEqualTo(compressed.length).isLessThan(body.length);
+    }
+
+    @Test
+    void nothingIsProducedAfterRelease() {
+        StreamingCompressor compressor = new StreamingCompressor(ContentCoding.GZIP, pool);
+        compressor.compress(DefaultDataBufferFactory.sharedInstance.wrap(body(1_000)));
+        compressor.release();
+
+        assertThat(compressor.finish()).isEmpty();
+        assertThat(compressor.compress(DefaultDataBufferFactory.sharedInstance.wrap(body(1_000)))).isEmpty();
+        // A second release must not put the Deflater back twice
+        compressor.release();
+    }
+
+    @Test
+    void releasedDeflaterIsResetForTheNextResponse() throws IOException {
+        StreamingCompressor abandoned = new StreamingCompressor(ContentCoding.GZIP, pool);
+        abandoned.compress(DefaultDataBufferFactory.sharedInstance.wrap(body(50_000)));
+        abandoned.release();
+
+        byte[] body = body(30_000);
+        byte[] compressed = compressInChunks(ContentCoding.GZIP, body, 10_000);
+
+        assertThat(gunzip(compressed)).isEqualTo(body);
+    }
+
+    // Compresses the body in chunks of the given sizes, cycling through them, then finishes
+    private byte[] compressInChunks(ContentCoding coding, byte[] body, int... chunkSizes) {
+        StreamingCompressor compressor = new StreamingCompressor(coding, pool);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int offset = 0;
+        for (int i = 0; offset < body.length; i++) {
+            int length = Math.min(chunkSizes[i % chunkSizes.length], body.length - offset);
+            byte[] chunk = new byte[length];
+            System.arraycopy(body, offset, chunk, 0, length);
+            out.writeBytes(compressor.compress(DefaultDataBufferFactory.sharedInstance.wrap(chunk)));
+            offset += length;
+        }
+        out.writeBytes(compressor.finish());
+        compressor.release();
+        assertThat(compressor.bytesIn()).isEqualTo(body.length);
+        return out.toByteArray();
+    }
+
+    // Compressible but not trivially so: JSON-like text mixed with random bytes
+    private static byte[] body(int length) {
+        Random random = new Random(length);
+        byte[] body = new byte[length];
+        byte[] text = "{\"id\":123,\"name\":\"Widget\",\"price\":9.99},".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < length; i++) {
+            body[i] = i % 97 == 0 ? (byte) random.nextInt() : text[i % text.length];
+        }
+        return body;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        return readAll(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        return readAll(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
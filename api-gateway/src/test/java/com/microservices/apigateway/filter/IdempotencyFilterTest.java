@@ -0,0 +1,114 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.config.IdempotencyProperties;
+import com.microservices.apigateway.idempotency.IdempotencyStore;
+import com.microservices.apigateway.security.VerifiedClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private static final String ROUTE_ID = "order-service-create";
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+
+    private final IdempotencyFilter filter = new IdempotencyFilter();
+
+    // Request bodies as the service received them
+    private final List<String> forwarded = new ArrayList<>();
+
+    private final GatewayFilterChain service = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+            .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+            .defaultIfEmpty("")
+            .flatMap(body -> {
+                forwarded.add(body);
+                exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+                return exchange.getResponse().writeWith(Mono.just(
+                        exchange.getResponse().bufferFactory().wrap(("order for " + body).getBytes(StandardCharsets.UTF_8))));
+            });
+
+    @BeforeEach
+    void setUp() {
+        properties.setRoutes(Set.of(ROUTE_ID));
+        ReflectionTestUtils.setField(filter, "idempotencyStore", new IdempotencyStore(properties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void retryWithTheSameRequestIsReplayed() {
+        MockServerWebExchange first = exchange("/api/orders", "{\"items\":[1]}");
+        MockServerWebExchange retry = exchange("/api/orders", "{\"items\":[1]}");
+
+        filter.filter(first, service).block();
+        filter.filter(retry, service).block();
+
+        assertThat(forwarded).containsExactly("{\"items\":[1]}");
+        assertThat(retry.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getResponse().getBodyAsString().block()).isEqualTo("order for {\"items\":[1]}");
+    }
+
+    @Test
+    void keyReusedWithADifferentBodyIsRefused() {
+        filter.filter(exchange("/api/orders", "{\"items\":[1]}"), service).block();
+        MockServerWebExchange reused = exchange("/api/orders", "{\"items\":[2]}");
+
+        filter.filter(reused, service).block();
+
+        assertThat(forwarded).hasSize(1);
+        assertThat(reused.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(reused.getResponse().getHeaders().containsKey(IdempotencyFilter.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void keyReusedOnADifferentPathIsRefused() {
+        filter.filter(exchange("/api/orders", "{}"), service).block();
+        MockServerWebExchange reused = exchange("/api/orders?dryRun=true", "{}");
+
+        filter.filter(reused, service).block();
+
+        assertThat(reused.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void oversizedBodyIsRejectedBeforeReachingTheService() {
+        properties.setMaxRequestBytes(8);
+        MockServerWebExchange exchange = exchange("/api/orders", "{\"items\":[1,2,3]}");
+
+        filter.filter(exchange, service).block();
+
+        assertThat(forwarded).isEmpty();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    private MockServerWebExchange exchange(String uri, String body) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(uri)
+                .header(properties.getHeader(), "checkout-42")
+                .body(body));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(ROUTE_ID)
+                .uri("http://order-service")
+                .predicate((ServerWebExchange e) -> true)
+                .build());
+        exchange.getAttributes().put(JwtAuthenticationFilter.CLAIMS_ATTR,
+                new VerifiedClaims("user@example.com", "42", "USER", null, 0, Long.MAX_VALUE));
+        return exchange;
+    }
+}
@@ -0,0 +1,151 @@
+package com.microservices.apigateway.idempotency;
+
+import com.microservices.apigateway.cache.CachedResponse;
+import com.microservices.apigateway.config.IdempotencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private static final String KEY = "order-service-create|42|key-1";
+
+    private static final String DIGEST = "digest-1";
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+
+    private final IdempotencyStore store = new IdempotencyStore(properties, new SimpleMeterRegistry());
+
+    @Test
+    void firstRequestLeadsAndDuplicatesFollow() {
+        IdempotencyStore.Flight leader = store.join(KEY, DIGEST);
+        IdempotencyStore.Flight follower = store.join(KEY, DIGEST);
+
+        assertThat(leader.isLeader()).isTrue();
+        assertThat(follower.isLeader()).isFalse();
+        assertThat(store.join("order-service-create|42|key-2", DIGEST).isLeader()).isTrue();
+    }
+
+    @Test
+    void completedResponseIsSharedWithFollowersAndStored() {
+        IdempotencyStore.Flight leader = store.join(KEY, DIGEST);
+        IdempotencyStore.Flight follower = store.join(KEY, DIGEST);
+        CachedResponse response = response(201, "{\"id\":7}");
+
+        StepVerifier.create(follower.result())
+                .then(() -> leader.complete(response))
+                .expectNext(response)
+                .verifyComplete();
+
+        assertThat(store.get(KEY).getResponse()).isSameAs(response);
+        assertThat(store.get(KEY).answers(DIGEST)).isTrue();
+        // The flight is over: the next request with the key is a leader again (and will find the stored answer)
+        assertThat(store.join(KEY, DIGEST).isLeader()).isTrue();
+    }
+
+    @Test
+    void abandonedFlightReleasesFollowersWithoutStoring() {
+        IdempotencyStore.Flight leader = store.join(KEY, DIGEST);
+        IdempotencyStore.Flight follower = store.join(KEY, DIGEST);
+
+        StepVerifier.create(follower.result())
+                .then(leader::abandon)
+                .verifyComplete();
+
+        assertThat(store.get(KEY)).isNull();
+        assertThat(store.join(KEY, DIGEST).isLeader()).isTrue();
+    }
+
+    @Test
+    void lateFollowerStillGetsTheResult() {
+        IdempotencyStore.Flight leader = store.join(KEY, DIGEST);
+        IdempotencyStore.Flight follower = store.join(KEY, DIGEST);
+        CachedResponse response = response(200, "ok");
+        leader.complete(response);
+
+        StepVerifier.create(follower.result())
+                .expectNext(response)
+                .verifyComplete();
+    }
+
+    @Test
+    void staleFlightDoesNotRemoveItsSuccessor() {
+        IdempotencyStore.Flight first = store.join(KEY, DIGEST);
+        first.abandon();
+        IdempotencyStore.Flight second = store.join(KEY, DIGEST);
+
+        // A second abandon from the first leader must leave the new flight in place
+        first.abandon();
+
+        assertThat(second.isLeader()).isTrue();
+        assertThat(store.join(KEY, DIGEST).isLeader()).isFalse();
+    }
+
+    @Test
+    void followersSeeTheLeadersRequestDigest() {
+        store.join(KEY, DIGEST);
+        IdempotencyStore.Flight follower = store.join(KEY, "digest-2");
+
+        assertThat(follower.isFor(DIGEST)).isTrue();
+        assertThat(follower.isFor("digest-2")).isFalse();
+    }
+
+    @Test
+    void storedResponseOnlyAnswersTheSameRequest() {
+        store.join(KEY, DIGEST).complete(response(201, "{\"id\":7}"));
+
+        assertThat(store.get(KEY).answers(DIGEST)).isTrue();
+        assertThat(store.get(KEY).answers("digest-2")).isFalse();
+    }
+
+    @Test
+    void requestDigestCoversMethodTargetAndBody() {
+        byte[] body = "{\"items\":[1]}".getBytes(StandardCharsets.UTF_8);
+        String digest = store.requestDigest("POST", "/api/orders", body);
+
+        assertThat(store.requestDigest("POST", "/api/orders", body.clone())).isEqualTo(digest);
+        assertThat(store.requestDigest("PUT", "/api/orders", body)).isNotEqualTo(digest);
+        assertThat(store.requestDigest("POST", "/api/orders?dryRun=true", body)).isNotEqualTo(digest);
+        assertThat(store.requestDigest("POST", "/api/orders", "{\"items\":[2]}".getBytes(StandardCharsets.UTF_8)))
+                .isNotEqualTo(digest);
+        // The separator keeps the target and body from running into each other
+        assertThat(store.requestDigest("POST", "/api/orders", new byte[0]))
+                .isNotEqualTo(store.requestDigest("POST", "/api/order", "s".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void onlyFinalAnswersAreStorable() {
+        assertThat(store.isStorable(200)).isTrue();
+        assertThat(store.isStorable(201)).isTrue();
+        assertThat(store.isStorable(409)).isTrue();
+        assertThat(store.isStorable(408)).isFalse();
+        assertThat(store.isStorable(429)).isFalse();
+        assertThat(store.isStorable(500)).isFalse();
+        assertThat(store.isStorable(503)).isFalse();
+    }
+
+    @Test
+    void validatesKeysAndRoutes() {
+        properties.setMaxKeyLength(8);
+        properties.setRoutes(Set.of("order-service-create"));
+
+        assertThat(store.isValidKey("key-1")).isTrue();
+        assertThat(store.isValidKey("  ")).isFalse();
+        assertThat(store.isValidKey("123456789")).isFalse();
+        assertThat(store.appliesTo("order-service-create")).isTrue();
+        assertThat(store.appliesTo("product-service-list")).isFalse();
+        assertThat(store.appliesTo(null)).isFalse();
+        assertThat(store.key("order-service-create", "42", "key-1")).isEqualTo(KEY);
+    }
+
+    private static CachedResponse response(int status, String body) {
+        return new CachedResponse(status, HttpHeaders.EMPTY, body.getBytes(StandardCharsets.UTF_8),
+                System.currentTimeMillis(), 60_000);
+    }
+}
@@ -0,0 +1,125 @@
+package com.microservices.apigateway.loadbalancer;
+
+import com.microservices.apigateway.config.LoadBalancerProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class P2CLoadBalancerTest {
+
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+
+    private final List<UpstreamInstance> ejected = new ArrayList<>();
+
+    @Test
+    void chooseOtherNeverReturnsTheExcludedInstance() {
+        P2CLoadBalancer balancer = balancer(3);
+        UpstreamInstance excluded = balancer.instances()[0];
+
+        Set<UpstreamInstance> chosen = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            UpstreamInstance other = balancer.chooseOther(excluded);
+            assertThat(other).isNotNull().isNotSameAs(excluded);
+            chosen.add(other);
+        }
+        assertThat(chosen).containsExactlyInAnyOrder(balancer.instances()[1], balancer.instances()[2]);
+    }
+
+    @Test
+    void chooseOtherHasNothingToOfferForASingleInstance() {
+        P2CLoadBalancer balancer = balancer(1);
+
+        assertThat(balancer.chooseOther(balancer.instances()[0])).isNull();
+    }
+
+    @Test
+    void chooseOtherPrefersTheLessLoadedInstance() {
+        P2CLoadBalancer balancer = balancer(3);
+        UpstreamInstance[] instances = balancer.instances();
+        for (int i = 0; i < 50; i++) {
+            instances[1].started();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(balancer.chooseOther(instances[0])).isSameAs(instances[2]);
+        }
+    }
+
+    @Test
+    void chooseOtherSkipsInstancesFailingHealthProbes() {
+        P2CLoadBalancer balancer = balancer(2);
+        UpstreamInstance[] instances = balancer.instances();
+        instances[1].probedDown();
+
+        assertThat(balancer.chooseOther(instances[0])).isNull();
+        assertThat(balancer.chooseOther(instances[1])).isSameAs(instances[0]);
+    }
+
+    @Test
+    void chooseOtherDoesNotPanicWhenEveryOtherInstanceIsEjected() {
+        properties.setConsecutiveFailures(1);
+        properties.setMaxEjectionPercent(100);
+        P2CLoadBalancer balancer = balancer(3);
+        for (UpstreamInstance instance : balancer.instances()) {
+            instance.started();
+            balancer.failed(instance);
+        }
+        assertThat(ejected).hasSize(3);
+
+        assertThat(balancer.chooseOther(balancer.instances()[0])).isNull();
+        // A first attempt still goes somewhere rather than failing outright
+        Response<ServiceInstance> response = balancer.choose().block();
+        assertThat(response).isNotNull();
+        assertThat(response.hasServer()).isTrue();
+    }
+
+    @Test
+    void ejectionIsCappedByMaxEjectionPercent() {
+        properties.setConsecutiveFailures(1);
+        properties.setMaxEjectionPercent(50);
+        P2CLoadBalancer balancer = balancer(2);
+        for (UpstreamInstance instance : balancer.instances()) {
+            instance.started();
+            balancer.failed(instance);
+        }
+
+        assertThat(ejected).hasSize(1);
+        assertThat(balancer.chooseOther(ejected.get(0))).isNotNull();
+    }
+
+    @Test
+    void slowPrimaryIsALatencySampleNotAFailure() {
+        properties.setConsecutiveFailures(2);
+        P2CLoadBalancer balancer = balancer(2);
+        UpstreamInstance instance = balancer.instances()[0];
+        instance.started();
+        balancer.failed(instance);
+
+        instance.started();
+        balancer.slow(instance, 5_000_000);
+        assertThat(instance.inFlight()).isZero();
+        assertThat(instance.ewmaNanos()).isEqualTo(5_000_000);
+        assertThat(ejected).isEmpty();
+
+        // slow() left the earlier failure standing, so this is the second in a row
+        instance.started();
+        balancer.failed(instance);
+        assertThat(ejected).containsExactly(instance);
+    }
+
+    private P2CLoadBalancer balancer(int instanceCount) {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < instanceCount; i++) {
+            uris.add(URI.create("http://10.0.0." + (i + 1) + ":8080"));
+        }
+        return new P2CLoadBalancer("product-service", uris, properties, ejected::add);
+    }
+}
@@ -0,0 +1,130 @@
+package com.microservices.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketStoreTest {
+
+    // Fingerprints live above the 20 slot bits; every key here has home slot 0 in stripe 0
+    private static final long KEY_A = 1L << 20;
+
+    private static final long KEY_B = 2L << 20;
+
+    // Timestamps are 22 bits of milliseconds
+    private static final long WRAP_MILLIS = 1L << 22;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final TokenBucketStore store = new TokenBucketStore(1, 16, nanos::get);
+
+    @Test
+    void newKeyStartsWithAFullBucket() {
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(2000);
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(1000);
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(0);
+        // Empty: the answer is minus the wait for the next token
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(-1000);
+        assertThat(store.tryAcquire(KEY_B, 3, 1)).isEqualTo(2000);
+    }
+
+    @Test
+    void refillsByElapsedTimeUpToCapacity() {
+        drain(KEY_A, 3);
+
+        advanceMillis(400);
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(-600);
+
+        advanceMillis(1100);
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(500);
+
+        advanceMillis(10_000);
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(2000);
+    }
+
+    @Test
+    void refillIsExactForFastRates() {
+        drain(KEY_A, 10);
+
+        // 250 tokens/s is 250 milli-tokens per ms
+        advanceMillis(3);
+        assertThat(store.tryAcquire(KEY_A, 10, 250)).isEqualTo(-1);
+        advanceMillis(1);
+        assertThat(store.tryAcquire(KEY_A, 10, 250)).isEqualTo(0);
+    }
+
+    @Test
+    void refillSurvivesTimestampWrap() {
+        advanceMillis(WRAP_MILLIS - 200);
+        drain(KEY_A, 3);
+
+        advanceMillis(1_200);
+        assertThat(store.tryAcquire(KEY_A, 3, 1)).isEqualTo(200);
+    }
+
+    @Test
+    void sweepClearsIdleBucketsOnly() {
+        drain(KEY_A, 50, 100);
+        advanceMillis(9_000);
+        drain(KEY_B, 10, 100);
+        advanceMillis(1_000);
+
+        assertThat(store.sweep(5_000)).isEqualTo(1);
+
+        // A was cleared, so it starts over instead of resuming from 60 tokens; B keeps its 91
+        assertThat(store.tryAcquire(KEY_A, 100, 1)).isEqualTo(99_000);
+        assertThat(store.tryAcquire(KEY_B, 100, 1)).isEqualTo(90_000);
+    }
+
+    @Test
+    void sweepReclaimsBucketsIdlePastTheAmbiguityPoint() {
+        store.tryAcquire(KEY_A, 3, 1);
+        advanceMillis(TokenBucketStore.MAX_IDLE_MILLIS + 60_000);
+
+        assertThat(store.sweep(TimeUnit.MINUTES.toMillis(1))).isZero();
+    }
+
+    @Test
+    void newKeyDisplacesTheLeastRecentlyUsedBucketWhenTheWindowIsFull() {
+        for (long key = 1; key <= 16; key++) {
+            store.tryAcquire(key << 20, 3, 1);
+            advanceMillis(1);
+        }
+        advanceMillis(100);
+
+        // Key 1 is the oldest of the 16 sharing the window, so key 17 takes its slot
+        assertThat(store.tryAcquire(17L << 20, 3, 1)).isEqualTo(2000);
+        assertThat(store.sweep(Long.MAX_VALUE)).isEqualTo(16);
+
+        // Key 2 kept its bucket (one token spent, then refilled for 115 ms); key 1 starts over
+        assertThat(store.tryAcquire(2L << 20, 3, 1)).isEqualTo(2000 + 115 - 1000);
+        assertThat(store.tryAcquire(1L << 20, 3, 1)).isEqualTo(2000);
+    }
+
+    @Test
+    void rejectsSizesThatAreNotPowersOfTwo() {
+        assertThatThrownBy(() -> new TokenBucketStore(3, 16))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketStore(1, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new TokenBucketStore(4, 1024).capacity()).isEqualTo(4096);
+    }
+
+    private void drain(long key, int capacity) {
+        drain(key, capacity, capacity);
+    }
+
+    private void drain(long key, int tokens, int capacity) {
+        for (int i = 0; i < tokens; i++) {
+            store.tryAcquire(key, capacity, 1);
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -0,0 +1,75 @@
+package com.microservices.apigateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    // Full 64-bit salts, like TokenRevocationList's: the salt is folded into the hash's starting state,
+    // so salts differing only in their low bits would act like a different first character
+    private static final long SALT = 0x9e3779b97f4a7c15L;
+
+    private static final long OTHER_SALT = 0xbf58476d1ce4e5b9L;
+
+    @Test
+    void hasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(SALT, "token-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(SALT, "token-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(SALT, "token-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(SALT, "absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; allow for the variance of a single run
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void saltKeepsKeyKindsApart() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put(SALT, String.valueOf(i));
+        }
+        int crossHits = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (filter.mightContain(OTHER_SALT, String.valueOf(i))) {
+                crossHits++;
+            }
+        }
+        assertThat(crossHits).isLessThan(50);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        assertThat(filter.mightContain(SALT, "")).isFalse();
+        assertThat(filter.mightContain(SALT, "token")).isFalse();
+    }
+
+    @Test
+    void sizesForTheExpectedInsertions() {
+        BloomFilter tiny = new BloomFilter(0, 0.01);
+        assertThat(tiny.capacity()).isEqualTo(1);
+        assertThat(tiny.sizeInBytes()).isEqualTo(Long.BYTES);
+
+        // About 9.6 bits per key at 1%
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        assertThat(filter.capacity()).isEqualTo(100_000);
+        assertThat(filter.sizeInBytes()).isBetween(110_000L, 130_000L);
+    }
+}
@@ -0,0 +1,128 @@
+package com.microservices.apigateway.security;
+
+import com.microservices.apigateway.config.AuthorizationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoutePolicyEngineTest {
+
+    private static final VerifiedClaims USER_42 = new VerifiedClaims("a@example.com", "42", "USER", null, 0, 0);
+
+    private static final VerifiedClaims USER_7 = new VerifiedClaims("b@example.com", "7", "USER", null, 0, 0);
+
+    private static final VerifiedClaims ADMIN = new VerifiedClaims("c@example.com", "1", "ADMIN", null, 0, 0);
+
+    private final RoutePolicyEngine.CompiledPolicies policies = RoutePolicyEngine.compile(properties(
+            policy("/api/users/register", RoutePolicy.Access.PUBLIC),
+            policy("/actuator/**", RoutePolicy.Access.ADMIN),
+            policy("/actuator/health/**", RoutePolicy.Access.PUBLIC),
+            policy("/actuator/info/**", RoutePolicy.Access.PUBLIC),
+            policy("/api/users/admin/**", RoutePolicy.Access.ADMIN),
+            policy("/api/users/profile/**", RoutePolicy.Access.AUTHENTICATED),
+            policy("/api/users/{userId:\\d+}", RoutePolicy.Access.OWNER),
+            policy("/api/orders/user/{userId:\\d+}", RoutePolicy.Access.OWNER)));
+
+    @Test
+    void actuatorIsAdminExceptHealthAndInfo() {
+        assertThat(policies.match("/actuator").getAccess()).isEqualTo(RoutePolicy.Access.ADMIN);
+        assertThat(policies.match("/actuator/prometheus").getAccess()).isEqualTo(RoutePolicy.Access.ADMIN);
+        assertThat(policies.match("/actuator/traces/abc").getAccess()).isEqualTo(RoutePolicy.Access.ADMIN);
+        assertThat(policies.match("/actuator/health").isPublic()).isTrue();
+        assertThat(policies.match("/actuator/health/readiness").isPublic()).isTrue();
+        assertThat(policies.match("/actuator/info").isPublic()).isTrue();
+    }
+
+    @Test
+    void literalPoliciesWinOverOwnerVariable() {
+        assertThat(policies.match("/api/users/register").isPublic()).isTrue();
+        assertThat(policies.match("/api/users/profile").getAccess()).isEqualTo(RoutePolicy.Access.AUTHENTICATED);
+        assertThat(policies.match("/api/users/admin").getAccess()).isEqualTo(RoutePolicy.Access.ADMIN);
+    }
+
+    @Test
+    void ownerPolicyAppliesOnlyToNumericIds() {
+        RoutePolicy policy = policies.match("/api/users/42");
+        assertThat(policy.getAccess()).isEqualTo(RoutePolicy.Access.OWNER);
+        assertThat(policy.getOwnerSegment()).isEqualTo(2);
+
+        // Anything else under /api/users falls through to the default instead of being treated as a user id
+        RoutePolicy logout = policies.match("/api/users/logout");
+        assertThat(logout.getPattern()).isEqualTo("/**");
+        assertThat(logout.getAccess()).isEqualTo(RoutePolicy.Access.AUTHENTICATED);
+    }
+
+    @Test
+    void ownerPolicyPermitsTheOwnerAndAdmins() {
+        RoutePolicy policy = policies.match("/api/orders/user/42");
+        assertThat(policy.permits("/api/orders/user/42", USER_42)).isTrue();
+        assertThat(policy.permits("/api/orders/user/42", USER_7)).isFalse();
+        assertThat(policy.permits("/api/orders/user/42", ADMIN)).isTrue();
+        assertThat(policies.match("/api/users/420").permits("/api/users/420", USER_42)).isFalse();
+    }
+
+    @Test
+    void adminPolicyPermitsOnlyAdmins() {
+        RoutePolicy policy = policies.match("/api/users/admin/stats");
+        assertThat(policy.permits("/api/users/admin/stats", USER_42)).isFalse();
+        assertThat(policy.permits("/api/users/admin/stats", ADMIN)).isTrue();
+    }
+
+    @Test
+    void unmatchedPathsUseTheDefaultAccess() {
+        AuthorizationProperties properties = properties(policy("/public/**", RoutePolicy.Access.PUBLIC));
+        properties.setDefaultAccess(RoutePolicy.Access.ADMIN);
+
+        RoutePolicy policy = RoutePolicyEngine.compile(properties).match("/anything/else");
+        assertThat(policy.getAccess()).isEqualTo(RoutePolicy.Access.ADMIN);
+    }
+
+    @Test
+    void ownerPolicyNeedsAPathVariable() {
+        assertThatThrownBy(() -> RoutePolicyEngine.compile(properties(
+                policy("/api/users/me", RoutePolicy.Access.OWNER))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("path variable");
+
+        AuthorizationProperties.Policy named = policy("/api/users/{userId}", RoutePolicy.Access.OWNER);
+        named.setOwner("accountId");
+        assertThatThrownBy(() -> RoutePolicyEngine.compile(properties(named)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("accountId");
+    }
+
+    @Test
+    void ownerSegmentFollowsTheNamedVariable() {
+        AuthorizationProperties.Policy policy = policy("/api/users/{userId}/orders/{orderId}", RoutePolicy.Access.OWNER);
+        policy.setOwner("userId");
+
+        RoutePolicy compiled = RoutePolicyEngine.compile(properties(policy)).match("/api/users/42/orders/9");
+        assertThat(compiled.getOwnerSegment()).isEqualTo(2);
+        assertThat(compiled.permits("/api/users/42/orders/9", USER_42)).isTrue();
+    }
+
+    @Test
+    void duplicatePatternsNameThePolicy() {
+        assertThatThrownBy(() -> RoutePolicyEngine.compile(properties(
+                policy("/api/products/{id}", RoutePolicy.Access.PUBLIC),
+                policy("/api/products/*", RoutePolicy.Access.ADMIN))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("/api/products/*");
+    }
+
+    private static AuthorizationProperties properties(AuthorizationProperties.Policy... policies) {
+        AuthorizationProperties properties = new AuthorizationProperties();
+        properties.setPolicies(List.of(policies));
+        return properties;
+    }
+
+    private static AuthorizationProperties.Policy policy(String path, RoutePolicy.Access access) {
+        AuthorizationProperties.Policy policy = new AuthorizationProperties.Policy();
+        policy.setPath(path);
+        policy.setAccess(access);
+        return policy;
+    }
+}
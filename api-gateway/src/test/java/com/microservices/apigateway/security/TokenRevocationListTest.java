@@ -0,0 +1,112 @@
+package com.microservices.apigateway.security;
+
+import com.microservices.apigateway.config.RevocationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+
+    private static final long FUTURE = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RevocationProperties properties = new RevocationProperties();
+
+    @Test
+    void revokesListedTokensOnly() {
+        TokenRevocationList list = new TokenRevocationList(properties, meterRegistry);
+        list.add(List.of(tokenEntry("jti-1", "42", FUTURE)));
+
+        assertThat(list.isRevoked(claims("42", "jti-1", 0))).isTrue();
+        assertThat(list.isRevoked(claims("42", "jti-2", 0))).isFalse();
+        assertThat(list.isRevoked(claims("42", null, 0))).isFalse();
+        assertThat(meterRegistry.counter("gateway.revocation.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void userCutoffRevokesTokensIssuedBeforeIt() {
+        TokenRevocationList list = new TokenRevocationList(properties, meterRegistry);
+        list.add(List.of(userEntry("42", 1_000_000L, FUTURE)));
+
+        assertThat(list.isRevoked(claims("42", "jti-1", 999_000L))).isTrue();
+        assertThat(list.isRevoked(claims("42", "jti-1", 1_000_000L))).isFalse();
+        assertThat(list.isRevoked(claims("7", "jti-1", 0))).isFalse();
+    }
+
+    @Test
+    void laterCutoffWinsOverEarlierOne() {
+        TokenRevocationList list = new TokenRevocationList(properties, meterRegistry);
+        list.add(List.of(userEntry("42", 2_000_000L, FUTURE)));
+        list.add(List.of(userEntry("42", 1_000_000L, FUTURE)));
+
+        assertThat(list.isRevoked(claims("42", null, 1_500_000L))).isTrue();
+        assertThat(list.size()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresExpiredAndIncompleteEntries() {
+        TokenRevocationList list = new TokenRevocationList(properties, meterRegistry);
+        list.add(List.of(
+                tokenEntry("expired", "42", System.currentTimeMillis() - 1),
+                tokenEntry("no-user", null, FUTURE),
+                tokenEntry(null, "42", FUTURE),
+                userEntry("42", null, FUTURE)));
+
+        assertThat(list.size()).isZero();
+        assertThat(list.isRevoked(claims("42", "expired", 0))).isFalse();
+    }
+
+    @Test
+    void replaceDropsEntriesMissingFromTheFullSync() {
+        TokenRevocationList list = new TokenRevocationList(properties, meterRegistry);
+        list.add(List.of(tokenEntry("jti-1", "42", FUTURE), tokenEntry("jti-2", "42", FUTURE)));
+
+        list.replace(List.of(tokenEntry("jti-2", "42", FUTURE)));
+
+        assertThat(list.size()).isEqualTo(1);
+        assertThat(list.isRevoked(claims("42", "jti-1", 0))).isFalse();
+        assertThat(list.isRevoked(claims("42", "jti-2", 0))).isTrue();
+    }
+
+    @Test
+    void fullSyncGrowsAnOverfullFilter() {
+        properties.setExpectedEntries(2);
+        TokenRevocationList list = new TokenRevocationList(properties, meterRegistry);
+        List<RevocationPage.Entry> entries = List.of(
+                tokenEntry("jti-1", "42", FUTURE), tokenEntry("jti-2", "42", FUTURE), tokenEntry("jti-3", "42", FUTURE));
+
+        list.add(entries);
+        assertThat(list.isOverCapacity()).isTrue();
+
+        list.replace(entries);
+        assertThat(list.isOverCapacity()).isFalse();
+        assertThat(list.isRevoked(claims("42", "jti-3", 0))).isTrue();
+    }
+
+    private static VerifiedClaims claims(String userId, String tokenId, long issuedAt) {
+        return new VerifiedClaims("user@example.com", userId, "USER", tokenId, issuedAt, FUTURE);
+    }
+
+    private static RevocationPage.Entry tokenEntry(String tokenId, String userId, long expiresAt) {
+        RevocationPage.Entry entry = new RevocationPage.Entry();
+        entry.setType("TOKEN");
+        entry.setTokenId(tokenId);
+        entry.setUserId(userId);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+
+    private static RevocationPage.Entry userEntry(String userId, Long notBefore, long expiresAt) {
+        RevocationPage.Entry entry = new RevocationPage.Entry();
+        entry.setType("USER");
+        entry.setUserId(userId);
+        entry.setNotBefore(notBefore);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+}
@@ -0,0 +1,119 @@
+package com.microservices.apigateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathTrieTest {
+
+    @Test
+    void literalWinsOverConstrainedAndPlainWildcards() {
+        PathTrie<String> trie = PathTrie.<String>builder()
+                .add("/api/users/{id}", "wildcard")
+                .add("/api/users/{userId:\\d+}", "digits")
+                .add("/api/users/profile", "literal")
+                .build();
+
+        assertThat(trie.match("/api/users/profile")).isEqualTo("literal");
+        assertThat(trie.match("/api/users/42")).isEqualTo("digits");
+        assertThat(trie.match("/api/users/logout")).isEqualTo("wildcard");
+        assertThat(trie.size()).isEqualTo(3);
+    }
+
+    @Test
+    void constrainedWildcardMatchesWholeSegmentsOnly() {
+        PathTrie<String> trie = PathTrie.<String>builder()
+                .add("/api/users/{userId:\\d+}", "digits")
+                .add("/api/codes/{code:[a-z]{3}}", "code")
+                .build();
+
+        assertThat(trie.match("/api/users/42")).isEqualTo("digits");
+        assertThat(trie.match("/api/users/42a")).isNull();
+        assertThat(trie.match("/api/users/a42")).isNull();
+        assertThat(trie.match("/api/users")).isNull();
+        assertThat(trie.match("/api/codes/abc")).isEqualTo("code");
+        assertThat(trie.match("/api/codes/abcd")).isNull();
+        assertThat(trie.match("/api/codes/ABC")).isNull();
+    }
+
+    @Test
+    void deepestMatchWinsOverEnclosingSubtree() {
+        PathTrie<String> trie = PathTrie.<String>builder()
+                .add("/api/**", "api")
+                .add("/api/users/{id}", "user")
+                .build();
+
+        assertThat(trie.match("/api/users/7")).isEqualTo("user");
+        assertThat(trie.match("/api/users/7/orders")).isEqualTo("api");
+        assertThat(trie.match("/api/orders/7")).isEqualTo("api");
+        assertThat(trie.match("/api")).isEqualTo("api");
+        assertThat(trie.match("/other")).isNull();
+    }
+
+    @Test
+    void nestedSubtreeOverridesOuterSubtree() {
+        PathTrie<String> trie = PathTrie.<String>builder()
+                .add("/actuator/**", "admin")
+                .add("/actuator/health/**", "public")
+                .build();
+
+        assertThat(trie.match("/actuator")).isEqualTo("admin");
+        assertThat(trie.match("/actuator/prometheus")).isEqualTo("admin");
+        assertThat(trie.match("/actuator/health")).isEqualTo("public");
+        assertThat(trie.match("/actuator/health/liveness")).isEqualTo("public");
+        assertThat(trie.match("/actuator/healthz")).isEqualTo("admin");
+    }
+
+    @Test
+    void repeatedAndTrailingSlashesAreIgnored() {
+        PathTrie<String> trie = PathTrie.<String>builder()
+                .add("/api/users/{userId:\\d+}", "user")
+                .build();
+
+        assertThat(trie.match("//api///users/42/")).isEqualTo("user");
+    }
+
+    @Test
+    void rejectedValueBacktracksToNextMostSpecificMatch() {
+        PathTrie<String> trie = PathTrie.<String>builder()
+                .add("/api/**", "api")
+                .add("/api/users/{id}", "wildcard")
+                .add("/api/users/{id:\\d+}", "digits")
+                .build();
+
+        assertThat(trie.match("/api/users/42", value -> !value.equals("digits"))).isEqualTo("wildcard");
+        assertThat(trie.match("/api/users/42", value -> value.equals("api"))).isEqualTo("api");
+        assertThat(trie.match("/api/users/42", value -> false)).isNull();
+    }
+
+    @Test
+    void duplicatePatternsAreRejectedUnlessMerged() {
+        assertThatThrownBy(() -> PathTrie.<String>builder().add("/a/{x}", "1").add("/a/*", "2"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        PathTrie<String> merged = PathTrie.<String>builder((a, b) -> a + "," + b)
+                .add("/a/{x}", "1")
+                .add("/a/*", "2")
+                .build();
+        assertThat(merged.match("/a/b")).isEqualTo("1,2");
+    }
+
+    @Test
+    void invalidPatternsFailWhenAdded() {
+        assertThatThrownBy(() -> PathTrie.<String>builder().add("/a/**/b", "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PathTrie.<String>builder().add("/a/{id:[0-9}", "x"))
+                .isInstanceOf(PatternSyntaxException.class);
+    }
+
+    @Test
+    void variableNameReadsPlainAndConstrainedVariables() {
+        assertThat(PathTrie.variableName("{userId}")).isEqualTo("userId");
+        assertThat(PathTrie.variableName("{userId:\\d+}")).isEqualTo("userId");
+        assertThat(PathTrie.variableName("*")).isNull();
+        assertThat(PathTrie.variableName("users")).isNull();
+    }
+}
@@ -0,0 +1,49 @@
+package com.microservices.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded in-memory store of the most recent finished spans. Writers never block:
+ * once full, each new span overwrites the oldest one.
+ */
+public class SpanCollector {
+
+    private final AtomicReferenceArray<SpanRecord> spans;
+
+    private final AtomicLong next = new AtomicLong();
+
+    public SpanCollector(int capacity) {
+        this.spans = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(SpanRecord span) {
+        int slot = (int) (next.getAndIncrement() % spans.length());
+        spans.set(slot, span);
+    }
+
+    public List<SpanRecord> snapshot() {
+        List<SpanRecord> result = new ArrayList<>(spans.length());
+        for (int i = 0; i < spans.length(); i++) {
+            SpanRecord span = spans.get(i);
+            if (span != null) {
+                result.add(span);
+            }
+        }
+        result.sort(Comparator.comparingLong(SpanRecord::getStartEpochMicros));
+        return result;
+    }
+
+    public List<SpanRecord> findByTraceId(String traceId) {
+        List<SpanRecord> result = new ArrayList<>();
+        for (SpanRecord span : snapshot()) {
+            if (span.getTraceId().equals(traceId)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+}
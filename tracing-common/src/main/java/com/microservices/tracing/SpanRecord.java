@@ -0,0 +1,23 @@
+package com.microservices.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+// A finished span as exported by /actuator/traces
+@Getter
+@AllArgsConstructor
+public class SpanRecord {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String service;
+    private final String name;
+    private final String kind;
+    private final long startEpochMicros;
+    private final long durationMicros;
+    private final String error;
+    private final Map<String, String> attributes;
+}
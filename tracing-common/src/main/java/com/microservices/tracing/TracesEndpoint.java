@@ -0,0 +1,28 @@
+package com.microservices.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+// GET /actuator/traces lists recent spans, GET /actuator/traces/{traceId} returns one trace
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final SpanCollector spanCollector;
+
+    public TracesEndpoint(SpanCollector spanCollector) {
+        this.spanCollector = spanCollector;
+    }
+
+    @ReadOperation
+    public List<SpanRecord> spans() {
+        return spanCollector.snapshot();
+    }
+
+    @ReadOperation
+    public List<SpanRecord> trace(@Selector String traceId) {
+        return spanCollector.findByTraceId(traceId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservices.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+// Span store and /actuator/traces, shared by the gateway and the servlet services
+@AutoConfiguration
+public class TracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpanCollector spanCollector(@Value("${tracing.collector.capacity:4096}") int capacity) {
+        return new SpanCollector(capacity);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TracesEndpoint tracesEndpoint(SpanCollector spanCollector) {
+        return new TracesEndpoint(spanCollector);
+    }
+}
@@ -0,0 +1,128 @@
+package com.microservices.tracing.servlet;
+
+import com.microservices.tracing.SpanCollector;
+import com.microservices.tracing.TracingAutoConfiguration;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Request tracing for the Spring MVC services: a server span per request from the incoming traceparent,
+ * a child span per controller, service and repository call, and one for the JSON write of the response.
+ */
+@AutoConfiguration(after = TracingAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(Repository.class)
+public class ServletTracingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Tracer tracer(SpanCollector spanCollector, @Value("${spring.application.name}") String serviceName) {
+        return new Tracer(spanCollector, serviceName);
+    }
+
+    @Bean
+    public TraceFilter traceFilter(Tracer tracer) {
+        return new TraceFilter(tracer);
+    }
+
+    // Swaps Boot's Jackson converter in place, keeping its ObjectMapper and media types
+    @Bean
+    public WebMvcConfigurer tracingMessageConverters(Tracer tracer) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.replaceAll(converter -> {
+                    if (converter.getClass() != MappingJackson2HttpMessageConverter.class) {
+                        return converter;
+                    }
+                    MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converter;
+                    TracingJackson2HttpMessageConverter traced =
+                            new TracingJackson2HttpMessageConverter(jackson.getObjectMapper(), tracer);
+                    traced.setSupportedMediaTypes(jackson.getSupportedMediaTypes());
+                    return traced;
+                });
+            }
+        };
+    }
+
+    // Infrastructure role lets the auto-proxy creator already used for @Transactional/@Cacheable apply it,
+    // so every controller, service and JPA repository call becomes a child span of the request
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor(ObjectProvider<Tracer> tracerProvider) {
+        // Only the beans' own public API: no toString/hashCode/equals spans, nor CGLIB-proxied internals
+        ComposablePointcut pointcut = new ComposablePointcut(clazz ->
+                AnnotatedElementUtils.hasAnnotation(clazz, RestController.class)
+                        || AnnotatedElementUtils.hasAnnotation(clazz, Service.class)
+                        || Repository.class.isAssignableFrom(clazz), new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && !ReflectionUtils.isObjectMethod(method);
+            }
+        });
+
+        MethodInterceptor interceptor = invocation -> {
+            Tracer tracer = tracerProvider.getIfAvailable();
+            Span span = tracer != null ? tracer.startSpan(spanName(invocation), spanKind(invocation)) : null;
+            if (span == null) {
+                return invocation.proceed();
+            }
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.end();
+            }
+        };
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+
+    private static Class<?> targetType(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        return target != null ? ClassUtils.getUserClass(target) : invocation.getMethod().getDeclaringClass();
+    }
+
+    private static String spanKind(MethodInvocation invocation) {
+        return Repository.class.isAssignableFrom(targetType(invocation)) ? "CLIENT" : "INTERNAL";
+    }
+
+    private static String spanName(MethodInvocation invocation) {
+        Class<?> type = targetType(invocation);
+        // Repository beans are JDK proxies; name them after the application's repository interface
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate)) {
+                type = candidate;
+                break;
+            }
+        }
+        return type.getSimpleName() + "." + invocation.getMethod().getName();
+    }
+}
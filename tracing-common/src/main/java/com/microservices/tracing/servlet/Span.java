@@ -0,0 +1,69 @@
+package com.microservices.tracing.servlet;
+
+import com.microservices.tracing.SpanRecord;
+import com.microservices.tracing.TraceParent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// An in-flight span; end() records it and restores the parent as the thread's current span
+public final class Span {
+
+    private final Tracer tracer;
+    private final Span parent;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final String kind;
+    private final boolean sampled;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private String error;
+
+    Span(Tracer tracer, Span parent, String traceId, String parentSpanId, String name, String kind, boolean sampled) {
+        this.tracer = tracer;
+        this.parent = parent;
+        this.traceId = traceId;
+        this.spanId = TraceParent.newSpanId();
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.startEpochMicros = System.currentTimeMillis() * 1_000;
+        this.startNanos = System.nanoTime();
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    public Span tag(String key, String value) {
+        attributes.put(key, value);
+        return this;
+    }
+
+    public Span error(Throwable throwable) {
+        this.error = throwable.getClass().getSimpleName() + ": " + throwable.getMessage();
+        return this;
+    }
+
+    public void end() {
+        long durationMicros = (System.nanoTime() - startNanos) / 1_000;
+        tracer.finish(this, new SpanRecord(traceId, spanId, parentSpanId, tracer.getServiceName(), name, kind,
+                startEpochMicros, durationMicros, error, attributes));
+    }
+}
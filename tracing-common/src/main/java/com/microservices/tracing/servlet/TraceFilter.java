@@ -0,0 +1,47 @@
+package com.microservices.tracing.servlet;
+
+import com.microservices.tracing.TraceParent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Opens the server span for each request from the incoming traceparent (set by the API gateway)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    public TraceFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Span span = tracer.startServerSpan(request.getHeader(TRACEPARENT),
+                request.getMethod() + " " + request.getRequestURI());
+        response.setHeader(TRACEPARENT, TraceParent.format(span.getTraceId(), span.getSpanId(), span.isSampled()));
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.tag("http.status", String.valueOf(response.getStatus()));
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservices.tracing.servlet;
+
+import com.microservices.tracing.SpanCollector;
+import com.microservices.tracing.SpanRecord;
+import com.microservices.tracing.TraceParent;
+
+// Creates spans for the current request thread and hands finished ones to the SpanCollector
+public class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final SpanCollector spanCollector;
+
+    private final String serviceName;
+
+    public Tracer(SpanCollector spanCollector, String serviceName) {
+        this.spanCollector = spanCollector;
+        this.serviceName = serviceName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public Span currentSpan() {
+        return CURRENT.get();
+    }
+
+    /** Starts the request's server span, continuing the caller's trace when a valid traceparent is given. */
+    public Span startServerSpan(String traceparent, String name) {
+        TraceParent parent = TraceParent.parse(traceparent);
+        Span span = parent != null
+                ? new Span(this, CURRENT.get(), parent.getTraceId(), parent.getParentId(), name, "SERVER", parent.isSampled())
+                : new Span(this, CURRENT.get(), TraceParent.newTraceId(), null, name, "SERVER", true);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /** Starts a child of the current span, or returns null when the thread is not inside a traced request. */
+    public Span startSpan(String name, String kind) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return null;
+        }
+        Span span = new Span(this, parent, parent.getTraceId(), parent.getSpanId(), name, kind, parent.isSampled());
+        CURRENT.set(span);
+        return span;
+    }
+
+    void finish(Span span, SpanRecord record) {
+        if (span.getParent() != null) {
+            CURRENT.set(span.getParent());
+        } else {
+            CURRENT.remove();
+        }
+        if (span.isSampled()) {
+            spanCollector.record(record);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.microservices.userservice.dto.UserRegistrationRequest;
 import com.microservices.userservice.model.User;
 import com.microservices.userservice.security.JwtUtils;
 import com.microservices.userservice.security.UserPrincipal;
+import com.microservices.userservice.service.TokenRevocationService;
 import com.microservices.userservice.service.UserService;
 import lombok.Getter;
 import lombok.Setter;
@@ -37,6 +38,9 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationRequest registrationRequest) {
         logger.info("Registration request received for email: {}", registrationRequest.getEmail());
@@ -86,6 +90,27 @@ public class AuthController {
         }
     }
     
+    // Revokes the token this request was sent with; the API gateway rejects it from its next revocation sync
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(@RequestHeader("Authorization") String authorization) {
+        try {
+            String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+            tokenRevocationService.revokeToken(token);
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully!"));
+        } catch (Exception e) {
+            logger.error("Logout failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+    
+    // Revokes every token issued to the calling user so far, on all devices
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAllSessions(@RequestHeader("X-User-Id") String userId) {
+        logger.info("Logout from all sessions requested by user ID: {}", userId);
+        tokenRevocationService.revokeAllForUser(userId);
+        return ResponseEntity.ok(new MessageResponse("Logged out from all sessions successfully!"));
+    }
+    
     @Setter
     @Getter
     public static class MessageResponse {
@@ -0,0 +1,33 @@
+package com.microservices.userservice.controller;
+
+import com.microservices.userservice.dto.RevocationFeed;
+import com.microservices.userservice.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Revocation feed the API gateway polls; not routed through the gateway, so only reachable internally
+@RestController
+@RequestMapping("/internal/revocations")
+public class RevocationController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final long MAX_REREAD_MS = 300_000;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @GetMapping
+    public ResponseEntity<RevocationFeed> revocations(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "0") long rereadMs,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        return ResponseEntity.ok(tokenRevocationService.feed(since, Math.max(0, Math.min(rereadMs, MAX_REREAD_MS)),
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.userservice.controller;
 
 import com.microservices.userservice.model.User;
 import com.microservices.userservice.security.UserPrincipal;
+import com.microservices.userservice.service.TokenRevocationService;
 import com.microservices.userservice.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +23,9 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @GetMapping("/profile")
     public ResponseEntity<?> getUserProfile(
             @RequestHeader("X-User-Email") String userEmail,
@@ -91,10 +95,23 @@ public class UserController {
         
         try {
             userService.deleteUser(id);
+            tokenRevocationService.revokeAllForUser(id.toString());
             return ResponseEntity.ok(new AuthController.MessageResponse("User deleted successfully!"));
         } catch (Exception e) {
             logger.error("Failed to delete user: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new AuthController.MessageResponse("Error: " + e.getMessage()));
         }
     }
+    
+    @PostMapping("/admin/{id}/revoke-tokens")
+    public ResponseEntity<?> revokeUserTokens(
+            @PathVariable Long id,
+            @RequestHeader("X-User-Email") String userEmail,
+            @RequestHeader("X-User-Role") String role) {
+        
+        logger.info("Revoking all tokens of user ID: {} requested by: {} (Role: {})", id, userEmail, role);
+        
+        tokenRevocationService.revokeAllForUser(id.toString());
+        return ResponseEntity.ok(new AuthController.MessageResponse("User tokens revoked successfully!"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.microservices.userservice.dto;
+
+import com.microservices.userservice.model.RevokedToken;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of GET /internal/revocations: entries after the requested cursor, in id order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocationFeed {
+
+    private List<RevokedToken> revocations;
+
+    // Pass back as ?since= to get the next page
+    private long cursor;
+
+    // True when the page was full and more entries follow
+    private boolean more;
+}
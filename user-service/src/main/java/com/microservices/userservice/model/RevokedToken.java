@@ -0,0 +1,48 @@
+package com.microservices.userservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A revoked token (TOKEN, by jti) or every token of a user issued before notBefore (USER).
+// The id doubles as the cursor of the feed the API gateway syncs its denylist from.
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // jti of the revoked token (TOKEN only)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    // Epoch millis; tokens of the user issued before this are revoked (USER only)
+    private Long notBefore;
+
+    // Epoch millis after which every token this entry covers has expired and the entry can be dropped
+    @Column(nullable = false)
+    private Long expiresAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime revokedAt;
+
+    public enum Type {
+        TOKEN, USER
+    }
+}
@@ -0,0 +1,25 @@
+package com.microservices.userservice.repository;
+
+import com.microservices.userservice.model.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(Long since, Long now, Pageable pageable);
+
+    @Query("SELECT MIN(r.id) FROM RevokedToken r WHERE r.revokedAt >= :cutoff")
+    Long findMinIdRevokedSince(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
@@ -31,6 +32,7 @@ public class JwtUtils {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getEmail())
                 .claim("userId", userPrincipal.getId().toString())
                 .claim("role", userPrincipal.getAuthorities().iterator().next().getAuthority().replace("ROLE_", ""))
@@ -42,6 +44,7 @@ public class JwtUtils {
     
     public String generateTokenFromEmail(String email) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
@@ -58,6 +61,15 @@ public class JwtUtils {
                 .getSubject();
     }
     
+    // Claims of a token that has passed validateJwtToken (jti, userId, expiry) for revoking it
+    public Claims getClaimsFromJwtToken(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+    
     public boolean validateJwtToken(String authToken) {
         try {
             Jwts.parserBuilder()
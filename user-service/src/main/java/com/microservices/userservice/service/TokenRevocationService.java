@@ -0,0 +1,104 @@
+package com.microservices.userservice.service;
+
+import com.microservices.userservice.dto.RevocationFeed;
+import com.microservices.userservice.model.RevokedToken;
+import com.microservices.userservice.repository.RevokedTokenRepository;
+import com.microservices.userservice.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Records revoked tokens for the API gateway, which checks every request against an in-memory copy
+ * synced from feed(). An entry is kept only until every token it covers has expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtils jwtUtils;
+    private final long jwtExpirationMs;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtUtils jwtUtils,
+                                  @Value("${jwt.expiration}") long jwtExpirationMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtUtils = jwtUtils;
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
+
+    /** Revokes one token (logout). Tokens minted before tokens carried a jti revoke all of the user's tokens. */
+    public void revokeToken(String token) {
+        if (token == null || !jwtUtils.validateJwtToken(token)) {
+            throw new RuntimeException("Invalid token");
+        }
+        Claims claims = jwtUtils.getClaimsFromJwtToken(token);
+        String userId = claims.get("userId", String.class);
+        if (claims.getId() == null) {
+            logger.info("Token without jti, revoking every token of user ID: {}", userId);
+            revokeAllForUser(userId);
+            return;
+        }
+
+        RevokedToken revoked = new RevokedToken();
+        revoked.setType(RevokedToken.Type.TOKEN);
+        revoked.setTokenId(claims.getId());
+        revoked.setUserId(userId);
+        revoked.setExpiresAt(claims.getExpiration().getTime());
+        revokedTokenRepository.save(revoked);
+        logger.info("Token {} of user ID {} revoked", claims.getId(), userId);
+    }
+
+    /** Revokes every token issued to the user so far (logout everywhere, account deletion). */
+    public void revokeAllForUser(String userId) {
+        long now = System.currentTimeMillis();
+        RevokedToken revoked = new RevokedToken();
+        revoked.setType(RevokedToken.Type.USER);
+        revoked.setUserId(userId);
+        revoked.setNotBefore(now);
+        // Any token issued before now has expired by then
+        revoked.setExpiresAt(now + jwtExpirationMs);
+        revokedTokenRepository.save(revoked);
+        logger.info("All tokens of user ID {} revoked", userId);
+    }
+
+    /**
+     * Entries after the cursor, in id order. Ids are taken at insert but become visible at commit, so a
+     * row can appear behind a cursor that has already passed it; with rereadMs > 0 the page also starts
+     * early enough to include every entry recorded in that many milliseconds. Readers add entries
+     * idempotently, so the overlap is harmless.
+     */
+    public RevocationFeed feed(long since, long rereadMs, int limit) {
+        long from = since;
+        if (rereadMs > 0) {
+            LocalDateTime cutoff = LocalDateTime.now().minus(rereadMs, ChronoUnit.MILLIS);
+            Long recent = revokedTokenRepository.findMinIdRevokedSince(cutoff);
+            if (recent != null) {
+                from = Math.min(since, recent - 1);
+            }
+        }
+        List<RevokedToken> page = revokedTokenRepository.findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(
+                from, System.currentTimeMillis(), PageRequest.of(0, limit));
+        long cursor = page.isEmpty() ? since : page.get(page.size() - 1).getId();
+        return new RevocationFeed(page, cursor, page.size() == limit);
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(System.currentTimeMillis());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired token revocations", deleted);
+        }
+    }
+}
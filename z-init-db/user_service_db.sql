@@ -10,4 +10,16 @@ CREATE TABLE users (
     enabled BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+
+CREATE TABLE revoked_tokens (
+    id SERIAL PRIMARY KEY,
+    type VARCHAR(10) NOT NULL,
+    token_id VARCHAR(64),
+    user_id VARCHAR(255) NOT NULL,
+    not_before BIGINT,
+    expires_at BIGINT NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);